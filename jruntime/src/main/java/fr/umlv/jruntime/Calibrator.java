@@ -0,0 +1,18 @@
+package fr.umlv.jruntime;
+
+import java.nio.file.Path;
+
+// measures the tunings of the vectorized backend on this machine and writes them to a file
+//   java --enable-preview --add-modules jdk.incubator.vector fr.umlv.jruntime.Calibrator tunings.properties
+// the file is then read with -Dfr.umlv.jruntime.tuning=tunings.properties
+public class Calibrator {
+  public static void main(String[] args) {
+    if (args.length != 1) {
+      System.err.println("usage: Calibrator tunings.properties");
+      System.exit(1);
+    }
+    // the tunings being calibrated are not read, even if the property names the file to write
+    System.clearProperty("fr.umlv.jruntime.tuning");
+    Cell.calibrate(Path.of(args[0]));
+  }
+}
@@ -4,19 +4,46 @@ import static java.util.Objects.requireNonNull;
 import static java.util.stream.IntStream.range;
 
 import java.io.IOException;
-import java.lang.invoke.MethodHandle;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
 import java.lang.invoke.MethodHandles;
-import java.lang.invoke.MethodHandles.Lookup;
-import java.lang.invoke.MethodHandles.Lookup.ClassOption;
-import java.lang.invoke.MethodType;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.IntBinaryOperator;
+import java.util.function.IntFunction;
 import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import jdk.incubator.vector.ByteVector;
 import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.ShortVector;
 import jdk.incubator.vector.VectorOperators;
 import jdk.incubator.vector.VectorOperators.Associative;
 import jdk.incubator.vector.VectorOperators.Binary;
 import jdk.incubator.vector.VectorOperators.Unary;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorShuffle;
 import jdk.incubator.vector.VectorSpecies;
 
 public final class Cell {
@@ -35,7 +62,7 @@ public final class Cell {
         return foldValue(self, dyad);
       }
       private static Cell foldValue(Cell self, Dyad dyad) {
-        var acc = BACKEND.foldValue(dyad, self.data);
+        var acc = BACKEND.foldValue(dyad, self.store);
         return new Cell(Rank.vector(1), new int[] { acc });
       }
     }
@@ -44,6 +71,15 @@ public final class Cell {
       public int[] dims() { return new int[] { row, column }; }
 
       public Cell fold(Cell self, int rank, Dyad dyad) {
+        if (self.store instanceof Store.Transpose transpose) {
+          // the rows of a transposed matrix are the columns of the underlying one
+          var base = new Cell(Rank.matrix(column, row), Store.slice(transpose.base(), transpose.offset(), row * column));
+          return switch(rank) {
+            case 1 -> foldVectorColumn(base, dyad, column, row);
+            case 2, -1 -> foldVectorRow(base, dyad, column, row);
+            default -> throw new IllegalArgumentException("invalid rank " + rank);
+          };
+        }
         return switch(rank) {
           case 1 -> foldVectorRow(self, dyad, row, column);
           case 2, -1 -> foldVectorColumn(self, dyad, row, column);
@@ -52,12 +88,12 @@ public final class Cell {
       }
       private static Cell foldVectorRow(Cell self, Dyad dyad, int rowCount, int columnCount) {
         var data = new int[rowCount];
-        BACKEND.foldVectorRow(dyad, data, self.data, rowCount, columnCount);
+        BACKEND.foldVectorRow(dyad, data, self.store, rowCount, columnCount);
         return new Cell(Rank.vector(rowCount), data);
       }
       private static Cell foldVectorColumn(Cell self, Dyad dyad, int rowCount, int columnCount) {
         var data = new int[columnCount];
-        BACKEND.foldVectorColumn(dyad, data, self.data, rowCount, columnCount);
+        BACKEND.foldVectorColumn(dyad, data, 0, Store.widen(self.store, columnCount), 0, rowCount, columnCount);
         return new Cell(Rank.vector(columnCount), data);
       }
     }
@@ -66,6 +102,16 @@ public final class Cell {
       public int[] dims() { return new int[] {plane, row, column}; }
 
       public Cell fold(Cell self, int rank, Dyad dyad) {
+        if (self.store instanceof Store.Transpose transpose) {
+          // the rows of each transposed plane are the columns of the underlying plane
+          var base = new Cell(Rank.cube(plane, column, row), Store.slice(transpose.base(), transpose.offset(), plane * row * column));
+          return switch(rank) {
+            case 1 -> foldMatrixColumn(base, dyad, plane, column, row);
+            case 2 -> foldMatrixRow(base, dyad, plane, column, row);
+            case 3, -1 -> base.apply(dyad.fold(3)).transpose();
+            default -> throw new IllegalArgumentException("invalid rank " + rank);
+          };
+        }
         return switch(rank) {
           case 1 -> foldMatrixRow(self, dyad, plane, row, column);
           case 2 -> foldMatrixColumn(self, dyad, plane, row, column);
@@ -77,24 +123,61 @@ public final class Cell {
         var data = new int[planeCount * rowCount];
         var matrixLength = rowCount * columnCount;
         for(var k = 0; k < planeCount; k++) {
-          BACKEND.foldVectorRow(dyad, data, k * rowCount, self.data, k * matrixLength, rowCount, columnCount);
+          BACKEND.foldVectorRow(dyad, data, k * rowCount, self.store, k * matrixLength, rowCount, columnCount);
         }
         return new Cell(Rank.matrix(planeCount, rowCount), data);
       }
       private static Cell foldMatrixColumn(Cell self, Dyad dyad, int planeCount, int rowCount, int columnCount) {
         var data = new int[planeCount * columnCount];
         var matrixLength = rowCount * columnCount;
+        var src = Store.widen(self.store, columnCount);
         for(var k = 0; k < planeCount; k++) {
-          BACKEND.foldVectorColumn(dyad, data, k * columnCount, self.data, k * matrixLength, rowCount, columnCount);
+          BACKEND.foldVectorColumn(dyad, data, k * columnCount, src, k * matrixLength, rowCount, columnCount);
         }
         return new Cell(Rank.matrix(planeCount, columnCount), data);
       }
       private static Cell foldMatrixPlane(Cell self, Dyad dyad, int planeCount, int rowCount, int columnCount) {
-        var data = BACKEND.foldMatrixPlane(dyad, self.data, planeCount, rowCount, columnCount);
+        var data = BACKEND.foldMatrixPlane(dyad, self.store, planeCount, rowCount, columnCount);
         return new Cell(Rank.matrix(rowCount, columnCount), data);
       }
     }
 
+    record Tensor(int[] dims) implements Rank {
+      @Override
+      public int[] dims() { return dims.clone(); }
+
+      @Override
+      public boolean equals(Object o) {
+        return o instanceof Tensor tensor && Arrays.equals(dims, tensor.dims);
+      }
+      @Override
+      public int hashCode() {
+        return Arrays.hashCode(dims);
+      }
+      @Override
+      public String toString() {
+        return "Tensor" + Arrays.toString(dims);
+      }
+
+      public Cell fold(Cell self, int rank, Dyad dyad) {
+        var axis = foldAxis(dims, rank);
+        var outerCount = product(dims, 0, axis);
+        var length = dims[axis];
+        var innerCount = product(dims, axis + 1, dims.length);
+        var data = new int[outerCount * innerCount];
+        if (innerCount == 1) {
+          BACKEND.foldVectorRow(dyad, data, self.store, outerCount, length);
+        } else {
+          // fold the contiguous runs of innerCount values lane-wise
+          var src = Store.widen(self.store, innerCount);
+          for(var k = 0; k < outerCount; k++) {
+            BACKEND.foldVectorColumn(dyad, data, k * innerCount, src, k * length * innerCount, length, innerCount);
+          }
+        }
+        return new Cell(Rank.of(foldDims(dims, axis)), data);
+      }
+    }
+
     static Rank vector(int column) { return new Vector(column); }
     static Rank matrix(int row, int column) { return new Matrix(row, column); }
     static Rank cube(int row, int column, int plane) { return new Cube(row, column, plane); }
@@ -104,17 +187,618 @@ public final class Cell {
         case 1 -> vector(depths[0]);
         case 2 -> matrix(depths[0], depths[1]);
         case 3 -> cube(depths[0], depths[1], depths[2]);
-        default -> throw new IllegalArgumentException("not more than 3 values");
+        case 0 -> throw new IllegalArgumentException("at least one value");
+        default -> new Tensor(depths.clone());
       };
     }
   }
 
+  private /*sealed*/ interface Store {
+    int length();
+    int get(int index);
+    int[] toArray();
+
+    record IntArray(int[] array) implements Store {
+      @Override
+      public int length() { return array.length; }
+      @Override
+      public int get(int index) { return array[index]; }
+      @Override
+      public int[] toArray() { return array; }
+    }
+    record ShortArray(short[] array) implements Store {
+      @Override
+      public int length() { return array.length; }
+      @Override
+      public int get(int index) { return array[index]; }
+      @Override
+      public int[] toArray() {
+        var data = new int[array.length];
+        for(var i = 0; i < data.length; i++) {
+          data[i] = array[i];
+        }
+        return data;
+      }
+    }
+    record ByteArray(byte[] array) implements Store {
+      @Override
+      public int length() { return array.length; }
+      @Override
+      public int get(int index) { return array[index]; }
+      @Override
+      public int[] toArray() {
+        var data = new int[array.length];
+        for(var i = 0; i < data.length; i++) {
+          data[i] = array[i];
+        }
+        return data;
+      }
+    }
+
+    // 0 or -1 values, one bit per value
+    record Bits(long[] words, int length) implements Store {
+      @Override
+      public int get(int index) { return (int) -((words[index >>> 6] >>> index) & 1); }
+      @Override
+      public int[] toArray() { return BACKEND.unpackZOMO(words, length); }
+
+      Bits not() {
+        var newWords = new long[words.length];
+        for(var i = 0; i < words.length; i++) {
+          newWords[i] = ~words[i];
+        }
+        if ((length & 63) != 0) {   // clear the bits after the end
+          newWords[words.length - 1] &= -1L >>> (64 - (length & 63));
+        }
+        return new Bits(newWords, length);
+      }
+
+      static boolean isBitwise(Dyads dyads) {
+        return switch(dyads) {
+          case AND, AND_NOT, OR, XOR, MAX, MIN -> true;
+          case ADD, SUB, MUL, DIV, COUNT -> false;
+        };
+      }
+      Bits bitwise(Dyads dyads, Bits bits) {
+        var newWords = new long[words.length];
+        for(var i = 0; i < words.length; i++) {
+          var word1 = words[i];
+          var word2 = bits.words[i];
+          newWords[i] = switch(dyads) {
+            case AND, MAX -> word1 & word2;  // max(0, -1) is 0
+            case AND_NOT -> word1 & ~word2;
+            case OR, MIN -> word1 | word2;   // min(0, -1) is -1
+            case XOR -> word1 ^ word2;
+            case ADD, SUB, MUL, DIV, COUNT -> throw new AssertionError();
+          };
+        }
+        return new Bits(newWords, length);
+      }
+
+      static boolean isPopCount(Dyads dyads) {
+        return switch(dyads) {
+          case ADD, MAX, MIN, AND, OR, XOR, COUNT -> true;
+          case SUB, MUL, DIV, AND_NOT -> false;
+        };
+      }
+      int popCount(Dyads dyads, int offset, int count) {
+        var ones = bitCount(offset, offset + count);
+        return switch(dyads) {
+          case ADD -> -ones;
+          case COUNT -> count;
+          case AND -> ones == count? -1: 0;
+          case OR -> ones != 0? -1: 0;
+          case XOR -> (ones & 1) == 0? 0: -1;
+          case MAX -> count == 0? Integer.MIN_VALUE: ones == count? -1: 0;
+          case MIN -> count == 0? Integer.MAX_VALUE: ones != 0? -1: 0;
+          case SUB, MUL, DIV, AND_NOT -> throw new AssertionError();
+        };
+      }
+      private int bitCount(int from, int to) {
+        if (from == to) {
+          return 0;
+        }
+        var first = from >>> 6;
+        var last = (to - 1) >>> 6;
+        var firstMask = -1L << from;
+        var lastMask = -1L >>> (63 - ((to - 1) & 63));
+        if (first == last) {
+          return Long.bitCount(words[first] & firstMask & lastMask);
+        }
+        var count = Long.bitCount(words[first] & firstMask);
+        for(var i = first + 1; i < last; i++) {
+          count += Long.bitCount(words[i]);
+        }
+        return count + Long.bitCount(words[last] & lastMask);
+      }
+    }
+
+    // folds computed on the encoded values
+    interface Compressed extends Store {
+      int fold(Dyads dyads, int offset, int count);
+      Compressed map(IntUnaryOperator op);
+
+      // fold each row of columnCount values starting at offset
+      default void foldRows(Dyads dyads, int[] dst, int dstOffset, int offset, int rowCount, int columnCount) {
+        for(var j = 0; j < rowCount; j++) {
+          dst[dstOffset + j] = fold(dyads, offset + j * columnCount, columnCount);
+        }
+      }
+    }
+
+    static boolean isRunFoldable(Dyads dyads) {
+      return switch(dyads) {
+        case ADD, MAX, MIN, AND, OR, XOR, COUNT -> true;
+        case SUB, MUL, DIV, AND_NOT -> false;
+      };
+    }
+    // fold runLength times the same value
+    static int foldRun(Dyads dyads, int acc, int value, int runLength) {
+      return switch(dyads) {
+        case ADD -> acc + value * runLength;
+        case MAX, MIN, AND, OR -> dyads.applyAsInt(acc, value);
+        case XOR -> (runLength & 1) == 0? acc: acc ^ value;
+        case COUNT -> acc + runLength;
+        case SUB, MUL, DIV, AND_NOT -> throw new AssertionError();
+      };
+    }
+
+    // the run r is values[r] repeated from ends[r - 1] (inclusive) to ends[r] (exclusive)
+    record RunLength(int[] values, int[] ends) implements Compressed {
+      @Override
+      public int length() { return ends.length == 0? 0: ends[ends.length - 1]; }
+      @Override
+      public int get(int index) { return values[run(index)]; }
+      @Override
+      public int[] toArray() {
+        var data = new int[length()];
+        var start = 0;
+        for(var r = 0; r < values.length; r++) {
+          Arrays.fill(data, start, ends[r], values[r]);
+          start = ends[r];
+        }
+        return data;
+      }
+
+      private int run(int index) {
+        var position = Arrays.binarySearch(ends, index);
+        return position < 0? -position - 1: position + 1;
+      }
+
+      static RunLength of(int[] data, int runCount) {
+        var values = new int[runCount];
+        var ends = new int[runCount];
+        var r = -1;
+        for(var i = 0; i < data.length; i++) {
+          if (i == 0 || data[i] != data[i - 1]) {
+            values[++r] = data[i];
+          }
+          ends[r] = i + 1;
+        }
+        return new RunLength(values, ends);
+      }
+
+      @Override
+      public int fold(Dyads dyads, int offset, int count) {
+        var acc = dyads.zero();
+        var index = offset;
+        var end = offset + count;
+        for(var r = index < end? run(index): 0; index < end; r++) {
+          var runEnd = Math.min(ends[r], end);
+          acc = foldRun(dyads, acc, values[r], runEnd - index);
+          index = runEnd;
+        }
+        return acc;
+      }
+      @Override
+      public RunLength map(IntUnaryOperator op) {
+        var newValues = new int[values.length];
+        for(var r = 0; r < values.length; r++) {
+          newValues[r] = op.applyAsInt(values[r]);
+        }
+        return new RunLength(newValues, ends);
+      }
+    }
+
+    // at most 256 different values, each value is stored as a byte code
+    record Dictionary(int[] dictionary, byte[] codes) implements Compressed {
+      @Override
+      public int length() { return codes.length; }
+      @Override
+      public int get(int index) { return dictionary[codes[index] & 0xFF]; }
+      @Override
+      public int[] toArray() {
+        var data = new int[codes.length];
+        for(var i = 0; i < data.length; i++) {
+          data[i] = dictionary[codes[i] & 0xFF];
+        }
+        return data;
+      }
+
+      // twice the number of codes, so a probe sequence is short
+      private static final int SLOT_COUNT = 512;
+
+      // return null if there are too many different values
+      static Dictionary of(int[] data) {
+        // open addressing table of the values already seen, a slot contains the code + 1 or 0 if empty
+        var values = new int[SLOT_COUNT];
+        var slots = new int[SLOT_COUNT];
+        var dictionary = new int[256];
+        var size = 0;
+        var codes = new byte[data.length];
+        for(var i = 0; i < data.length; i++) {
+          var value = data[i];
+          var slot = (value * 0x9E3779B9) >>> (32 - 9);           // the 9 high bits for 512 slots
+          while(slots[slot] != 0 && values[slot] != value) {
+            slot = (slot + 1) & (SLOT_COUNT - 1);
+          }
+          if (slots[slot] == 0) {
+            if (size == dictionary.length) {
+              return null;
+            }
+            values[slot] = value;
+            dictionary[size] = value;
+            slots[slot] = ++size;
+          }
+          codes[i] = (byte) (slots[slot] - 1);
+        }
+        return new Dictionary(Arrays.copyOf(dictionary, size), codes);
+      }
+
+      @Override
+      public int fold(Dyads dyads, int offset, int count) {
+        return fold(dyads, offset, count, count < dictionary.length? null: new int[dictionary.length]);
+      }
+      @Override
+      public void foldRows(Dyads dyads, int[] dst, int dstOffset, int offset, int rowCount, int columnCount) {
+        var counts = columnCount < dictionary.length? null: new int[dictionary.length];
+        for(var j = 0; j < rowCount; j++) {
+          dst[dstOffset + j] = fold(dyads, offset + j * columnCount, columnCount, counts);
+        }
+      }
+
+      // if there are fewer values than codes, the values are folded directly,
+      // otherwise the codes are counted in counts which is left zeroed for the next row
+      private int fold(Dyads dyads, int offset, int count, int[] counts) {
+        var acc = dyads.zero();
+        if (counts == null) {
+          for(var i = offset; i < offset + count; i++) {
+            acc = dyads.applyAsInt(acc, dictionary[codes[i] & 0xFF]);
+          }
+          return acc;
+        }
+        for(var i = offset; i < offset + count; i++) {
+          counts[codes[i] & 0xFF]++;
+        }
+        for(var code = 0; code < dictionary.length; code++) {
+          if (counts[code] != 0) {
+            acc = foldRun(dyads, acc, dictionary[code], counts[code]);
+            counts[code] = 0;
+          }
+        }
+        return acc;
+      }
+      @Override
+      public Dictionary map(IntUnaryOperator op) {
+        var newDictionary = new int[dictionary.length];
+        for(var code = 0; code < dictionary.length; code++) {
+          newDictionary[code] = op.applyAsInt(dictionary[code]);
+        }
+        return new Dictionary(newDictionary, codes);
+      }
+    }
+
+    // compressed sparse rows, only the values that are not zero are stored
+    record Sparse(int columnCount, int[] rowStarts, int[] columns, int[] values) implements Store {
+      @Override
+      public int length() { return (rowStarts.length - 1) * columnCount; }
+      @Override
+      public int get(int index) {
+        var row = index / columnCount;
+        var position = Arrays.binarySearch(columns, rowStarts[row], rowStarts[row + 1], index % columnCount);
+        return position < 0? 0: values[position];
+      }
+      @Override
+      public int[] toArray() {
+        var data = new int[length()];
+        for(var row = 0; row < rowStarts.length - 1; row++) {
+          for(var position = rowStarts[row]; position < rowStarts[row + 1]; position++) {
+            data[row * columnCount + columns[position]] = values[position];
+          }
+        }
+        return data;
+      }
+
+      static Sparse of(int[] data, int columnCount, int nonZeroCount) {
+        var rowCount = data.length / columnCount;
+        var rowStarts = new int[rowCount + 1];
+        var columns = new int[nonZeroCount];
+        var values = new int[nonZeroCount];
+        var position = 0;
+        for(var row = 0; row < rowCount; row++) {
+          rowStarts[row] = position;
+          for(var column = 0; column < columnCount; column++) {
+            var value = data[row * columnCount + column];
+            if (value != 0) {
+              columns[position] = column;
+              values[position++] = value;
+            }
+          }
+        }
+        rowStarts[rowCount] = position;
+        return new Sparse(columnCount, rowStarts, columns, values);
+      }
+
+      // op(0) must be 0
+      Sparse map(IntUnaryOperator op) {
+        var newValues = new int[values.length];
+        for(var i = 0; i < values.length; i++) {
+          newValues[i] = op.applyAsInt(values[i]);
+        }
+        return new Sparse(columnCount, rowStarts, columns, newValues);
+      }
+
+      static boolean isZeroPreserving(Dyads dyads) {
+        return switch(dyads) {
+          case ADD, SUB, MUL, MAX, MIN, AND, AND_NOT, OR, XOR -> true;
+          case DIV, COUNT -> false;
+        };
+      }
+      Store merge(Dyads dyads, Sparse sparse) {
+        var rowCount = rowStarts.length - 1;
+        var newRowStarts = new int[rowCount + 1];
+        var newColumns = new int[values.length + sparse.values.length];
+        var newValues = new int[newColumns.length];
+        var position = 0;
+        for(var row = 0; row < rowCount; row++) {
+          newRowStarts[row] = position;
+          var i1 = rowStarts[row];
+          var end1 = rowStarts[row + 1];
+          var i2 = sparse.rowStarts[row];
+          var end2 = sparse.rowStarts[row + 1];
+          while(i1 < end1 || i2 < end2) {
+            var column1 = i1 < end1? columns[i1]: columnCount;
+            var column2 = i2 < end2? sparse.columns[i2]: columnCount;
+            var column = Math.min(column1, column2);
+            var value1 = column1 == column? values[i1++]: 0;
+            var value2 = column2 == column? sparse.values[i2++]: 0;
+            var value = dyads.applyAsInt(value1, value2);
+            if (value != 0) {
+              newColumns[position] = column;
+              newValues[position++] = value;
+            }
+          }
+        }
+        newRowStarts[rowCount] = position;
+        var result = new Sparse(columnCount, newRowStarts, Arrays.copyOf(newColumns, position), Arrays.copyOf(newValues, position));
+        if (position * SPARSE_RATIO > result.length()) {  // too dense
+          return pack(result.toArray(), columnCount);
+        }
+        return result;
+      }
+
+      static boolean isFoldable(Dyads dyads) {
+        return switch(dyads) {
+          case ADD, MUL, MAX, MIN, AND, OR, XOR, COUNT -> true;
+          case SUB, DIV, AND_NOT -> false;
+        };
+      }
+      void foldRows(Dyads dyads, int[] dst, int dstOffset, int rowOffset, int rowCount) {
+        for(var j = 0; j < rowCount; j++) {
+          var start = rowStarts[rowOffset + j];
+          var end = rowStarts[rowOffset + j + 1];
+          if (dyads == Dyads.COUNT) {
+            dst[dstOffset + j] = columnCount;
+            continue;
+          }
+          var acc = dyads.zero();
+          for(var position = start; position < end; position++) {
+            acc = dyads.applyAsInt(acc, values[position]);
+          }
+          if (end - start < columnCount) {   // the implicit zeros, once is enough
+            acc = dyads.applyAsInt(acc, 0);
+          }
+          dst[dstOffset + j] = acc;
+        }
+      }
+      void foldColumns(Dyads dyads, int[] dst, int dstOffset, int rowOffset, int rowCount) {
+        if (dyads == Dyads.COUNT) {
+          Arrays.fill(dst, dstOffset, dstOffset + columnCount, rowCount);
+          return;
+        }
+        Arrays.fill(dst, dstOffset, dstOffset + columnCount, dyads.zero());
+        var counts = new int[columnCount];
+        for(var position = rowStarts[rowOffset]; position < rowStarts[rowOffset + rowCount]; position++) {
+          var column = columns[position];
+          dst[dstOffset + column] = dyads.applyAsInt(dst[dstOffset + column], values[position]);
+          counts[column]++;
+        }
+        for(var column = 0; column < columnCount; column++) {
+          if (counts[column] < rowCount) {   // the implicit zeros, once is enough
+            dst[dstOffset + column] = dyads.applyAsInt(dst[dstOffset + column], 0);
+          }
+        }
+      }
+    }
+
+    // a lazy expression, evaluated tile by tile by the backend so the intermediary values stay in the cache
+    interface Lazy extends Store {}
+
+    record LazySource(Store store) implements Lazy {
+      @Override
+      public int length() { return store.length(); }
+      @Override
+      public int get(int index) { return store.get(index); }
+      @Override
+      public int[] toArray() { return store.toArray(); }
+    }
+    record LazyUnary(Monad monad, Lazy src) implements Lazy {
+      @Override
+      public int length() { return src.length(); }
+      @Override
+      public int get(int index) { return monad.applyAsInt(src.get(index)); }
+      @Override
+      public int[] toArray() { return BACKEND.evaluate(this); }
+    }
+    record LazyBinary(Dyad dyad, Lazy src1, Lazy src2) implements Lazy {
+      @Override
+      public int length() { return src1.length(); }
+      @Override
+      public int get(int index) { return dyad.applyAsInt(src1.get(index), src2.get(index)); }
+      @Override
+      public int[] toArray() { return BACKEND.evaluate(this); }
+    }
+
+    static Lazy lazy(Store store) {
+      return store instanceof Lazy lazy? lazy: new LazySource(store);
+    }
+
+    // a contiguous window of another store
+    record Slice(Store base, int offset, int length) implements Store {
+      @Override
+      public int get(int index) { return base.get(offset + index); }
+      @Override
+      public int[] toArray() {
+        var data = new int[length];
+        for(var i = 0; i < data.length; i++) {
+          data[i] = base.get(offset + i);
+        }
+        return data;
+      }
+    }
+    // planes of rowCount x columnCount values read from the planes of base stored as columnCount x rowCount
+    record Transpose(Store base, int offset, int planeCount, int rowCount, int columnCount) implements Store {
+      @Override
+      public int length() { return planeCount * rowCount * columnCount; }
+      @Override
+      public int get(int index) {
+        var matrixSize = rowCount * columnCount;
+        var within = index % matrixSize;
+        return base.get(offset + index - within + (within % columnCount) * rowCount + within / columnCount);
+      }
+      @Override
+      public int[] toArray() {
+        var data = new int[length()];
+        BACKEND.transpose(data, 0, base.toArray(), offset, planeCount, columnCount, rowCount);
+        return data;
+      }
+    }
+
+    // off-heap, the lifetime of the values is the lifetime of the arena
+    record Segment(MemorySegment segment, Arena arena) implements Store {
+      static final ValueLayout.OfInt LAYOUT = ValueLayout.JAVA_INT.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+      @Override
+      public int length() { return (int) (segment.byteSize() / Integer.BYTES); }
+      @Override
+      public int get(int index) { return segment.getAtIndex(LAYOUT, index); }
+      @Override
+      public int[] toArray() { return segment.toArray(LAYOUT); }
+
+      static Segment allocate(Arena arena, int length) {
+        // aligned on a cache line so the vector loads never straddle two lines
+        return new Segment(arena.allocate((long) length * Integer.BYTES, 64), arena);
+      }
+      static Segment copyOf(Arena arena, int[] data) {
+        var store = allocate(arena, data.length);
+        MemorySegment.copy(data, 0, store.segment, LAYOUT, 0, data.length);
+        return store;
+      }
+    }
+
+    static Store slice(Store store, int offset, int length) {
+      if (offset == 0 && length == store.length()) {
+        return store;
+      }
+      if (store instanceof Slice slice) {
+        return new Slice(slice.base, slice.offset + offset, length);
+      }
+      if (store instanceof Segment segment) {
+        return new Segment(segment.segment.asSlice((long) offset * Integer.BYTES, (long) length * Integer.BYTES), segment.arena);
+      }
+      if (store instanceof Transpose transpose) {
+        var matrixSize = transpose.rowCount * transpose.columnCount;
+        if (offset % matrixSize == 0 && length % matrixSize == 0) {
+          return new Transpose(transpose.base, transpose.offset + offset, length / matrixSize, transpose.rowCount, transpose.columnCount);
+        }
+        // not contiguous in the underlying store
+        return new IntArray(new Slice(store, offset, length).toArray());
+      }
+      return new Slice(store, offset, length);
+    }
+
+    // the column kernels work on int[] or on a memory segment, keep the array or the segment if there is already one
+    static Store widen(Store store, int columnCount) {
+      if (store instanceof IntArray || store instanceof Segment || (store instanceof Slice slice && slice.base instanceof IntArray)) {
+        return store;
+      }
+      if (store instanceof Sparse sparse && sparse.columnCount == columnCount) {
+        return store;
+      }
+      return new IntArray(store.toArray());
+    }
+
+    // at most one value out of SPARSE_RATIO is not zero
+    int SPARSE_RATIO = 20;
+    // a run costs two ints
+    int RUN_RATIO = 8;
+
+    // use the sparse storage or the narrowest storage that can hold all the values, the kernels widen them in registers
+    static Store pack(int[] data, int columnCount) {
+      var min = 0;
+      var max = 0;
+      var nonZeroCount = 0;
+      var runCount = 0;
+      for(var i = 0; i < data.length; i++) {
+        var value = data[i];
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        nonZeroCount += value != 0? 1: 0;
+        runCount += i == 0 || value != data[i - 1]? 1: 0;
+      }
+      if (data.length >= 64 && nonZeroCount * SPARSE_RATIO <= data.length) {
+        return Sparse.of(data, columnCount, nonZeroCount);
+      }
+      if (data.length >= 64 && runCount * RUN_RATIO <= data.length) {
+        return RunLength.of(data, runCount);
+      }
+      if (data.length >= 64 && min >= -1 && max <= 0) {
+        return new Bits(BACKEND.packZOMO(data), data.length);
+      }
+      if (min >= Byte.MIN_VALUE && max <= Byte.MAX_VALUE) {
+        var array = new byte[data.length];
+        for(var i = 0; i < data.length; i++) {
+          array[i] = (byte) data[i];
+        }
+        return new ByteArray(array);
+      }
+      if (data.length >= 64) {
+        var dictionary = Dictionary.of(data);
+        if (dictionary != null) {
+          return dictionary;
+        }
+      }
+      if (min >= Short.MIN_VALUE && max <= Short.MAX_VALUE) {
+        var array = new short[data.length];
+        for(var i = 0; i < data.length; i++) {
+          array[i] = (short) data[i];
+        }
+        return new ShortArray(array);
+      }
+      return new IntArray(data);
+    }
+  }
+
   private final Rank rank;
-  private final int[] data;
+  private final Store store;
 
   private Cell(Rank rank, int[] data) {
+    this(rank, new Store.IntArray(data));
+  }
+
+  private Cell(Rank rank, Store store) {
     this.rank = rank;
-    this.data = data;
+    this.store = store;
   }
 
   public static Cell of(int... data) {
@@ -122,6 +806,59 @@ public final class Cell {
     return new Cell(Rank.vector(newData.length), newData);
   }
 
+  public static Cell of(Arena arena, int... data) {
+    requireNonNull(arena);
+    return new Cell(Rank.vector(data.length), Store.Segment.copyOf(arena, data));
+  }
+
+  public Cell copyTo(Arena arena) {
+    requireNonNull(arena);
+    return new Cell(rank, Store.Segment.copyOf(arena, data()));
+  }
+
+  // file layout: dimension count, dimensions, values, all as little-endian ints
+  public static Cell map(Arena arena, Path path) throws IOException {
+    requireNonNull(arena);
+    try(var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      var segment = channel.map(MapMode.READ_ONLY, 0, channel.size(), arena);
+      if (segment.byteSize() < Integer.BYTES) {
+        throw new IllegalArgumentException("invalid file " + path);
+      }
+      var dimCount = segment.getAtIndex(Store.Segment.LAYOUT, 0);
+      if (dimCount < 0 || segment.byteSize() < (1L + dimCount) * Integer.BYTES) {
+        throw new IllegalArgumentException("invalid file " + path);
+      }
+      var rank = Rank.of(segment.asSlice(Integer.BYTES, (long) dimCount * Integer.BYTES).toArray(Store.Segment.LAYOUT));
+      var dataOffset = (1L + dimCount) * Integer.BYTES;
+      if (segment.byteSize() - dataOffset != (long) rank.elements() * Integer.BYTES) {
+        throw new IllegalArgumentException("invalid file size " + path);
+      }
+      return new Cell(rank, new Store.Segment(segment.asSlice(dataOffset), arena));
+    }
+  }
+
+  public void save(Path path) throws IOException {
+    var dims = rank.dims();
+    var dataOffset = (1L + dims.length) * Integer.BYTES;
+    var length = store.length();
+    try(var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        var arena = Arena.ofConfined()) {
+      var segment = channel.map(MapMode.READ_WRITE, 0, dataOffset + (long) length * Integer.BYTES, arena);
+      segment.setAtIndex(Store.Segment.LAYOUT, 0, dims.length);
+      MemorySegment.copy(dims, 0, segment, Store.Segment.LAYOUT, Integer.BYTES, dims.length);
+      if (store instanceof Store.Segment source) {
+        MemorySegment.copy(source.segment(), 0, segment, dataOffset, (long) length * Integer.BYTES);
+      } else {
+        MemorySegment.copy(data(), 0, segment, Store.Segment.LAYOUT, dataOffset, length);
+      }
+      segment.force();
+    }
+  }
+
+  private int[] data() {
+    return store.toArray();
+  }
+
   private static void requirePositive(int i) {
     if (i <= 0) {
       throw new IllegalArgumentException("value " + i + " is negative or null");
@@ -130,55 +867,149 @@ public final class Cell {
 
   @Override
   public boolean equals(Object o) {
-    return o instanceof Cell cell && rank.equals(cell.rank) && Arrays.equals(data, cell.data);
+    return o instanceof Cell cell && rank.equals(cell.rank) && Arrays.equals(data(), cell.data());
   }
 
   @Override
   public int hashCode() {
-    return rank.hashCode() ^ Arrays.hashCode(data);
+    return rank.hashCode() ^ Arrays.hashCode(data());
   }
 
   @Override
   public String toString() {
     //System.err.println("rank: " + rank);
     //System.err.println("data: " + Arrays.toString(data));
-    var builder = new StringBuilder();
-    var depths = rank.dims();
-    int length0, length1, length2;
-    switch(depths.length) {
-      case 1 -> { length0 = depths[0]; length1 = 1; length2 = 1; }
-      case 2 -> { length0 = depths[1]; length1 = depths[0]; length2 = 1; }
-      case 3 -> { length0 = depths[2]; length1 = depths[1]; length2 = depths[0]; }
-      default -> throw new AssertionError();
-    }
-    var index = 0;
-    var sep2 = "[";
-    for(var i = 0; i < length2; i++) {
-      builder.append(sep2);
-      var sep1 = "";
-      for(var j = 0; j < length1; j++) {
-        builder.append(sep1);
-        var sep0 = "";
-        for(var k = 0; k < length0; k++) {
-          builder.append(sep0).append(String.format("%2d", data[index++]));
-          sep0 = ", ";
-        }
-        sep1 = "\n ";
-      }
-      sep2="\n\n ";
-    }
-    return builder.append("]").toString();
+    return format(rank.dims(), index -> String.format("%2d", store.get(index)));
   }
 
   public interface Monad extends IntUnaryOperator {
     static Monad of(IntUnaryOperator op) {
       return op::applyAsInt;
     }
+    // unary must compute the same values as op, it is used by the vectorized backend
+    static Monad of(IntUnaryOperator op, Unary unary) {
+      return new VectorMonad(requireNonNull(op), requireNonNull(unary), null);
+    }
+
+    // operator algebra, a monad built only from identity(), constant(), then(Monads) and then(Dyads, Monad)
+    // is compiled by the vectorized backend into one vector loop
+    static Monad identity() {
+      return new Composite.Identity();
+    }
+    static Monad constant(int value) {
+      return new Composite.Constant(value);
+    }
+    default Monad then(Monads monads) {
+      requireNonNull(monads);
+      if (this instanceof Composite composite) {
+        return new Composite.MonadNode(monads, composite);
+      }
+      return x -> monads.applyAsInt(applyAsInt(x));
+    }
+    default Monad then(Dyads dyads, Monad monad) {
+      requireNonNull(dyads);
+      requireNonNull(monad);
+      if (this instanceof Composite left && monad instanceof Composite right) {
+        return new Composite.DyadNode(dyads, left, right);
+      }
+      return x -> dyads.applyAsInt(applyAsInt(x), monad.applyAsInt(x));
+    }
+  }
+
+  // a tree of lane-wise operations, the records are trusted so the tree is constant folded inside a snippet
+  private sealed interface Composite extends Monad {
+    IntVector vector(IntVector x);
+    Composite copy();
+
+    record Identity() implements Composite {
+      @Override
+      public int applyAsInt(int x) { return x; }
+      @Override
+      public IntVector vector(IntVector x) { return x; }
+      @Override
+      public Composite copy() { return new Identity(); }
+    }
+    record Constant(int value) implements Composite {
+      @Override
+      public int applyAsInt(int x) { return value; }
+      @Override
+      public IntVector vector(IntVector x) { return x.broadcast(value); }
+      @Override
+      public Composite copy() { return new Constant(value); }
+    }
+    record MonadNode(Monads monads, Composite operand) implements Composite {
+      @Override
+      public int applyAsInt(int x) { return monads.applyAsInt(operand.applyAsInt(x)); }
+      @Override
+      public IntVector vector(IntVector x) {
+        var unary = switch(monads) {
+          case ZOMO -> VectorOperators.ZOMO;
+          case NEG -> VectorOperators.NEG;
+          case ABS -> VectorOperators.ABS;
+          case NOT -> VectorOperators.NOT;
+        };
+        return operand.vector(x).lanewise(unary);
+      }
+      @Override
+      public Composite copy() { return new MonadNode(monads, operand.copy()); }
+    }
+    record DyadNode(Dyads dyads, Composite left, Composite right) implements Composite {
+      @Override
+      public int applyAsInt(int x) { return dyads.applyAsInt(left.applyAsInt(x), right.applyAsInt(x)); }
+      @Override
+      public IntVector vector(IntVector x) {
+        var binary = switch(dyads) {
+          case ADD -> VectorOperators.ADD;
+          case SUB -> VectorOperators.SUB;
+          case MUL -> VectorOperators.MUL;
+          case DIV -> VectorOperators.DIV;
+          case MAX -> VectorOperators.MAX;
+          case MIN -> VectorOperators.MIN;
+          case AND -> VectorOperators.AND;
+          case AND_NOT -> VectorOperators.AND_NOT;
+          case OR -> VectorOperators.OR;
+          case XOR -> VectorOperators.XOR;
+          case COUNT -> null;
+        };
+        if (binary == null) {  // COUNT
+          return left.vector(x).add(1);
+        }
+        return left.vector(x).lanewise(binary, right.vector(x));
+      }
+      @Override
+      public Composite copy() { return new DyadNode(dyads, left.copy(), right.copy()); }
+    }
+    // a composite with its snippet resolved once for an operation
+    record Bound(Composite composite, VectorizedBackend.Template snippet) implements Composite {
+      @Override
+      public int applyAsInt(int x) { return composite.applyAsInt(x); }
+      @Override
+      public IntVector vector(IntVector x) { return composite.vector(x); }
+      @Override
+      public Composite copy() { return composite.copy(); }
+    }
+  }
+
+  private static final class VectorMonad implements Monad {
+    private final IntUnaryOperator op;
+    private final Unary unary;
+    private final VectorizedBackend.Template snippet;  // resolved once for an operation, or null
+
+    private VectorMonad(IntUnaryOperator op, Unary unary, VectorizedBackend.Template snippet) {
+      this.op = op;
+      this.unary = unary;
+      this.snippet = snippet;
+    }
+
+    @Override
+    public int applyAsInt(int value) {
+      return op.applyAsInt(value);
+    }
   }
 
   public /*inline*/ record Fold(int rank, Fold left, Dyad dyad, Fold right) {
     public Fold(int rank, Fold left, Dyad dyad, Fold right) {
-      if (rank < -1 || rank > 3) {
+      if (rank < -1) {
         throw new IllegalArgumentException("invalid rank " + rank);
       }
       this.rank = rank;
@@ -189,6 +1020,31 @@ public final class Cell {
     private boolean foldVerbs() {
       return left != null && right != null;
     }
+    private void leaves(List<Fold> leaves) {
+      if (foldVerbs()) {
+        left.leaves(leaves);
+        right.leaves(leaves);
+        return;
+      }
+      leaves.add(this);
+    }
+    private Cell combine(Iterator<Cell> results) {
+      if (foldVerbs()) {
+        var leftResult = left.combine(results);
+        return leftResult.apply(dyad, right.combine(results));
+      }
+      return results.next();
+    }
+  }
+
+  // the running folds along an axis, the rank is the same as Fold
+  public /*inline*/ record Scan(int rank, Dyad dyad) {
+    public Scan {
+      if (rank < -1) {
+        throw new IllegalArgumentException("invalid rank " + rank);
+      }
+      requireNonNull(dyad);
+    }
   }
 
   public interface Dyad extends IntBinaryOperator {
@@ -207,6 +1063,13 @@ public final class Cell {
       return new Fold(rank, fold(rank), op, right.fold(rank));
     }
 
+    default Scan scan() {
+      return new Scan(-1, this);
+    }
+    default Scan scan(int rank) {
+      return new Scan(rank, this);
+    }
+
     static Dyad of(int zero, IntBinaryOperator op) {
       requireNonNull(op);
       return new Dyad() {
@@ -221,6 +1084,37 @@ public final class Cell {
         }
       };
     }
+
+    // binary must compute the same values as op, it is used by the vectorized backend,
+    // the row folds are only vectorized if binary is associative and commutative,
+    // the row scans if binary is associative and zero is its identity
+    static Dyad of(int zero, IntBinaryOperator op, Binary binary) {
+      return new VectorDyad(zero, requireNonNull(op), requireNonNull(binary), null);
+    }
+  }
+
+  private static final class VectorDyad implements Dyad {
+    private final int zero;
+    private final IntBinaryOperator op;
+    private final Binary binary;
+    private final VectorizedBackend.Template snippet;  // resolved once for an operation, or null
+
+    private VectorDyad(int zero, IntBinaryOperator op, Binary binary, VectorizedBackend.Template snippet) {
+      this.zero = zero;
+      this.op = op;
+      this.binary = binary;
+      this.snippet = snippet;
+    }
+
+    @Override
+    public int zero() {
+      return zero;
+    }
+
+    @Override
+    public int applyAsInt(int value1, int value2) {
+      return op.applyAsInt(value1, value2);
+    }
   }
 
   public enum Monads implements Monad {
@@ -235,98 +1129,443 @@ public final class Cell {
     Monads(IntUnaryOperator op) {
       this.op = op;
     }
-
-    @Override
-    public int applyAsInt(int value) {
-      return op.applyAsInt(value);
+
+    @Override
+    public int applyAsInt(int value) {
+      return op.applyAsInt(value);
+    }
+  }
+
+  public enum Dyads implements Dyad {
+    ADD(0, Integer::sum),
+    SUB(0, (acc, b) -> acc - b),
+    MUL(1, (acc, b) -> acc * b),
+    DIV(1, (acc, b) -> acc / b),
+
+    MAX(Integer.MIN_VALUE, Math::max),
+    MIN(Integer.MAX_VALUE, Math::min),
+
+    AND(0xFFFFFFFF, (acc, b) -> acc & b),
+    AND_NOT(0xFFFFFFFF, (acc, b) -> acc & ~b),
+    OR(0, (acc, b) -> acc | b),
+    XOR(0, (acc, b) -> acc ^ b),
+
+    COUNT(0, (acc, value) -> acc + 1),
+    ;
+
+    private final int zero;
+    private final IntBinaryOperator op;
+
+    Dyads(int zero, IntBinaryOperator op) {
+      this.zero = zero;
+      this.op = op;
+    }
+
+    @Override
+    public int zero() {
+      return zero;
+    }
+
+    @Override
+    public int applyAsInt(int value1, int value2) {
+      return op.applyAsInt(value1, value2);
+    }
+  }
+
+  public Cell apply(Monad monad) {
+    var boundMonad = BACKEND.bind(requireNonNull(monad));
+    if (store instanceof Store.Lazy lazy) {
+      return new Cell(rank, new Store.LazyUnary(boundMonad, lazy));
+    }
+    return new Cell(rank, BACKEND.applyUnary(boundMonad, store));
+  }
+
+  public Cell apply(Dyad dyad, Cell cell) {
+    requireNonNull(dyad);
+    if (!rank.equals(cell.rank)) {  // implicit nullcheck
+      throw new IllegalArgumentException("not the same depths " + rank + " " + cell.rank);
+    }
+    var boundDyad = BACKEND.bind(dyad);
+    if (store instanceof Store.Lazy || cell.store instanceof Store.Lazy) {
+      return new Cell(rank, new Store.LazyBinary(boundDyad, Store.lazy(store), Store.lazy(cell.store)));
+    }
+    return new Cell(rank, BACKEND.applyBinary(boundDyad, store, cell.store));
+  }
+
+  // J's a op/ b , the dyad applied on each value of this cell and each value of cell,
+  // the dimensions of the result are the dimensions of this cell followed by the ones of cell
+  public Cell outer(Dyad dyad, Cell cell) {
+    requireNonNull(dyad);
+    var dims1 = rank.dims();
+    var dims2 = cell.rank.dims();  // implicit nullcheck
+    var newDims = Arrays.copyOf(dims1, dims1.length + dims2.length);
+    System.arraycopy(dims2, 0, newDims, dims1.length, dims2.length);
+    var newRank = Rank.of(newDims);
+    var src1 = store.toArray();
+    var src2 = cell.store.toArray();
+    var data = new int[src1.length * src2.length];
+    BACKEND.applyOuter(BACKEND.bind(dyad), data, 0, src1, 0, src1.length, src2);
+    return new Cell(newRank, data);
+  }
+
+  // J's a f/ . g b , the value at (i, j) is the fold by f of g applied on the row i of this matrix
+  // and the column j of the matrix cell, ADD and MUL is the matrix product
+  public Cell inner(Dyad fold, Dyad dyad, Cell cell) {
+    requireNonNull(fold);
+    requireNonNull(dyad);
+    if (!(rank instanceof Rank.Matrix matrix1) || !(cell.rank instanceof Rank.Matrix matrix2)) {  // implicit nullcheck
+      throw new IllegalArgumentException("not two matrices " + rank + " " + cell.rank);
+    }
+    if (matrix1.column() != matrix2.row()) {
+      throw new IllegalArgumentException("incompatible depths " + rank + " " + cell.rank);
+    }
+    var data = new int[matrix1.row() * matrix2.column()];
+    BACKEND.applyInner(BACKEND.bind(fold), BACKEND.bind(dyad), data, 0, store.toArray(), 0, matrix1.row(), cell.store.toArray(), matrix1.column(), matrix2.column());
+    return new Cell(Rank.matrix(matrix1.row(), matrix2.column()), data);
+  }
+
+  // the values are stored sparse, run-length or dictionary encoded or in a byte/short array if it is smaller,
+  // the folds read less memory, but the other monads and dyads widen the values back to an int array
+  public Cell compress() {
+    var dims = rank.dims();
+    return new Cell(rank, Store.pack(store.toArray(), dims[dims.length - 1]));
+  }
+
+  // monads and dyads applied on a lazy cell are recorded and evaluated all at once by a fold or by evaluate()
+  public Cell lazy() {
+    return new Cell(rank, Store.lazy(store));
+  }
+
+  public Cell evaluate() {
+    if (store instanceof Store.Lazy lazy) {
+      return new Cell(rank, lazy.toArray());
+    }
+    return this;
+  }
+
+  public Cell apply(Fold fold) {
+    if (fold.foldVerbs()) { // implicit nullcheck
+      var leaves = new ArrayList<Fold>();
+      fold.leaves(leaves);
+      var results = foldRows(leaves);
+      if (results != null) {
+        return fold.combine(results.iterator());
+      }
+      return apply(fold.left).apply(fold.dyad, apply(fold.right));
+    }
+    var dyad = BACKEND.bind(fold.dyad);
+    // hand inlined
+    if (rank instanceof Rank.Vector vector) {
+      return vector.fold(this, fold.rank, dyad);
+    }
+    if (rank instanceof Rank.Matrix matrix) {
+      return matrix.fold(this, fold.rank, dyad);
+    }
+    if (rank instanceof Rank.Cube cube) {
+      return cube.fold(this, fold.rank, dyad);
+    }
+    if (rank instanceof Rank.Tensor tensor) {
+      return tensor.fold(this, fold.rank, dyad);
+    }
+    throw new AssertionError();
+  }
+
+
+  // all the folds of the last axis are computed in one pass over the values, or null
+  private List<Cell> foldRows(List<Fold> folds) {
+    if (store instanceof Store.Transpose) {
+      return null;
+    }
+    var foldRank = folds.get(0).rank;
+    var dyads = new Dyads[folds.size()];
+    for(var i = 0; i < dyads.length; i++) {
+      var fold = folds.get(i);
+      if (fold.rank != foldRank || !(fold.dyad instanceof Dyads foldDyads)) {
+        return null;
+      }
+      dyads[i] = foldDyads;
+    }
+    var dims = rank.dims();
+    var axis = foldAxis(dims, foldRank);
+    if (axis != dims.length - 1) {
+      return null;
+    }
+    var data = BACKEND.foldVectorRows(dyads, store, product(dims, 0, axis), dims[axis]);
+    if (data == null) {
+      return null;
+    }
+    var newRank = Rank.of(foldDims(dims, axis));
+    return Arrays.stream(data).map(result -> new Cell(newRank, result)).toList();
+  }
+
+  // J's +/\ , the value at each index is the fold of the values before it (included) along the axis
+  public Cell apply(Scan scan) {
+    var dims = rank.dims();
+    var axis = foldAxis(dims, scan.rank);  // implicit nullcheck
+    var outerCount = product(dims, 0, axis);
+    var length = dims[axis];
+    var innerCount = product(dims, axis + 1, dims.length);
+    var dyad = BACKEND.bind(scan.dyad);
+    var src = store.toArray();
+    var data = new int[src.length];
+    if (innerCount == 1) {
+      BACKEND.scanVectorRow(dyad, data, 0, src, 0, outerCount, length);
+    } else {
+      // scan the contiguous runs of innerCount values lane-wise
+      for(var k = 0; k < outerCount; k++) {
+        BACKEND.scanVectorColumn(dyad, data, k * length * innerCount, src, k * length * innerCount, length, innerCount);
+      }
+    }
+    return new Cell(rank, data);
+  }
+
+  public Cell iota() {
+    var newRank = Rank.of(data());
+    var newData = range(0, newRank.elements()).toArray();
+    return new Cell(newRank, newData);
+  }
+
+  public Cell reshape(Cell cell) {
+    var newRank = Rank.of(data());
+    var elements = newRank.elements();
+    var newData = new int[elements];
+    var length = cell.store.length();
+    for(var i = 0; i < elements; i++) {
+      newData[i] = cell.store.get(i % length);
+    }
+    return new Cell(newRank, newData);
+  }
+
+  public Cell slice(int index) {
+    var dims = rank.dims();
+    if (index < 0 || index >= dims[0]) {
+      throw new IllegalArgumentException("invalid index " + index);
+    }
+    if (dims.length == 1) {
+      return new Cell(Rank.vector(1), Store.slice(store, index, 1));
+    }
+    var newRank = Rank.of(Arrays.copyOfRange(dims, 1, dims.length));
+    var elements = newRank.elements();
+    return new Cell(newRank, Store.slice(store, index * elements, elements));
+  }
+
+  // swap the last two axes
+  public Cell transpose() {
+    var dims = rank.dims();
+    if (dims.length == 1) {
+      return this;
+    }
+    var planeCount = product(dims, 0, dims.length - 2);
+    var rowCount = dims[dims.length - 2];
+    var columnCount = dims[dims.length - 1];
+    var newDims = dims.clone();
+    newDims[dims.length - 2] = columnCount;
+    newDims[dims.length - 1] = rowCount;
+    var newRank = Rank.of(newDims);
+    if (store instanceof Store.Transpose transpose) {
+      return new Cell(newRank, Store.slice(transpose.base(), transpose.offset(), store.length()));
+    }
+    return new Cell(newRank, new Store.Transpose(store, 0, planeCount, columnCount, rowCount));
+  }
+
+  // J's /:~ and \:~ , the values sorted along the axis of the rank (same as Fold)
+  public Cell sortUp(int rank) {
+    return sort(rank, false, false);
+  }
+  public Cell sortDown(int rank) {
+    return sort(rank, true, false);
+  }
+  // J's /: and \: , the indexes along the axis of the values in sorted order, equal values keep their order
+  public Cell gradeUp(int rank) {
+    return sort(rank, false, true);
+  }
+  public Cell gradeDown(int rank) {
+    return sort(rank, true, true);
+  }
+
+  private Cell sort(int sortRank, boolean down, boolean grade) {
+    var dims = rank.dims();
+    var axis = foldAxis(dims, sortRank);
+    var last = dims.length - 1;
+    // the axis is moved last, so the values to sort are the rows
+    var axes = IntStream.concat(range(0, dims.length).filter(i -> i != axis), IntStream.of(axis)).toArray();
+    var cell = axis == last? this: permute(axes);
+    var src = cell.store.toArray();
+    var columnCount = dims[axis];
+    var rowCount = columnCount == 0? 0: src.length / columnCount;
+    // NOT reverses the order of the values without overflow
+    var keys = down? BACKEND.applyUnary(Monads.NOT, src): src;
+    int[] data;
+    if (grade) {
+      data = new int[src.length];
+      BACKEND.gradeRows(data, 0, keys, 0, rowCount, columnCount);
+    } else {
+      data = keys == src? src.clone(): keys;
+      BACKEND.sortRows(data, 0, rowCount, columnCount);
+      if (down) {
+        BACKEND.applyUnaryInPlace(Monads.NOT, data, 0, data.length);
+      }
+    }
+    var result = new Cell(cell.rank, data);
+    if (axis == last) {
+      return result;
+    }
+    var inverse = new int[axes.length];
+    for(var i = 0; i < axes.length; i++) {
+      inverse[axes[i]] = i;
     }
+    return result.permute(inverse);
   }
 
-  public enum Dyads implements Dyad {
-    ADD(0, Integer::sum),
-    SUB(0, (acc, b) -> acc - b),
-    MUL(1, (acc, b) -> acc * b),
-    DIV(1, (acc, b) -> acc / b),
-
-    MAX(Integer.MIN_VALUE, Math::max),
-    MIN(Integer.MAX_VALUE, Math::min),
-
-    AND(0xFFFFFFFF, (acc, b) -> acc & b),
-    AND_NOT(0xFFFFFFFF, (acc, b) -> acc & ~b),
-    OR(0, (acc, b) -> acc | b),
-    XOR(0, (acc, b) -> acc ^ b),
+  // reorder the axes, the axis i of the result is the axis axes[i] of this cell, the values are copied
+  public Cell permute(int... axes) {
+    var dims = rank.dims();
+    if (axes.length != dims.length || Arrays.stream(axes).distinct().filter(axis -> axis >= 0 && axis < dims.length).count() != dims.length) {
+      throw new IllegalArgumentException("invalid axes " + Arrays.toString(axes));
+    }
+    var last = dims.length - 1;
+    var position = range(0, axes.length).filter(i -> axes[i] == last).findFirst().orElseThrow();
+    var newDims = Arrays.stream(axes).map(axis -> dims[axis]).toArray();
+    var src = store.toArray();
 
-    COUNT(0, (acc, value) -> acc + 1),
-    ;
+    // first put the last axis after the others, the rows are moved as a whole
+    var order = IntStream.concat(Arrays.stream(axes).filter(axis -> axis != last), IntStream.of(last)).toArray();
+    var data = permuteRows(src, dims, order);
+    if (position == last) {
+      return new Cell(Rank.of(newDims), data);
+    }
+    // then transpose the matrices made of the axes after the position of the last axis and the last axis
+    var planeCount = product(newDims, 0, position);
+    var rowCount = product(newDims, position + 1, newDims.length);
+    var newData = new int[data.length];
+    BACKEND.transpose(newData, 0, data, 0, planeCount, rowCount, dims[last]);
+    return new Cell(Rank.of(newDims), newData);
+  }
 
-    private final int zero;
-    private final IntBinaryOperator op;
+  // the last axis is not moved, order[i] is the axis of dims at the position i
+  private static int[] permuteRows(int[] src, int[] dims, int[] order) {
+    if (range(0, order.length).allMatch(i -> order[i] == i)) {
+      return src;
+    }
+    var last = dims.length - 1;
+    var columnCount = dims[last];
+    var strides = new int[dims.length];
+    for(var axis = 0; axis < dims.length; axis++) {
+      strides[axis] = product(dims, axis + 1, dims.length);
+    }
+    var data = new int[src.length];
+    var indexes = new int[last];  // indexes on the axes of the result except the last one
+    for(var dstOffset = 0; dstOffset < data.length; dstOffset += columnCount) {
+      var srcOffset = 0;
+      for(var i = 0; i < last; i++) {
+        srcOffset += indexes[i] * strides[order[i]];
+      }
+      System.arraycopy(src, srcOffset, data, dstOffset, columnCount);
+      for(var i = last - 1; i >= 0 && ++indexes[i] == dims[order[i]]; i--) {
+        indexes[i] = 0;
+      }
+    }
+    return data;
+  }
 
-    Dyads(int zero, IntBinaryOperator op) {
-      this.zero = zero;
-      this.op = op;
+  public LongCell asLong() {
+    var newData = new long[store.length()];
+    for(var i = 0; i < newData.length; i++) {
+      newData[i] = store.get(i);
     }
+    return new LongCell(rank.dims(), newData);
+  }
 
-    @Override
-    public int zero() {
-      return zero;
+  public FloatCell asFloat() {
+    var newData = new float[store.length()];
+    for(var i = 0; i < newData.length; i++) {
+      newData[i] = store.get(i);
     }
+    return new FloatCell(rank.dims(), newData);
+  }
 
-    @Override
-    public int applyAsInt(int value1, int value2) {
-      return op.applyAsInt(value1, value2);
+  public DoubleCell asDouble() {
+    var newData = new double[store.length()];
+    for(var i = 0; i < newData.length; i++) {
+      newData[i] = store.get(i);
     }
+    return new DoubleCell(rank.dims(), newData);
   }
 
-  public Cell apply(Monad monad) {
-    requireNonNull(monad);
-    return new Cell(rank, BACKEND.applyUnary(monad, data));
+  public LongCell reshape(LongCell cell) {
+    var newRank = Rank.of(data());
+    return cell.reshape(newRank.dims(), newRank.elements());
   }
 
-  public Cell apply(Dyad dyad, Cell cell) {
-    requireNonNull(dyad);
-    if (!rank.equals(cell.rank)) {  // implicit nullcheck
-      throw new IllegalArgumentException("not the same depths " + rank + " " + cell.rank);
-    }
-    return new Cell(rank, BACKEND.applyBinary(dyad, data, cell.data));
+  public FloatCell reshape(FloatCell cell) {
+    var newRank = Rank.of(data());
+    return cell.reshape(newRank.dims(), newRank.elements());
   }
 
-  public Cell apply(Fold fold) {
-    if (fold.foldVerbs()) { // implicit nullcheck
-      return apply(fold.left).apply(fold.dyad, apply(fold.right));
-    }
-    // hand inlined
-    if (rank instanceof Rank.Vector vector) {
-      return vector.fold(this, fold.rank, fold.dyad);
+  public DoubleCell reshape(DoubleCell cell) {
+    var newRank = Rank.of(data());
+    return cell.reshape(newRank.dims(), newRank.elements());
+  }
+
+  int[] dims() {
+    return rank.dims();
+  }
+
+
+  // --- shape helpers, also used by the typed cells ---
+  static String format(int[] depths, IntFunction<String> formatter) {
+    var builder = new StringBuilder("[");
+    var elements = product(depths, 0, depths.length);
+    for(var index = 0; index < elements; index++) {
+      if (index != 0) {
+        // one newline per axis that starts again at this index
+        var level = 0;
+        var size = 1;
+        for(var axis = depths.length; --axis > 0;) {
+          size *= depths[axis];
+          if (index % size != 0) {
+            break;
+          }
+          level++;
+        }
+        builder.append(level == 0? ", ": "\n".repeat(level) + " ");
+      }
+      builder.append(formatter.apply(index));
     }
-    if (rank instanceof Rank.Matrix matrix) {
-      return matrix.fold(this, fold.rank, fold.dyad);
+    return builder.append("]").toString();
+  }
+
+  static int foldAxis(int[] dims, int rank) {
+    if (dims.length == 1 || rank == -1) {
+      return 0;
     }
-    if (rank instanceof Rank.Cube cube) {
-      return cube.fold(this, fold.rank, fold.dyad);
+    if (rank < 1 || rank > dims.length) {
+      throw new IllegalArgumentException("invalid rank " + rank);
     }
-    throw new AssertionError();
+    return dims.length - rank;
   }
 
-
-  public Cell iota() {
-    var newRank = Rank.of(data);
-    var newData = range(0, newRank.elements()).toArray();
-    return new Cell(newRank, newData);
+  static int[] foldDims(int[] dims, int axis) {
+    if (dims.length == 1) {
+      return new int[] { 1 };
+    }
+    var newDims = new int[dims.length - 1];
+    System.arraycopy(dims, 0, newDims, 0, axis);
+    System.arraycopy(dims, axis + 1, newDims, axis, dims.length - axis - 1);
+    return newDims;
   }
 
-  public Cell reshape(Cell cell) {
-    var newRank = Rank.of(data);
-    var elements = newRank.elements();
-    var newData = new int[elements];
-    for(var i = 0; i < elements; i++) {
-      newData[i] = cell.data[i % cell.data.length];
+  static int product(int[] dims, int from, int to) {
+    var product = 1;
+    for(var i = from; i < to; i++) {
+      product *= dims[i];
     }
-    return new Cell(newRank, newData);
+    return product;
   }
 
-  /* for testing */ int[] dims() {
-    return rank.dims();
+  static boolean isVectorized() {
+    return BACKEND instanceof VectorizedBackend
+        || BACKEND instanceof ParallelBackend parallelBackend && parallelBackend.backend instanceof VectorizedBackend;
   }
 
 
@@ -346,13 +1585,28 @@ public final class Cell {
     } else {
       backend = new ClassicBackend();
     }
+    var enableParallelBackend = Boolean.parseBoolean(System.getProperty("fr.umlv.jruntime.parallel", "false"));
+    if (enableParallelBackend) {
+      backend = new ParallelBackend(backend);
+    }
     BACKEND = backend;
   }
 
   public static String backendVersion() { return BACKEND.toString(); }
 
+  // measures the tunings of the vectorized backend on this machine and writes them to path, see Calibrator
+  static void calibrate(Path path) { VectorizedBackend.calibrate(path); }
+
   private abstract static sealed class Backend {
-    private int[] applyUnary(Monad monad, int[] src) {
+    // called once per operation before the values are split in tiles or in chunks
+    Monad bind(Monad monad) {
+      return monad;
+    }
+    Dyad bind(Dyad dyad) {
+      return dyad;
+    }
+
+    int[] applyUnary(Monad monad, int[] src) {
       if (monad instanceof Monads monads) {
         return switch(monads) {
           case ZOMO -> applyUnaryZOMO(src);
@@ -361,9 +1615,15 @@ public final class Cell {
           case NOT -> applyUnaryNOT(src);
         };
       }
+      if (monad instanceof VectorMonad vectorMonad) {
+        return applyUnaryUser(vectorMonad, src);
+      }
+      if (monad instanceof Composite composite) {
+        return applyUnaryComposite(composite, src);
+      }
       return ClassicBackend.applyUnaryGeneric(src, monad);
     }
-    private int[] applyBinary(Dyad dyad, int[] src1, int[] src2) {
+    int[] applyBinary(Dyad dyad, int[] src1, int[] src2) {
       if (dyad instanceof Dyads dyads) {
         return switch(dyads) {
           case ADD -> applyBinaryADD(src1, src2);
@@ -379,10 +1639,57 @@ public final class Cell {
           case COUNT -> applyBinaryCOUNT(src1, src2);
         };
       }
+      if (dyad instanceof VectorDyad vectorDyad) {
+        return applyBinaryUser(vectorDyad, src1, src2);
+      }
       return ClassicBackend.applyBinaryGeneric(src1, src2, dyad);
     }
 
-    private int foldValue(Dyad dyad, int[] src) {
+    private Store applyUnary(Monad monad, Store src) {
+      if (src instanceof Store.Segment segment) {
+        var dst = Store.Segment.allocate(segment.arena(), segment.length());
+        if (monad instanceof Monads monads) {
+          applyUnary(monads, segment.segment(), dst.segment());
+        } else {
+          ClassicBackend.applyUnaryGeneric(segment.segment(), dst.segment(), monad);
+        }
+        return dst;
+      }
+      if (monad == Monads.ZOMO && src instanceof Store.Bits) {
+        return src;
+      }
+      if (monad == Monads.NOT && src instanceof Store.Bits bits) {
+        return bits.not();
+      }
+      if ((monad == Monads.NEG || monad == Monads.ABS) && src instanceof Store.Sparse sparse) {
+        return sparse.map(monad);
+      }
+      if (src instanceof Store.Compressed compressed) {
+        return compressed.map(monad);
+      }
+      return new Store.IntArray(applyUnary(monad, src.toArray()));
+    }
+    private Store applyBinary(Dyad dyad, Store src1, Store src2) {
+      if (src1 instanceof Store.Segment segment1) {
+        var dst = Store.Segment.allocate(segment1.arena(), segment1.length());
+        if (src2 instanceof Store.Segment segment2 && dyad instanceof Dyads dyads) {
+          applyBinary(dyads, segment1.segment(), segment2.segment(), dst.segment());
+        } else {
+          ClassicBackend.applyBinaryGeneric(segment1, src2, dst.segment(), dyad);
+        }
+        return dst;
+      }
+      if (src1 instanceof Store.Bits bits1 && src2 instanceof Store.Bits bits2 && dyad instanceof Dyads dyads && Store.Bits.isBitwise(dyads)) {
+        return bits1.bitwise(dyads, bits2);
+      }
+      if (src1 instanceof Store.Sparse sparse1 && src2 instanceof Store.Sparse sparse2 && sparse1.columnCount() == sparse2.columnCount()
+          && dyad instanceof Dyads dyads && Store.Sparse.isZeroPreserving(dyads)) {
+        return sparse1.merge(dyads, sparse2);
+      }
+      return new Store.IntArray(applyBinary(dyad, src1.toArray(), src2.toArray()));
+    }
+
+    int foldValue(Dyad dyad, int[] src) {
       if (dyad instanceof Dyads dyads) {
         try {
           return switch(dyads) {
@@ -404,87 +1711,530 @@ public final class Cell {
           throw new AssertionError(e);
         }
       }
-      return ClassicBackend.foldValueGeneric(src, dyad.zero(), dyad);
+      if (dyad instanceof VectorDyad vectorDyad) {
+        return foldValueUser(vectorDyad, src);
+      }
+      return ClassicBackend.foldValueGeneric(src, dyad.zero(), dyad);
+    }
+    void foldVectorColumn(Dyad dyad, int[] dst, int[] src, int rowCount, int columnCount) {
+      if (dyad instanceof Dyads dyads) {
+        switch(dyads) {
+          case ADD -> { foldVectorColumnADD(dst, src, rowCount, columnCount); return; }
+          case SUB -> { foldVectorColumnSUB(dst, src, rowCount, columnCount); return; }
+          case MUL -> { foldVectorColumnMUL(dst, src, rowCount, columnCount); return; }
+          case DIV -> { foldVectorColumnDIV(dst, src, rowCount, columnCount); return; }
+          case MAX -> { foldVectorColumnMAX(dst, src, rowCount, columnCount); return; }
+          case MIN -> { foldVectorColumnMIN(dst, src, rowCount, columnCount); return; }
+          case AND -> { foldVectorColumnAND(dst, src, rowCount, columnCount); return; }
+          case AND_NOT -> { foldVectorColumnAND_NOT(dst, src, rowCount, columnCount); return; }
+          case OR -> { foldVectorColumnOR(dst, src, rowCount, columnCount); return; }
+          case XOR -> { foldVectorColumnXOR(dst, src, rowCount, columnCount); return; }
+          case COUNT -> { foldVectorColumnCOUNT(dst, src, rowCount, columnCount); return; }
+          default -> throw new AssertionError();
+        }
+      }
+      if (dyad instanceof VectorDyad vectorDyad) {
+        foldVectorColumnUser(vectorDyad, dst, 0, src, 0, rowCount, columnCount);
+        return;
+      }
+      ClassicBackend.foldVectorColumnGeneric(dst, 0, src, 0, rowCount, columnCount, dyad.zero(), dyad);
+    }
+    void foldVectorColumn(Dyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) {
+      if (dyad instanceof Dyads dyads) {
+        switch(dyads) {
+          case ADD -> { foldVectorColumnADD(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
+          case SUB -> { foldVectorColumnSUB(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
+          case MUL -> { foldVectorColumnMUL(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
+          case DIV -> { foldVectorColumnDIV(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
+          case MAX -> { foldVectorColumnMAX(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
+          case MIN -> { foldVectorColumnMIN(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
+          case AND -> { foldVectorColumnAND(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
+          case AND_NOT -> { foldVectorColumnAND_NOT(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
+          case OR -> { foldVectorColumnOR(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
+          case XOR -> { foldVectorColumnXOR(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
+          case COUNT -> { foldVectorColumnCOUNT(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
+          default -> throw new AssertionError();
+        }
+      }
+      if (dyad instanceof VectorDyad vectorDyad) {
+        foldVectorColumnUser(vectorDyad, dst, dstOffset, src, srcOffset, rowCount, columnCount);
+        return;
+      }
+      ClassicBackend.foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, dyad.zero(), dyad);
+    }
+
+    void foldVectorRow(Dyad dyad, int[] dst, int[] src, int rowCount, int columnCount) {
+      if (dyad instanceof Dyads dyads) {
+        switch(dyads) {
+          case ADD -> { foldVectorRowADD(dst, src, rowCount, columnCount); return; }
+          case SUB -> { foldVectorRowSUB(dst, src, rowCount, columnCount); return; }
+          case MUL -> { foldVectorRowMUL(dst, src, rowCount, columnCount); return; }
+          case DIV -> { foldVectorRowDIV(dst, src, rowCount, columnCount); return; }
+          case MAX -> { foldVectorRowMAX(dst, src, rowCount, columnCount); return; }
+          case MIN -> { foldVectorRowMIN(dst, src, rowCount, columnCount); return; }
+          case AND -> { foldVectorRowAND(dst, src, rowCount, columnCount); return; }
+          case AND_NOT -> { foldVectorRowAND_NOT(dst, src, rowCount, columnCount); return; }
+          case OR -> { foldVectorRowOR(dst, src, rowCount, columnCount); return; }
+          case XOR -> { foldVectorRowXOR(dst, src, rowCount, columnCount); return; }
+          case COUNT -> { foldVectorRowCOUNT(dst, src, rowCount, columnCount); return; }
+          default -> throw new AssertionError();
+        }
+      }
+      if (dyad instanceof VectorDyad vectorDyad) {
+        foldVectorRowUser(vectorDyad, dst, 0, src, 0, rowCount, columnCount);
+        return;
+      }
+      ClassicBackend.foldVectorRowGeneric(dst, 0, src, 0, rowCount, columnCount, dyad.zero(), dyad);
+    }
+    void foldVectorRow(Dyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) {
+      if (dyad instanceof Dyads dyads) {
+        switch(dyads) {
+          case ADD -> { foldVectorRowADD(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
+          case SUB -> { foldVectorRowSUB(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
+          case MUL -> { foldVectorRowMUL(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
+          case DIV -> { foldVectorRowDIV(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
+          case MAX -> { foldVectorRowMAX(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
+          case MIN -> { foldVectorRowMIN(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
+          case AND -> { foldVectorRowAND(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
+          case AND_NOT -> { foldVectorRowAND_NOT(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
+          case OR -> { foldVectorRowOR(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
+          case XOR -> { foldVectorRowXOR(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
+          case COUNT -> { foldVectorRowCOUNT(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
+          default -> throw new AssertionError();
+        }
+      }
+      if (dyad instanceof VectorDyad vectorDyad) {
+        foldVectorRowUser(vectorDyad, dst, dstOffset, src, srcOffset, rowCount, columnCount);
+        return;
+      }
+      ClassicBackend.foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, dyad.zero(), dyad);
+    }
+
+    private int foldValue(Dyad dyad, Store src) {
+      if (dyad == Dyads.COUNT) {
+        return src.length();
+      }
+      if (src instanceof Store.Slice slice) {
+        var dst = new int[1];
+        foldVectorRow(dyad, dst, 0, slice.base(), slice.offset(), 1, slice.length());
+        return dst[0];
+      }
+      if (src instanceof Store.IntArray intArray) {
+        return foldValue(dyad, intArray.array());
+      }
+      if (src instanceof Store.Bits bits && dyad instanceof Dyads dyads && Store.Bits.isPopCount(dyads)) {
+        return bits.popCount(dyads, 0, bits.length());
+      }
+      if (src instanceof Store.Sparse || src instanceof Store.Compressed || src instanceof Store.Lazy) {
+        var dst = new int[1];
+        foldVectorRow(dyad, dst, 0, src, 0, 1, src.length());
+        return dst[0];
+      }
+      if (dyad instanceof Dyads dyads && isAssociative(dyads)) {
+        var dst = new int[1];
+        foldVectorRowAssoc(dyads, dst, 0, src, 0, 1, src.length());
+        return dst[0];
+      }
+      if (src instanceof Store.Segment segment) {
+        return foldValue(dyad, segment.segment());
+      }
+      return foldValue(dyad, src.toArray());
+    }
+    private void foldVectorRow(Dyad dyad, int[] dst, Store src, int rowCount, int columnCount) {
+      if (src instanceof Store.Slice slice) {
+        foldVectorRow(dyad, dst, 0, slice.base(), slice.offset(), rowCount, columnCount);
+        return;
+      }
+      if (src instanceof Store.IntArray intArray) {
+        foldVectorRow(dyad, dst, intArray.array(), rowCount, columnCount);
+        return;
+      }
+      if (src instanceof Store.Bits || src instanceof Store.Sparse || src instanceof Store.Compressed || src instanceof Store.Lazy) {
+        foldVectorRow(dyad, dst, 0, src, 0, rowCount, columnCount);
+        return;
+      }
+      if (dyad instanceof Dyads dyads && isAssociative(dyads)) {
+        foldVectorRowAssoc(dyads, dst, 0, src, 0, rowCount, columnCount);
+        return;
+      }
+      foldVectorRow(dyad, dst, src.toArray(), rowCount, columnCount);
+    }
+    private void foldVectorRow(Dyad dyad, int[] dst, int dstOffset, Store src, int srcOffset, int rowCount, int columnCount) {
+      if (src instanceof Store.Slice slice) {
+        foldVectorRow(dyad, dst, dstOffset, slice.base(), slice.offset() + srcOffset, rowCount, columnCount);
+        return;
+      }
+      if (src instanceof Store.IntArray intArray) {
+        foldVectorRow(dyad, dst, dstOffset, intArray.array(), srcOffset, rowCount, columnCount);
+        return;
+      }
+      if (src instanceof Store.Bits bits && dyad instanceof Dyads dyads && Store.Bits.isPopCount(dyads)) {
+        for(var j = 0; j < rowCount; j++) {
+          dst[dstOffset + j] = bits.popCount(dyads, srcOffset + j * columnCount, columnCount);
+        }
+        return;
+      }
+      if (src instanceof Store.Sparse sparse && sparse.columnCount() == columnCount && srcOffset % columnCount == 0
+          && dyad instanceof Dyads dyads && Store.Sparse.isFoldable(dyads)) {
+        sparse.foldRows(dyads, dst, dstOffset, srcOffset / columnCount, rowCount);
+        return;
+      }
+      if (src instanceof Store.Compressed compressed && dyad instanceof Dyads dyads && Store.isRunFoldable(dyads)) {
+        compressed.foldRows(dyads, dst, dstOffset, srcOffset, rowCount, columnCount);
+        return;
+      }
+      if (src instanceof Store.Lazy lazy && dyad instanceof Dyads dyads && (isAssociative(dyads) || dyads == Dyads.COUNT)) {
+        foldLazy(dyads, dst, dstOffset, lazy, srcOffset, rowCount, columnCount);
+        return;
+      }
+      if (dyad instanceof Dyads dyads && isAssociative(dyads)) {
+        foldVectorRowAssoc(dyads, dst, dstOffset, src, srcOffset, rowCount, columnCount);
+        return;
+      }
+      foldVectorRow(dyad, dst, dstOffset, src.toArray(), srcOffset, rowCount, columnCount);
+    }
+
+    private void foldVectorColumn(Dyad dyad, int[] dst, int dstOffset, Store src, int srcOffset, int rowCount, int columnCount) {
+      if (dyad == Dyads.COUNT) {
+        Arrays.fill(dst, dstOffset, dstOffset + columnCount, rowCount);
+        return;
+      }
+      if (src instanceof Store.Slice slice) {
+        foldVectorColumn(dyad, dst, dstOffset, slice.base(), slice.offset() + srcOffset, rowCount, columnCount);
+        return;
+      }
+      if (src instanceof Store.IntArray intArray) {
+        foldVectorColumn(dyad, dst, dstOffset, intArray.array(), srcOffset, rowCount, columnCount);
+        return;
+      }
+      if (src instanceof Store.Sparse sparse && sparse.columnCount() == columnCount && srcOffset % columnCount == 0
+          && dyad instanceof Dyads dyads && Store.Sparse.isFoldable(dyads)) {
+        sparse.foldColumns(dyads, dst, dstOffset, srcOffset / columnCount, rowCount);
+        return;
+      }
+      if (src instanceof Store.Segment segment) {
+        foldVectorColumn(dyad, dst, dstOffset, segment.segment(), srcOffset, rowCount, columnCount);
+        return;
+      }
+      foldVectorColumn(dyad, dst, dstOffset, src.toArray(), srcOffset, rowCount, columnCount);
+    }
+
+    private int[] foldMatrixPlane(Dyad dyad, Store src, int planeCount, int rowCount, int columnCount) {
+      if (dyad == Dyads.COUNT) {
+        var dst = new int[rowCount * columnCount];
+        Arrays.fill(dst, planeCount);
+        return dst;
+      }
+      if (src instanceof Store.Segment segment) {
+        return foldMatrixPlane(dyad, segment.segment(), planeCount, rowCount, columnCount);
+      }
+      return foldMatrixPlane(dyad, src.toArray(), planeCount, rowCount, columnCount);
+    }
+
+    // ints, a tile and the scratch tiles stay in L1
+    private static final int TILE = 1024;
+
+    private int[] evaluate(Store.Lazy lazy) {
+      var data = new int[lazy.length()];
+      var scratches = new ArrayList<int[]>();
+      for(var start = 0; start < data.length; start += TILE) {
+        evaluateTile(lazy, start, Math.min(TILE, data.length - start), data, start, scratches, 0);
+      }
+      return data;
+    }
+
+    private void evaluateTile(Store.Lazy lazy, int start, int length, int[] dst, int dstOffset, List<int[]> scratches, int depth) {
+      if (lazy instanceof Store.LazySource source) {
+        copy(source.store(), start, length, dst, dstOffset);
+        return;
+      }
+      if (lazy instanceof Store.LazyUnary unary) {
+        evaluateTile(unary.src(), start, length, dst, dstOffset, scratches, depth);
+        if (unary.monad() instanceof Monads monads) {
+          applyUnaryInPlace(monads, dst, dstOffset, length);
+        } else if (unary.monad() instanceof VectorMonad vectorMonad) {
+          applyUnaryInPlaceUser(vectorMonad, dst, dstOffset, length);
+        } else if (unary.monad() instanceof Composite composite) {
+          applyUnaryInPlaceComposite(composite, dst, dstOffset, length);
+        } else {
+          ClassicBackend.applyUnaryInPlaceGeneric(dst, dstOffset, length, unary.monad());
+        }
+        return;
+      }
+      if (lazy instanceof Store.LazyBinary binary) {
+        if (scratches.size() == depth) {
+          scratches.add(new int[TILE]);
+        }
+        var scratch = scratches.get(depth);
+        evaluateTile(binary.src1(), start, length, dst, dstOffset, scratches, depth + 1);
+        evaluateTile(binary.src2(), start, length, scratch, 0, scratches, depth + 1);
+        if (binary.dyad() instanceof Dyads dyads) {
+          applyBinaryInPlace(dyads, dst, dstOffset, scratch, 0, length);
+        } else if (binary.dyad() instanceof VectorDyad vectorDyad) {
+          applyBinaryInPlaceUser(vectorDyad, dst, dstOffset, scratch, 0, length);
+        } else {
+          ClassicBackend.applyBinaryInPlaceGeneric(dst, dstOffset, scratch, 0, length, binary.dyad());
+        }
+        return;
+      }
+      throw new AssertionError();
+    }
+
+    private static void copy(Store store, int start, int length, int[] dst, int dstOffset) {
+      if (store instanceof Store.IntArray intArray) {
+        System.arraycopy(intArray.array(), start, dst, dstOffset, length);
+        return;
+      }
+      if (store instanceof Store.Segment segment) {
+        MemorySegment.copy(segment.segment(), Store.Segment.LAYOUT, (long) start * Integer.BYTES, dst, dstOffset, length);
+        return;
+      }
+      for(var i = 0; i < length; i++) {
+        dst[dstOffset + i] = store.get(start + i);
+      }
+    }
+
+    private void foldLazy(Dyads dyads, int[] dst, int dstOffset, Store.Lazy lazy, int srcOffset, int rowCount, int columnCount) {
+      foldTiles(new Dyads[] { dyads }, new int[][] { dst }, dstOffset, lazy, srcOffset, rowCount, columnCount);
+    }
+
+    // k row folds of the same values, or null
+    private int[][] foldVectorRows(Dyads[] dyads, Store src, int rowCount, int columnCount) {
+      for(var foldDyads: dyads) {
+        if (!isAssociative(foldDyads) && foldDyads != Dyads.COUNT) {
+          return null;
+        }
+      }
+      if (src instanceof Store.Bits || src instanceof Store.Sparse || src instanceof Store.Compressed) {
+        return null;  // those stores have their own folds
+      }
+      var dsts = new int[dyads.length][rowCount];
+      if (src instanceof Store.Slice slice) {
+        foldTiles(dyads, dsts, 0, slice.base(), slice.offset(), rowCount, columnCount);
+      } else {
+        foldTiles(dyads, dsts, 0, src, 0, rowCount, columnCount);
+      }
+      return dsts;
+    }
+
+    // each tile is read from memory (or computed) once then folded by all the dyads while it is in the cache,
+    // the rows may span several tiles
+    private void foldTiles(Dyads[] dyads, int[][] dsts, int dstOffset, Store src, int srcOffset, int rowCount, int columnCount) {
+      var allCounts = true;
+      for(var k = 0; k < dyads.length; k++) {
+        var count = dyads[k] == Dyads.COUNT;
+        Arrays.fill(dsts[k], dstOffset, dstOffset + rowCount, count? columnCount: dyads[k].zero());
+        allCounts &= count;
+      }
+      if (allCounts) {
+        return;
+      }
+      var tile = src instanceof Store.IntArray? null: new int[TILE];
+      var scratches = new ArrayList<int[]>();
+      var partial = new int[1];
+      var end = srcOffset + rowCount * columnCount;
+      for(var start = srcOffset; start < end; start += TILE) {
+        var length = Math.min(TILE, end - start);
+        int[] values;
+        int valuesOffset;
+        if (src instanceof Store.IntArray intArray) {
+          values = intArray.array();
+          valuesOffset = start;
+        } else {
+          if (src instanceof Store.Lazy lazy) {
+            evaluateTile(lazy, start, length, tile, 0, scratches, 0);
+          } else {
+            copy(src, start, length, tile, 0);
+          }
+          values = tile;
+          valuesOffset = 0;
+        }
+        var tileEnd = start + length;
+        var index = start;
+        var rowOffset = (index - srcOffset) % columnCount;
+        if (rowOffset != 0) {   // the end of a row that starts in a previous tile
+          var rowEnd = Math.min(index + columnCount - rowOffset, tileEnd);
+          foldPartialRow(dyads, dsts, dstOffset + (index - srcOffset) / columnCount, values, valuesOffset + index - start, rowEnd - index, partial);
+          index = rowEnd;
+        }
+        var wholeRowCount = (tileEnd - index) / columnCount;
+        if (wholeRowCount != 0) {   // the rows inside the tile are folded in one call per dyad
+          var row = (index - srcOffset) / columnCount;
+          for(var k = 0; k < dyads.length; k++) {
+            if (dyads[k] != Dyads.COUNT) {
+              foldVectorRow(dyads[k], dsts[k], dstOffset + row, values, valuesOffset + index - start, wholeRowCount, columnCount);
+            }
+          }
+          index += wholeRowCount * columnCount;
+        }
+        if (index < tileEnd) {  // the start of a row that ends in a next tile
+          foldPartialRow(dyads, dsts, dstOffset + (index - srcOffset) / columnCount, values, valuesOffset + index - start, tileEnd - index, partial);
+        }
+      }
+    }
+
+    private void foldPartialRow(Dyads[] dyads, int[][] dsts, int dstIndex, int[] values, int valuesOffset, int length, int[] partial) {
+      for(var k = 0; k < dyads.length; k++) {
+        if (dyads[k] == Dyads.COUNT) {
+          continue;
+        }
+        foldVectorRow(dyads[k], partial, 0, values, valuesOffset, 1, length);
+        dsts[k][dstIndex] = dyads[k].applyAsInt(dsts[k][dstIndex], partial[0]);
+      }
     }
-    private void foldVectorColumn(Dyad dyad, int[] dst, int[] src, int rowCount, int columnCount) {
-      if (dyad instanceof Dyads dyads) {
-        switch(dyads) {
-          case ADD -> { foldVectorColumnADD(dst, src, rowCount, columnCount); return; }
-          case SUB -> { foldVectorColumnSUB(dst, src, rowCount, columnCount); return; }
-          case MUL -> { foldVectorColumnMUL(dst, src, rowCount, columnCount); return; }
-          case DIV -> { foldVectorColumnDIV(dst, src, rowCount, columnCount); return; }
-          case MAX -> { foldVectorColumnMAX(dst, src, rowCount, columnCount); return; }
-          case MIN -> { foldVectorColumnMIN(dst, src, rowCount, columnCount); return; }
-          case AND -> { foldVectorColumnAND(dst, src, rowCount, columnCount); return; }
-          case AND_NOT -> { foldVectorColumnAND_NOT(dst, src, rowCount, columnCount); return; }
-          case OR -> { foldVectorColumnOR(dst, src, rowCount, columnCount); return; }
-          case XOR -> { foldVectorColumnXOR(dst, src, rowCount, columnCount); return; }
-          case COUNT -> { foldVectorColumnCOUNT(dst, src, rowCount, columnCount); return; }
-          default -> throw new AssertionError();
+
+    // the values are sorted as sign-extended long keys, so the int sort and the grade share the long kernels
+    void sortRows(int[] data, int offset, int rowCount, int columnCount) {
+      var keys = new long[rowCount * columnCount];
+      for(var i = 0; i < keys.length; i++) {
+        keys[i] = data[offset + i];
+      }
+      sortRows(keys, 0, rowCount, columnCount);
+      for(var i = 0; i < keys.length; i++) {
+        data[offset + i] = (int) keys[i];
+      }
+    }
+
+    // the value in the high bits and the index in the low bits, so equal values are sorted by index
+    void gradeRows(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) {
+      var keys = new long[rowCount * columnCount];
+      for(var i = 0; i < keys.length; i++) {
+        keys[i] = (long) src[srcOffset + i] << 32 | (i % columnCount);
+      }
+      sortRows(keys, 0, rowCount, columnCount);
+      for(var i = 0; i < keys.length; i++) {
+        dst[dstOffset + i] = (int) keys[i];
+      }
+    }
+
+    // merge the sorted runs src[from, mid) and src[mid, to) into dst[from, to), equal values keep their order
+    static void merge(long[] src, int srcOffset, long[] dst, int dstOffset, int from, int mid, int to) {
+      var i = srcOffset + from;
+      var j = srcOffset + mid;
+      var k = dstOffset + from;
+      var iEnd = srcOffset + mid;
+      var jEnd = srcOffset + to;
+      // without branch on the comparison, the result of the comparison of random values is not predictable
+      while(i < iEnd && j < jEnd) {
+        var left = src[i];
+        var right = src[j];
+        var takeRight = right < left;
+        dst[k++] = takeRight? right: left;
+        j += takeRight? 1: 0;
+        i += takeRight? 0: 1;
+      }
+      System.arraycopy(src, i, dst, k, iEnd - i);
+      System.arraycopy(src, j, dst, k + iEnd - i, jEnd - j);
+    }
+    // bottom-up merge of the sorted runs of width values, buffer has at least length values
+    static void mergeRuns(long[] data, int offset, int length, int width, long[] buffer) {
+      var src = data;
+      var srcOffset = offset;
+      var dst = buffer;
+      var dstOffset = 0;
+      for(; width < length; width <<= 1) {
+        for(var from = 0; from < length; from += 2 * width) {
+          merge(src, srcOffset, dst, dstOffset, from, Math.min(length, from + width), Math.min(length, from + 2 * width));
         }
+        var tmp = src;
+        src = dst;
+        dst = tmp;
+        var tmpOffset = srcOffset;
+        srcOffset = dstOffset;
+        dstOffset = tmpOffset;
+      }
+      if (src != data) {
+        System.arraycopy(src, srcOffset, data, offset, length);
       }
-      ClassicBackend.foldVectorColumnGeneric(dst, 0, src, 0, rowCount, columnCount, dyad.zero(), dyad);
     }
-    private void foldVectorColumn(Dyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) {
-      if (dyad instanceof Dyads dyads) {
-        switch(dyads) {
-          case ADD -> { foldVectorColumnADD(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
-          case SUB -> { foldVectorColumnSUB(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
-          case MUL -> { foldVectorColumnMUL(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
-          case DIV -> { foldVectorColumnDIV(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
-          case MAX -> { foldVectorColumnMAX(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
-          case MIN -> { foldVectorColumnMIN(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
-          case AND -> { foldVectorColumnAND(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
-          case AND_NOT -> { foldVectorColumnAND_NOT(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
-          case OR -> { foldVectorColumnOR(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
-          case XOR -> { foldVectorColumnXOR(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
-          case COUNT -> { foldVectorColumnCOUNT(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
-          default -> throw new AssertionError();
+
+    // the planes of src are rowCount x columnCount, the planes of dst are columnCount x rowCount
+    void transpose(int[] dst, int dstOffset, int[] src, int srcOffset, int planeCount, int rowCount, int columnCount) {
+      var matrixSize = rowCount * columnCount;
+      for(var k = 0; k < planeCount; k++) {
+        transposeMatrix(dst, dstOffset + k * matrixSize, rowCount, src, srcOffset + k * matrixSize, columnCount, rowCount, columnCount);
+      }
+    }
+
+    // rowCount rows of dst, src1 is rowCount x innerCount, src2 is innerCount x columnCount
+    void applyInner(Dyad fold, Dyad dyad, int[] dst, int dstOffset, int[] src1, int src1Offset, int rowCount, int[] src2, int innerCount, int columnCount) {
+      if (fold == Dyads.ADD && dyad == Dyads.MUL) {
+        multiply(dst, dstOffset, src1, src1Offset, rowCount, src2, innerCount, columnCount);
+        return;
+      }
+      if (fold instanceof Dyads foldDyads && foldDyads != Dyads.COUNT && dyad instanceof Dyads dyads && dyads != Dyads.COUNT) {
+        applyInnerLanewise(foldDyads, dyads, dst, dstOffset, src1, src1Offset, rowCount, src2, innerCount, columnCount);
+        return;
+      }
+      ClassicBackend.applyInnerGeneric(dst, dstOffset, src1, src1Offset, rowCount, src2, innerCount, columnCount, fold, dyad);
+    }
+
+    // the row k of dst is src1[src1Offset + k] combined with all the values of src2
+    void applyOuter(Dyad dyad, int[] dst, int dstOffset, int[] src1, int src1Offset, int rowCount, int[] src2) {
+      if (dyad == Dyads.COUNT) {
+        for(var k = 0; k < rowCount; k++) {
+          Arrays.fill(dst, dstOffset + k * src2.length, dstOffset + (k + 1) * src2.length, src1[src1Offset + k] + 1);
         }
+        return;
       }
-      ClassicBackend.foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, dyad.zero(), dyad);
+      if (dyad instanceof Dyads || dyad instanceof VectorDyad) {
+        applyOuterLanewise(dyad, dst, dstOffset, src1, src1Offset, rowCount, src2);
+        return;
+      }
+      ClassicBackend.applyOuterGeneric(dst, dstOffset, src1, src1Offset, rowCount, src2, dyad);
     }
 
-    private void foldVectorRow(Dyad dyad, int[] dst, int[] src, int rowCount, int columnCount) {
-      if (dyad instanceof Dyads dyads) {
-        switch(dyads) {
-          case ADD -> { foldVectorRowADD(dst, src, rowCount, columnCount); return; }
-          case SUB -> { foldVectorRowSUB(dst, src, rowCount, columnCount); return; }
-          case MUL -> { foldVectorRowMUL(dst, src, rowCount, columnCount); return; }
-          case DIV -> { foldVectorRowDIV(dst, src, rowCount, columnCount); return; }
-          case MAX -> { foldVectorRowMAX(dst, src, rowCount, columnCount); return; }
-          case MIN -> { foldVectorRowMIN(dst, src, rowCount, columnCount); return; }
-          case AND -> { foldVectorRowAND(dst, src, rowCount, columnCount); return; }
-          case AND_NOT -> { foldVectorRowAND_NOT(dst, src, rowCount, columnCount); return; }
-          case OR -> { foldVectorRowOR(dst, src, rowCount, columnCount); return; }
-          case XOR -> { foldVectorRowXOR(dst, src, rowCount, columnCount); return; }
-          case COUNT -> { foldVectorRowCOUNT(dst, src, rowCount, columnCount); return; }
-          default -> throw new AssertionError();
+    void scanVectorRow(Dyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) {
+      if (dyad == Dyads.COUNT) {
+        for(var j = 0; j < rowCount; j++) {
+          for(var i = 0; i < columnCount; i++) {
+            dst[dstOffset + j * columnCount + i] = i + 1;
+          }
         }
+        return;
       }
-      ClassicBackend.foldVectorRowGeneric(dst, 0, src, 0, rowCount, columnCount, dyad.zero(), dyad);
+      if (isScannable(dyad)) {
+        scanVectorRowAssoc(dyad, dst, dstOffset, src, srcOffset, rowCount, columnCount, dyad.zero());
+        return;
+      }
+      ClassicBackend.scanVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, dyad.zero(), dyad);
     }
-    private void foldVectorRow(Dyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) {
-      if (dyad instanceof Dyads dyads) {
-        switch(dyads) {
-          case ADD -> { foldVectorRowADD(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
-          case SUB -> { foldVectorRowSUB(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
-          case MUL -> { foldVectorRowMUL(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
-          case DIV -> { foldVectorRowDIV(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
-          case MAX -> { foldVectorRowMAX(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
-          case MIN -> { foldVectorRowMIN(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
-          case AND -> { foldVectorRowAND(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
-          case AND_NOT -> { foldVectorRowAND_NOT(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
-          case OR -> { foldVectorRowOR(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
-          case XOR -> { foldVectorRowXOR(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
-          case COUNT -> { foldVectorRowCOUNT(dst, dstOffset, src, srcOffset, rowCount, columnCount); return; }
-          default -> throw new AssertionError();
+    void scanVectorColumn(Dyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) {
+      var seed = new int[columnCount];
+      Arrays.fill(seed, dyad.zero());
+      scanVectorColumn(dyad, dst, dstOffset, src, srcOffset, rowCount, columnCount, seed, 0);
+    }
+    // each column starts with the values of seed
+    void scanVectorColumn(Dyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount, int[] seed, int seedOffset) {
+      if (dyad == Dyads.COUNT) {
+        for(var i = 0; i < rowCount; i++) {
+          for(var j = 0; j < columnCount; j++) {
+            dst[dstOffset + i * columnCount + j] = seed[seedOffset + j] + i + 1;
+          }
         }
+        return;
       }
-      ClassicBackend.foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, dyad.zero(), dyad);
+      if (dyad instanceof Dyads || dyad instanceof VectorDyad) {
+        scanVectorColumnLanewise(dyad, dst, dstOffset, src, srcOffset, rowCount, columnCount, seed, seedOffset);
+        return;
+      }
+      ClassicBackend.scanVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, seed, seedOffset, dyad);
+    }
+
+    // the log-step prefix of a row groups the values differently but keeps their order, so associativity is enough
+    private static boolean isScannable(Dyad dyad) {
+      return dyad instanceof Dyads dyads && isAssociative(dyads)
+          || dyad instanceof VectorDyad vectorDyad && vectorDyad.binary instanceof Associative;
+    }
+
+    private static boolean isAssociative(Dyads dyads) {
+      return switch(dyads) {
+        case ADD, MUL, MAX, MIN, AND, OR, XOR -> true;
+        case SUB, DIV, AND_NOT, COUNT -> false;
+      };
     }
 
-    private int[] foldMatrixPlane(Dyad dyad, int[] src, int planeCount, int rowCount, int columnCount) {
+    int[] foldMatrixPlane(Dyad dyad, int[] src, int planeCount, int rowCount, int columnCount) {
       if (dyad instanceof Dyads dyads) {
         return switch(dyads) {
           case ADD -> foldMatrixPlaneADD(src, planeCount, rowCount, columnCount);
@@ -500,6 +2250,9 @@ public final class Cell {
           case COUNT -> foldMatrixPlaneCOUNT(src, planeCount, rowCount, columnCount);
         };
       }
+      if (dyad instanceof VectorDyad vectorDyad) {
+        return foldMatrixPlaneUser(vectorDyad, src, planeCount, rowCount, columnCount);
+      }
       return ClassicBackend.foldMatrixPlaneGeneric(src, planeCount, rowCount, columnCount, dyad.zero(), dyad);
     }
 
@@ -532,29 +2285,29 @@ public final class Cell {
     abstract int foldValueXOR(int[] src);
     abstract int foldValueCOUNT(int[] src);
 
-    final void foldVectorColumnADD(int[] dst, int[] src, int rowCount, int columnCount) { ClassicBackend.foldVectorColumnGeneric(dst, 0, src, 0, rowCount, columnCount, 0, Integer::sum); }
-    final void foldVectorColumnSUB(int[] dst, int[] src, int rowCount, int columnCount) { ClassicBackend.foldVectorColumnGeneric(dst, 0, src, 0, rowCount, columnCount, 0, (a, b) -> a - b); }
-    final void foldVectorColumnMUL(int[] dst, int[] src, int rowCount, int columnCount) { ClassicBackend.foldVectorColumnGeneric(dst, 0, src, 0, rowCount, columnCount, 1, (a, b) -> a * b); }
-    final void foldVectorColumnDIV(int[] dst, int[] src, int rowCount, int columnCount) { ClassicBackend.foldVectorColumnGeneric(dst, 0, src, 0, rowCount, columnCount, 1, (a, b) -> a / b); }
-    final void foldVectorColumnMAX(int[] dst, int[] src, int rowCount, int columnCount) { ClassicBackend.foldVectorColumnGeneric(dst, 0, src, 0, rowCount, columnCount, Integer.MIN_VALUE, Math::max); }
-    final void foldVectorColumnMIN(int[] dst, int[] src, int rowCount, int columnCount) { ClassicBackend.foldVectorColumnGeneric(dst, 0, src, 0, rowCount, columnCount, Integer.MAX_VALUE, Math::min); }
-    final void foldVectorColumnAND(int[] dst, int[] src, int rowCount, int columnCount) { ClassicBackend.foldVectorColumnGeneric(dst, 0, src, 0, rowCount, columnCount, 0xFFFFFFFF, (a, b) -> a & b); }
-    final void foldVectorColumnAND_NOT(int[] dst, int[] src, int rowCount, int columnCount) { ClassicBackend.foldVectorColumnGeneric(dst, 0, src, 0, rowCount, columnCount, 0xFFFFFFFF, (a, b) -> a & ~b); }
-    final void foldVectorColumnOR(int[] dst, int[] src, int rowCount, int columnCount) { ClassicBackend.foldVectorColumnGeneric(dst, 0, src, 0, rowCount, columnCount, 0, (a, b) -> a | b); }
-    final void foldVectorColumnXOR(int[] dst, int[] src, int rowCount, int columnCount) { ClassicBackend.foldVectorColumnGeneric(dst, 0, src, 0, rowCount, columnCount, 0, (a, b) -> a ^ b); }
-    final void foldVectorColumnCOUNT(int[] dst, int[] src, int rowCount, int columnCount) { ClassicBackend.foldVectorColumnGeneric(dst, 0, src, 0, rowCount, columnCount, 0, (a, b) -> a + 1); }
-
-    final void foldVectorColumnADD(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { ClassicBackend.foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0, Integer::sum); }
-    final void foldVectorColumnSUB(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { ClassicBackend.foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0, (a, b) -> a - b); }
-    final void foldVectorColumnMUL(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { ClassicBackend.foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 1, (a, b) -> a * b); }
-    final void foldVectorColumnDIV(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { ClassicBackend.foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 1, (a, b) -> a / b); }
-    final void foldVectorColumnMAX(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { ClassicBackend.foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, Integer.MIN_VALUE, Math::max); }
-    final void foldVectorColumnMIN(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { ClassicBackend.foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, Integer.MAX_VALUE, Math::min); }
-    final void foldVectorColumnAND(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { ClassicBackend.foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0xFFFFFFFF, (a, b) -> a & b); }
-    final void foldVectorColumnAND_NOT(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { ClassicBackend.foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0xFFFFFFFF, (a, b) -> a & ~b); }
-    final void foldVectorColumnOR(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { ClassicBackend.foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0, (a, b) -> a | b); }
-    final void foldVectorColumnXOR(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { ClassicBackend.foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0, (a, b) -> a ^ b); }
-    final void foldVectorColumnCOUNT(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { ClassicBackend.foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0, (a, b) -> a + 1); }
+    abstract void foldVectorColumnADD(int[] dst, int[] src, int rowCount, int columnCount);
+    abstract void foldVectorColumnSUB(int[] dst, int[] src, int rowCount, int columnCount);
+    abstract void foldVectorColumnMUL(int[] dst, int[] src, int rowCount, int columnCount);
+    abstract void foldVectorColumnDIV(int[] dst, int[] src, int rowCount, int columnCount);
+    abstract void foldVectorColumnMAX(int[] dst, int[] src, int rowCount, int columnCount);
+    abstract void foldVectorColumnMIN(int[] dst, int[] src, int rowCount, int columnCount);
+    abstract void foldVectorColumnAND(int[] dst, int[] src, int rowCount, int columnCount);
+    abstract void foldVectorColumnAND_NOT(int[] dst, int[] src, int rowCount, int columnCount);
+    abstract void foldVectorColumnOR(int[] dst, int[] src, int rowCount, int columnCount);
+    abstract void foldVectorColumnXOR(int[] dst, int[] src, int rowCount, int columnCount);
+    abstract void foldVectorColumnCOUNT(int[] dst, int[] src, int rowCount, int columnCount);
+
+    abstract void foldVectorColumnADD(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount);
+    abstract void foldVectorColumnSUB(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount);
+    abstract void foldVectorColumnMUL(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount);
+    abstract void foldVectorColumnDIV(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount);
+    abstract void foldVectorColumnMAX(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount);
+    abstract void foldVectorColumnMIN(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount);
+    abstract void foldVectorColumnAND(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount);
+    abstract void foldVectorColumnAND_NOT(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount);
+    abstract void foldVectorColumnOR(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount);
+    abstract void foldVectorColumnXOR(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount);
+    abstract void foldVectorColumnCOUNT(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount);
 
     abstract void foldVectorRowADD(int[] dst, int[] src, int rowCount, int columnCount);
     abstract void foldVectorRowSUB(int[] dst, int[] src, int rowCount, int columnCount);
@@ -580,17 +2333,544 @@ public final class Cell {
     abstract void foldVectorRowXOR(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount);
     abstract void foldVectorRowCOUNT(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount);
 
-    final int[] foldMatrixPlaneADD(int[] src, int planeCount, int rowCount, int columnCount) { return ClassicBackend.foldMatrixPlaneGeneric(src, planeCount, rowCount, columnCount, 0, Integer::sum); }
-    final int[] foldMatrixPlaneSUB(int[] src, int planeCount, int rowCount, int columnCount) { return ClassicBackend.foldMatrixPlaneGeneric(src, planeCount, rowCount, columnCount, 0, (a, b) -> a - b); }
-    final int[] foldMatrixPlaneMUL(int[] src, int planeCount, int rowCount, int columnCount) { return ClassicBackend.foldMatrixPlaneGeneric(src, planeCount, rowCount, columnCount, 1, (a, b) -> a * b); }
-    final int[] foldMatrixPlaneDIV(int[] src, int planeCount, int rowCount, int columnCount) { return ClassicBackend.foldMatrixPlaneGeneric(src, planeCount, rowCount, columnCount, 1, (a, b) -> a / b); }
-    final int[] foldMatrixPlaneMAX(int[] src, int planeCount, int rowCount, int columnCount) { return ClassicBackend.foldMatrixPlaneGeneric(src, planeCount, rowCount, columnCount, Integer.MIN_VALUE, Math::max); }
-    final int[] foldMatrixPlaneMIN(int[] src, int planeCount, int rowCount, int columnCount) { return ClassicBackend.foldMatrixPlaneGeneric(src, planeCount, rowCount, columnCount, Integer.MAX_VALUE, Math::min); }
-    final int[] foldMatrixPlaneAND(int[] src, int planeCount, int rowCount, int columnCount) { return ClassicBackend.foldMatrixPlaneGeneric(src, planeCount, rowCount, columnCount, 0xFFFFFFFF, (a, b) -> a & b); }
-    final int[] foldMatrixPlaneAND_NOT(int[] src, int planeCount, int rowCount, int columnCount) { return ClassicBackend.foldMatrixPlaneGeneric(src, planeCount, rowCount, columnCount, 0xFFFFFFFF, (a, b) -> a & ~b); }
-    final int[] foldMatrixPlaneOR(int[] src, int planeCount, int rowCount, int columnCount) { return ClassicBackend.foldMatrixPlaneGeneric(src, planeCount, rowCount, columnCount, 0, (a, b) -> a | b); }
-    final int[] foldMatrixPlaneXOR(int[] src, int planeCount, int rowCount, int columnCount) { return ClassicBackend.foldMatrixPlaneGeneric(src, planeCount, rowCount, columnCount, 0, (a, b) -> a ^ b); }
-    final int[] foldMatrixPlaneCOUNT(int[] src, int planeCount, int rowCount, int columnCount) { return ClassicBackend.foldMatrixPlaneGeneric(src, planeCount, rowCount, columnCount, 0, (a, b) -> a + 1); }
+    abstract int[] applyUnaryUser(VectorMonad monad, int[] src);
+    abstract void applyUnaryInPlaceUser(VectorMonad monad, int[] data, int offset, int length);
+    abstract int[] applyUnaryComposite(Composite composite, int[] src);
+    abstract void applyUnaryInPlaceComposite(Composite composite, int[] data, int offset, int length);
+    abstract int[] applyBinaryUser(VectorDyad dyad, int[] src1, int[] src2);
+    abstract void applyBinaryInPlaceUser(VectorDyad dyad, int[] data1, int offset1, int[] data2, int offset2, int length);
+    abstract int foldValueUser(VectorDyad dyad, int[] src);
+    abstract void foldVectorRowUser(VectorDyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount);
+    abstract void foldVectorColumnUser(VectorDyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount);
+    abstract int[] foldMatrixPlaneUser(VectorDyad dyad, int[] src, int planeCount, int rowCount, int columnCount);
+
+    abstract long[] packZOMO(int[] src);
+    abstract int[] unpackZOMO(long[] words, int length);
+    abstract void applyUnaryInPlace(Monads monads, int[] data, int offset, int length);
+    abstract void applyBinaryInPlace(Dyads dyads, int[] data1, int offset1, int[] data2, int offset2, int length);
+    abstract void applyUnary(Monads monads, MemorySegment src, MemorySegment dst);
+    abstract void applyBinary(Dyads dyads, MemorySegment src1, MemorySegment src2, MemorySegment dst);
+    // the folds of the values of a memory segment, COUNT is computed from the dimensions before
+    abstract int foldValue(Dyad dyad, MemorySegment src);
+    abstract void foldVectorColumn(Dyad dyad, int[] dst, int dstOffset, MemorySegment src, int srcOffset, int rowCount, int columnCount);
+    abstract int[] foldMatrixPlane(Dyad dyad, MemorySegment src, int planeCount, int rowCount, int columnCount);
+    abstract void foldVectorRowAssoc(Dyads dyads, int[] dst, int dstOffset, Store src, int srcOffset, int rowCount, int columnCount);
+    abstract void scanVectorRowAssoc(Dyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount, int seed);
+    // each row is sorted in place
+    abstract void sortRows(long[] data, int offset, int rowCount, int columnCount);
+    // src is rowCount x columnCount, dst is columnCount x rowCount, the strides are the distance between two rows
+    abstract void transposeMatrix(int[] dst, int dstOffset, int dstStride, int[] src, int srcOffset, int srcStride, int rowCount, int columnCount);
+    abstract void multiply(int[] dst, int dstOffset, int[] src1, int src1Offset, int rowCount, int[] src2, int innerCount, int columnCount);
+    abstract void applyInnerLanewise(Dyads fold, Dyads dyad, int[] dst, int dstOffset, int[] src1, int src1Offset, int rowCount, int[] src2, int innerCount, int columnCount);
+    abstract void applyOuterLanewise(Dyad dyad, int[] dst, int dstOffset, int[] src1, int src1Offset, int rowCount, int[] src2);
+    abstract void scanVectorColumnLanewise(Dyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount, int[] seed, int seedOffset);
+
+    abstract int[] foldMatrixPlaneADD(int[] src, int planeCount, int rowCount, int columnCount);
+    abstract int[] foldMatrixPlaneSUB(int[] src, int planeCount, int rowCount, int columnCount);
+    abstract int[] foldMatrixPlaneMUL(int[] src, int planeCount, int rowCount, int columnCount);
+    abstract int[] foldMatrixPlaneDIV(int[] src, int planeCount, int rowCount, int columnCount);
+    abstract int[] foldMatrixPlaneMAX(int[] src, int planeCount, int rowCount, int columnCount);
+    abstract int[] foldMatrixPlaneMIN(int[] src, int planeCount, int rowCount, int columnCount);
+    abstract int[] foldMatrixPlaneAND(int[] src, int planeCount, int rowCount, int columnCount);
+    abstract int[] foldMatrixPlaneAND_NOT(int[] src, int planeCount, int rowCount, int columnCount);
+    abstract int[] foldMatrixPlaneOR(int[] src, int planeCount, int rowCount, int columnCount);
+    abstract int[] foldMatrixPlaneXOR(int[] src, int planeCount, int rowCount, int columnCount);
+    abstract int[] foldMatrixPlaneCOUNT(int[] src, int planeCount, int rowCount, int columnCount);
+  }
+
+  // split the work in chunks run by the fork/join pool, each chunk is computed by the kernels of another backend
+  private static final class ParallelBackend extends Backend {
+    private static final int CHUNK = 1 << 16;   // values per task
+
+    private final Backend backend;
+
+    private ParallelBackend(Backend backend) {
+      this.backend = backend;
+    }
+
+    @Override
+    Monad bind(Monad monad) {
+      return backend.bind(monad);
+    }
+    @Override
+    Dyad bind(Dyad dyad) {
+      return backend.bind(dyad);
+    }
+
+    @Override
+    public String toString() {
+      return "Parallel - " + backend + "  parallelism: " + ForkJoinPool.getCommonPoolParallelism();
+    }
+
+    private interface ChunkTask {
+      void run(int chunk);
+    }
+
+    @SuppressWarnings("serial")
+    private static final class ChunkAction extends RecursiveAction {
+      private final ChunkTask task;
+      private final int from;
+      private final int to;
+
+      private ChunkAction(ChunkTask task, int from, int to) {
+        this.task = task;
+        this.from = from;
+        this.to = to;
+      }
+
+      @Override
+      protected void compute() {
+        if (to - from == 1) {
+          task.run(from);
+          return;
+        }
+        var middle = (from + to) >>> 1;
+        invokeAll(new ChunkAction(task, from, middle), new ChunkAction(task, middle, to));
+      }
+    }
+
+    private static void forEachChunk(int chunkCount, ChunkTask task) {
+      ForkJoinPool.commonPool().invoke(new ChunkAction(task, 0, chunkCount));
+    }
+
+    // rows per task, so a task has at least CHUNK values and there are not too many tasks
+    private static int rowsPerChunk(int rowCount, int columnCount) {
+      var maxChunkCount = 4 * ForkJoinPool.getCommonPoolParallelism();
+      return Math.max(Math.max(1, CHUNK / columnCount), (rowCount + maxChunkCount - 1) / maxChunkCount);
+    }
+
+    private static boolean isSplittable(Dyad dyad) {
+      return dyad instanceof Dyads dyads && Backend.isAssociative(dyads)
+          || dyad instanceof VectorDyad vectorDyad && vectorDyad.binary instanceof Associative;
+    }
+
+    @Override
+    int[] applyUnary(Monad monad, int[] src) {
+      if (src.length < 2 * CHUNK) {
+        return super.applyUnary(monad, src);
+      }
+      var dst = new int[src.length];
+      forEachChunk((src.length + CHUNK - 1) / CHUNK, chunk -> {
+        var offset = chunk * CHUNK;
+        var length = Math.min(CHUNK, src.length - offset);
+        System.arraycopy(src, offset, dst, offset, length);
+        if (monad instanceof Monads monads) {
+          backend.applyUnaryInPlace(monads, dst, offset, length);
+        } else if (monad instanceof VectorMonad vectorMonad) {
+          backend.applyUnaryInPlaceUser(vectorMonad, dst, offset, length);
+        } else if (monad instanceof Composite composite) {
+          backend.applyUnaryInPlaceComposite(composite, dst, offset, length);
+        } else {
+          ClassicBackend.applyUnaryInPlaceGeneric(dst, offset, length, monad);
+        }
+      });
+      return dst;
+    }
+
+    @Override
+    int[] applyBinary(Dyad dyad, int[] src1, int[] src2) {
+      if (src1.length < 2 * CHUNK) {
+        return super.applyBinary(dyad, src1, src2);
+      }
+      var dst = new int[src1.length];
+      forEachChunk((src1.length + CHUNK - 1) / CHUNK, chunk -> {
+        var offset = chunk * CHUNK;
+        var length = Math.min(CHUNK, src1.length - offset);
+        System.arraycopy(src1, offset, dst, offset, length);
+        if (dyad instanceof Dyads dyads) {
+          backend.applyBinaryInPlace(dyads, dst, offset, src2, offset, length);
+        } else if (dyad instanceof VectorDyad vectorDyad) {
+          backend.applyBinaryInPlaceUser(vectorDyad, dst, offset, src2, offset, length);
+        } else {
+          ClassicBackend.applyBinaryInPlaceGeneric(dst, offset, src2, offset, length, dyad);
+        }
+      });
+      return dst;
+    }
+
+    @Override
+    int foldValue(Dyad dyad, int[] src) {
+      if (src.length < 2 * CHUNK || !isSplittable(dyad)) {
+        return super.foldValue(dyad, src);
+      }
+      return foldRange(dyad, src, 0, src.length);
+    }
+
+    private int foldRange(Dyad dyad, int[] src, int srcOffset, int length) {
+      var chunkCount = (length + CHUNK - 1) / CHUNK;
+      var partials = new int[chunkCount];
+      forEachChunk(chunkCount, chunk -> {
+        var offset = chunk * CHUNK;
+        super.foldVectorRow(dyad, partials, chunk, src, srcOffset + offset, 1, Math.min(CHUNK, length - offset));
+      });
+      return ClassicBackend.foldValueGeneric(partials, dyad.zero(), dyad);
+    }
+
+    @Override
+    void foldVectorRow(Dyad dyad, int[] dst, int[] src, int rowCount, int columnCount) {
+      foldVectorRow(dyad, dst, 0, src, 0, rowCount, columnCount);
+    }
+
+    @Override
+    void foldVectorRow(Dyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) {
+      if (rowCount == 1 && columnCount >= 2 * CHUNK && isSplittable(dyad)) {
+        dst[dstOffset] = foldRange(dyad, src, srcOffset, columnCount);
+        return;
+      }
+      var rowsPerChunk = rowsPerChunk(rowCount, columnCount);
+      if (rowCount <= rowsPerChunk) {
+        super.foldVectorRow(dyad, dst, dstOffset, src, srcOffset, rowCount, columnCount);
+        return;
+      }
+      // the rows are independent
+      forEachChunk((rowCount + rowsPerChunk - 1) / rowsPerChunk, chunk -> {
+        var row = chunk * rowsPerChunk;
+        super.foldVectorRow(dyad, dst, dstOffset + row, src, srcOffset + row * columnCount, Math.min(rowsPerChunk, rowCount - row), columnCount);
+      });
+    }
+
+    @Override
+    void foldVectorColumn(Dyad dyad, int[] dst, int[] src, int rowCount, int columnCount) {
+      foldVectorColumn(dyad, dst, 0, src, 0, rowCount, columnCount);
+    }
+
+    @Override
+    void foldVectorColumn(Dyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) {
+      var rowsPerChunk = rowsPerChunk(rowCount, columnCount);
+      if (rowCount <= rowsPerChunk || !isSplittable(dyad)) {
+        super.foldVectorColumn(dyad, dst, dstOffset, src, srcOffset, rowCount, columnCount);
+        return;
+      }
+      // fold each block of rows then fold the partial results lane-wise
+      var chunkCount = (rowCount + rowsPerChunk - 1) / rowsPerChunk;
+      var partials = new int[chunkCount * columnCount];
+      forEachChunk(chunkCount, chunk -> {
+        var row = chunk * rowsPerChunk;
+        super.foldVectorColumn(dyad, partials, chunk * columnCount, src, srcOffset + row * columnCount, Math.min(rowsPerChunk, rowCount - row), columnCount);
+      });
+      super.foldVectorColumn(dyad, dst, dstOffset, partials, 0, chunkCount, columnCount);
+    }
+
+    @Override
+    int[] foldMatrixPlane(Dyad dyad, int[] src, int planeCount, int rowCount, int columnCount) {
+      if (!isSplittable(dyad)) {
+        return super.foldMatrixPlane(dyad, src, planeCount, rowCount, columnCount);
+      }
+      // folding the planes is folding the columns of a planeCount x (rowCount * columnCount) matrix
+      var dst = new int[rowCount * columnCount];
+      foldVectorColumn(dyad, dst, 0, src, 0, planeCount, rowCount * columnCount);
+      return dst;
+    }
+
+    // a thread that is never started, a confined segment is not accessible by it nor by the fork/join workers
+    private static final Thread OTHER_THREAD = new Thread(() -> {});
+
+    @Override
+    void foldVectorColumn(Dyad dyad, int[] dst, int dstOffset, MemorySegment src, int srcOffset, int rowCount, int columnCount) {
+      var rowsPerChunk = rowsPerChunk(rowCount, columnCount);
+      if (rowCount <= rowsPerChunk || !isSplittable(dyad) || !src.isAccessibleBy(OTHER_THREAD)) {
+        backend.foldVectorColumn(dyad, dst, dstOffset, src, srcOffset, rowCount, columnCount);
+        return;
+      }
+      // fold each block of rows then fold the partial results lane-wise
+      var chunkCount = (rowCount + rowsPerChunk - 1) / rowsPerChunk;
+      var partials = new int[chunkCount * columnCount];
+      forEachChunk(chunkCount, chunk -> {
+        var row = chunk * rowsPerChunk;
+        backend.foldVectorColumn(dyad, partials, chunk * columnCount, src, srcOffset + row * columnCount, Math.min(rowsPerChunk, rowCount - row), columnCount);
+      });
+      super.foldVectorColumn(dyad, dst, dstOffset, partials, 0, chunkCount, columnCount);
+    }
+
+    @Override
+    int[] foldMatrixPlane(Dyad dyad, MemorySegment src, int planeCount, int rowCount, int columnCount) {
+      if (!isSplittable(dyad) || !src.isAccessibleBy(OTHER_THREAD)) {
+        return backend.foldMatrixPlane(dyad, src, planeCount, rowCount, columnCount);
+      }
+      var dst = new int[rowCount * columnCount];
+      foldVectorColumn(dyad, dst, 0, src, 0, planeCount, rowCount * columnCount);
+      return dst;
+    }
+
+    @Override
+    void sortRows(long[] data, int offset, int rowCount, int columnCount) {
+      if (rowCount == 1 && columnCount >= 2 * CHUNK) {
+        // sort each chunk, then merge the chunks two by two, the merges of a pass are independent
+        var chunkCount = (columnCount + CHUNK - 1) / CHUNK;
+        forEachChunk(chunkCount, chunk -> {
+          var from = chunk * CHUNK;
+          backend.sortRows(data, offset + from, 1, Math.min(CHUNK, columnCount - from));
+        });
+        var buffer = new long[columnCount];
+        var src = data;
+        var srcOffset = offset;
+        var dst = buffer;
+        var dstOffset = 0;
+        for(var width = CHUNK; width < columnCount; width <<= 1) {
+          var pairWidth = 2 * width;
+          var mergeWidth = width;
+          var mergeSrc = src;
+          var mergeSrcOffset = srcOffset;
+          var mergeDst = dst;
+          var mergeDstOffset = dstOffset;
+          forEachChunk((columnCount + pairWidth - 1) / pairWidth, pair -> {
+            var from = pair * pairWidth;
+            merge(mergeSrc, mergeSrcOffset, mergeDst, mergeDstOffset, from, Math.min(columnCount, from + mergeWidth), Math.min(columnCount, from + pairWidth));
+          });
+          var tmp = src;
+          src = dst;
+          dst = tmp;
+          var tmpOffset = srcOffset;
+          srcOffset = dstOffset;
+          dstOffset = tmpOffset;
+        }
+        if (src != data) {
+          System.arraycopy(src, srcOffset, data, offset, columnCount);
+        }
+        return;
+      }
+      var rowsPerChunk = rowsPerChunk(rowCount, columnCount);
+      if (rowCount <= rowsPerChunk) {
+        backend.sortRows(data, offset, rowCount, columnCount);
+        return;
+      }
+      // the rows are independent
+      forEachChunk((rowCount + rowsPerChunk - 1) / rowsPerChunk, chunk -> {
+        var row = chunk * rowsPerChunk;
+        backend.sortRows(data, offset + row * columnCount, Math.min(rowsPerChunk, rowCount - row), columnCount);
+      });
+    }
+
+    @Override
+    void transpose(int[] dst, int dstOffset, int[] src, int srcOffset, int planeCount, int rowCount, int columnCount) {
+      var matrixSize = rowCount * columnCount;
+      if (planeCount * matrixSize < 2 * CHUNK) {
+        super.transpose(dst, dstOffset, src, srcOffset, planeCount, rowCount, columnCount);
+        return;
+      }
+      if (matrixSize < CHUNK) {
+        // the planes are independent
+        var planesPerChunk = rowsPerChunk(planeCount, matrixSize);
+        forEachChunk((planeCount + planesPerChunk - 1) / planesPerChunk, chunk -> {
+          var plane = chunk * planesPerChunk;
+          super.transpose(dst, dstOffset + plane * matrixSize, src, srcOffset + plane * matrixSize, Math.min(planesPerChunk, planeCount - plane), rowCount, columnCount);
+        });
+        return;
+      }
+      // the rows of src of a plane are the columns of dst
+      var rowsPerChunk = rowsPerChunk(rowCount, columnCount);
+      var chunkPerPlane = (rowCount + rowsPerChunk - 1) / rowsPerChunk;
+      forEachChunk(planeCount * chunkPerPlane, chunk -> {
+        var plane = chunk / chunkPerPlane;
+        var row = (chunk % chunkPerPlane) * rowsPerChunk;
+        backend.transposeMatrix(dst, dstOffset + plane * matrixSize + row, rowCount, src, srcOffset + plane * matrixSize + row * columnCount, columnCount,
+            Math.min(rowsPerChunk, rowCount - row), columnCount);
+      });
+    }
+
+    @Override
+    void applyInner(Dyad fold, Dyad dyad, int[] dst, int dstOffset, int[] src1, int src1Offset, int rowCount, int[] src2, int innerCount, int columnCount) {
+      var rowsPerChunk = rowsPerChunk(rowCount, innerCount * columnCount);  // a row of dst costs innerCount x columnCount
+      if (rowCount <= rowsPerChunk) {
+        super.applyInner(fold, dyad, dst, dstOffset, src1, src1Offset, rowCount, src2, innerCount, columnCount);
+        return;
+      }
+      // the rows are independent
+      forEachChunk((rowCount + rowsPerChunk - 1) / rowsPerChunk, chunk -> {
+        var row = chunk * rowsPerChunk;
+        super.applyInner(fold, dyad, dst, dstOffset + row * columnCount, src1, src1Offset + row * innerCount, Math.min(rowsPerChunk, rowCount - row), src2, innerCount, columnCount);
+      });
+    }
+
+    @Override
+    void applyOuter(Dyad dyad, int[] dst, int dstOffset, int[] src1, int src1Offset, int rowCount, int[] src2) {
+      var rowsPerChunk = rowsPerChunk(rowCount, src2.length);
+      if (rowCount <= rowsPerChunk) {
+        super.applyOuter(dyad, dst, dstOffset, src1, src1Offset, rowCount, src2);
+        return;
+      }
+      // the rows are independent
+      forEachChunk((rowCount + rowsPerChunk - 1) / rowsPerChunk, chunk -> {
+        var row = chunk * rowsPerChunk;
+        super.applyOuter(dyad, dst, dstOffset + row * src2.length, src1, src1Offset + row, Math.min(rowsPerChunk, rowCount - row), src2);
+      });
+    }
+
+    @Override
+    void scanVectorRow(Dyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) {
+      if (rowCount == 1 && columnCount >= 2 * CHUNK && isSplittable(dyad)) {
+        // fold each chunk, then scan each chunk starting from the fold of the chunks before it
+        var chunkCount = (columnCount + CHUNK - 1) / CHUNK;
+        var partials = new int[chunkCount];
+        forEachChunk(chunkCount, chunk -> {
+          var offset = chunk * CHUNK;
+          super.foldVectorRow(dyad, partials, chunk, src, srcOffset + offset, 1, Math.min(CHUNK, columnCount - offset));
+        });
+        var seeds = new int[chunkCount];
+        var acc = dyad.zero();
+        for(var chunk = 0; chunk < chunkCount; chunk++) {
+          seeds[chunk] = acc;
+          acc = dyad.applyAsInt(acc, partials[chunk]);
+        }
+        forEachChunk(chunkCount, chunk -> {
+          var offset = chunk * CHUNK;
+          backend.scanVectorRowAssoc(dyad, dst, dstOffset + offset, src, srcOffset + offset, 1, Math.min(CHUNK, columnCount - offset), seeds[chunk]);
+        });
+        return;
+      }
+      var rowsPerChunk = rowsPerChunk(rowCount, columnCount);
+      if (rowCount <= rowsPerChunk) {
+        super.scanVectorRow(dyad, dst, dstOffset, src, srcOffset, rowCount, columnCount);
+        return;
+      }
+      // the rows are independent
+      forEachChunk((rowCount + rowsPerChunk - 1) / rowsPerChunk, chunk -> {
+        var row = chunk * rowsPerChunk;
+        super.scanVectorRow(dyad, dst, dstOffset + row * columnCount, src, srcOffset + row * columnCount, Math.min(rowsPerChunk, rowCount - row), columnCount);
+      });
+    }
+
+    @Override
+    void scanVectorColumn(Dyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount, int[] seed, int seedOffset) {
+      var rowsPerChunk = rowsPerChunk(rowCount, columnCount);
+      if (rowCount <= rowsPerChunk || !isSplittable(dyad)) {
+        super.scanVectorColumn(dyad, dst, dstOffset, src, srcOffset, rowCount, columnCount, seed, seedOffset);
+        return;
+      }
+      // fold each block of rows, scan the partial results to get the seed of each block, then scan each block
+      var chunkCount = (rowCount + rowsPerChunk - 1) / rowsPerChunk;
+      var partials = new int[chunkCount * columnCount];
+      forEachChunk(chunkCount, chunk -> {
+        var row = chunk * rowsPerChunk;
+        super.foldVectorColumn(dyad, partials, chunk * columnCount, src, srcOffset + row * columnCount, Math.min(rowsPerChunk, rowCount - row), columnCount);
+      });
+      var seeds = new int[chunkCount * columnCount];
+      System.arraycopy(seed, seedOffset, seeds, 0, columnCount);
+      super.scanVectorColumn(dyad, seeds, columnCount, partials, 0, chunkCount - 1, columnCount, seed, seedOffset);
+      forEachChunk(chunkCount, chunk -> {
+        var row = chunk * rowsPerChunk;
+        super.scanVectorColumn(dyad, dst, dstOffset + row * columnCount, src, srcOffset + row * columnCount, Math.min(rowsPerChunk, rowCount - row), columnCount, seeds, chunk * columnCount);
+      });
+    }
+
+    int[] applyUnaryZOMO(int[] src) { return backend.applyUnaryZOMO(src); }
+    int[] applyUnaryNEG(int[] src) { return backend.applyUnaryNEG(src); }
+    int[] applyUnaryABS(int[] src) { return backend.applyUnaryABS(src); }
+    int[] applyUnaryNOT(int[] src) { return backend.applyUnaryNOT(src); }
+
+    int[] applyBinaryADD(int[] src1, int[] src2) { return backend.applyBinaryADD(src1, src2); }
+    int[] applyBinarySUB(int[] src1, int[] src2) { return backend.applyBinarySUB(src1, src2); }
+    int[] applyBinaryMUL(int[] src1, int[] src2) { return backend.applyBinaryMUL(src1, src2); }
+    int[] applyBinaryDIV(int[] src1, int[] src2) { return backend.applyBinaryDIV(src1, src2); }
+    int[] applyBinaryMAX(int[] src1, int[] src2) { return backend.applyBinaryMAX(src1, src2); }
+    int[] applyBinaryMIN(int[] src1, int[] src2) { return backend.applyBinaryMIN(src1, src2); }
+    int[] applyBinaryAND(int[] src1, int[] src2) { return backend.applyBinaryAND(src1, src2); }
+    int[] applyBinaryAND_NOT(int[] src1, int[] src2) { return backend.applyBinaryAND_NOT(src1, src2); }
+    int[] applyBinaryOR(int[] src1, int[] src2) { return backend.applyBinaryOR(src1, src2); }
+    int[] applyBinaryXOR(int[] src1, int[] src2) { return backend.applyBinaryXOR(src1, src2); }
+    int[] applyBinaryCOUNT(int[] src1, int[] src2) { return backend.applyBinaryCOUNT(src1, src2); }
+
+    int foldValueADD(int[] src) throws Throwable { return backend.foldValueADD(src); }
+    int foldValueSUB(int[] src) { return backend.foldValueSUB(src); }
+    int foldValueMUL(int[] src) { return backend.foldValueMUL(src); }
+    int foldValueDIV(int[] src) { return backend.foldValueDIV(src); }
+    int foldValueMAX(int[] src) { return backend.foldValueMAX(src); }
+    int foldValueMIN(int[] src) { return backend.foldValueMIN(src); }
+    int foldValueAND(int[] src) { return backend.foldValueAND(src); }
+    int foldValueAND_NOT(int[] src) { return backend.foldValueAND_NOT(src); }
+    int foldValueOR(int[] src) { return backend.foldValueOR(src); }
+    int foldValueXOR(int[] src) { return backend.foldValueXOR(src); }
+    int foldValueCOUNT(int[] src) { return backend.foldValueCOUNT(src); }
+
+    void foldVectorColumnADD(int[] dst, int[] src, int rowCount, int columnCount) { backend.foldVectorColumnADD(dst, src, rowCount, columnCount); }
+    void foldVectorColumnSUB(int[] dst, int[] src, int rowCount, int columnCount) { backend.foldVectorColumnSUB(dst, src, rowCount, columnCount); }
+    void foldVectorColumnMUL(int[] dst, int[] src, int rowCount, int columnCount) { backend.foldVectorColumnMUL(dst, src, rowCount, columnCount); }
+    void foldVectorColumnDIV(int[] dst, int[] src, int rowCount, int columnCount) { backend.foldVectorColumnDIV(dst, src, rowCount, columnCount); }
+    void foldVectorColumnMAX(int[] dst, int[] src, int rowCount, int columnCount) { backend.foldVectorColumnMAX(dst, src, rowCount, columnCount); }
+    void foldVectorColumnMIN(int[] dst, int[] src, int rowCount, int columnCount) { backend.foldVectorColumnMIN(dst, src, rowCount, columnCount); }
+    void foldVectorColumnAND(int[] dst, int[] src, int rowCount, int columnCount) { backend.foldVectorColumnAND(dst, src, rowCount, columnCount); }
+    void foldVectorColumnAND_NOT(int[] dst, int[] src, int rowCount, int columnCount) { backend.foldVectorColumnAND_NOT(dst, src, rowCount, columnCount); }
+    void foldVectorColumnOR(int[] dst, int[] src, int rowCount, int columnCount) { backend.foldVectorColumnOR(dst, src, rowCount, columnCount); }
+    void foldVectorColumnXOR(int[] dst, int[] src, int rowCount, int columnCount) { backend.foldVectorColumnXOR(dst, src, rowCount, columnCount); }
+    void foldVectorColumnCOUNT(int[] dst, int[] src, int rowCount, int columnCount) { backend.foldVectorColumnCOUNT(dst, src, rowCount, columnCount); }
+
+    void foldVectorColumnADD(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { backend.foldVectorColumnADD(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorColumnSUB(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { backend.foldVectorColumnSUB(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorColumnMUL(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { backend.foldVectorColumnMUL(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorColumnDIV(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { backend.foldVectorColumnDIV(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorColumnMAX(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { backend.foldVectorColumnMAX(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorColumnMIN(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { backend.foldVectorColumnMIN(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorColumnAND(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { backend.foldVectorColumnAND(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorColumnAND_NOT(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { backend.foldVectorColumnAND_NOT(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorColumnOR(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { backend.foldVectorColumnOR(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorColumnXOR(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { backend.foldVectorColumnXOR(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorColumnCOUNT(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { backend.foldVectorColumnCOUNT(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+
+    void foldVectorRowADD(int[] dst, int[] src, int rowCount, int columnCount) { backend.foldVectorRowADD(dst, src, rowCount, columnCount); }
+    void foldVectorRowSUB(int[] dst, int[] src, int rowCount, int columnCount) { backend.foldVectorRowSUB(dst, src, rowCount, columnCount); }
+    void foldVectorRowMUL(int[] dst, int[] src, int rowCount, int columnCount) { backend.foldVectorRowMUL(dst, src, rowCount, columnCount); }
+    void foldVectorRowDIV(int[] dst, int[] src, int rowCount, int columnCount) { backend.foldVectorRowDIV(dst, src, rowCount, columnCount); }
+    void foldVectorRowMAX(int[] dst, int[] src, int rowCount, int columnCount) { backend.foldVectorRowMAX(dst, src, rowCount, columnCount); }
+    void foldVectorRowMIN(int[] dst, int[] src, int rowCount, int columnCount) { backend.foldVectorRowMIN(dst, src, rowCount, columnCount); }
+    void foldVectorRowAND(int[] dst, int[] src, int rowCount, int columnCount) { backend.foldVectorRowAND(dst, src, rowCount, columnCount); }
+    void foldVectorRowAND_NOT(int[] dst, int[] src, int rowCount, int columnCount) { backend.foldVectorRowAND_NOT(dst, src, rowCount, columnCount); }
+    void foldVectorRowOR(int[] dst, int[] src, int rowCount, int columnCount) { backend.foldVectorRowOR(dst, src, rowCount, columnCount); }
+    void foldVectorRowXOR(int[] dst, int[] src, int rowCount, int columnCount) { backend.foldVectorRowXOR(dst, src, rowCount, columnCount); }
+    void foldVectorRowCOUNT(int[] dst, int[] src, int rowCount, int columnCount) { backend.foldVectorRowCOUNT(dst, src, rowCount, columnCount); }
+    void foldVectorRowADD(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { backend.foldVectorRowADD(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorRowSUB(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { backend.foldVectorRowSUB(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorRowMUL(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { backend.foldVectorRowMUL(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorRowDIV(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { backend.foldVectorRowDIV(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorRowMAX(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { backend.foldVectorRowMAX(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorRowMIN(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { backend.foldVectorRowMIN(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorRowAND(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { backend.foldVectorRowAND(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorRowAND_NOT(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { backend.foldVectorRowAND_NOT(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorRowOR(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { backend.foldVectorRowOR(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorRowXOR(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { backend.foldVectorRowXOR(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorRowCOUNT(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { backend.foldVectorRowCOUNT(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+
+    int[] foldMatrixPlaneADD(int[] src, int planeCount, int rowCount, int columnCount) { return backend.foldMatrixPlaneADD(src, planeCount, rowCount, columnCount); }
+    int[] foldMatrixPlaneSUB(int[] src, int planeCount, int rowCount, int columnCount) { return backend.foldMatrixPlaneSUB(src, planeCount, rowCount, columnCount); }
+    int[] foldMatrixPlaneMUL(int[] src, int planeCount, int rowCount, int columnCount) { return backend.foldMatrixPlaneMUL(src, planeCount, rowCount, columnCount); }
+    int[] foldMatrixPlaneDIV(int[] src, int planeCount, int rowCount, int columnCount) { return backend.foldMatrixPlaneDIV(src, planeCount, rowCount, columnCount); }
+    int[] foldMatrixPlaneMAX(int[] src, int planeCount, int rowCount, int columnCount) { return backend.foldMatrixPlaneMAX(src, planeCount, rowCount, columnCount); }
+    int[] foldMatrixPlaneMIN(int[] src, int planeCount, int rowCount, int columnCount) { return backend.foldMatrixPlaneMIN(src, planeCount, rowCount, columnCount); }
+    int[] foldMatrixPlaneAND(int[] src, int planeCount, int rowCount, int columnCount) { return backend.foldMatrixPlaneAND(src, planeCount, rowCount, columnCount); }
+    int[] foldMatrixPlaneAND_NOT(int[] src, int planeCount, int rowCount, int columnCount) { return backend.foldMatrixPlaneAND_NOT(src, planeCount, rowCount, columnCount); }
+    int[] foldMatrixPlaneOR(int[] src, int planeCount, int rowCount, int columnCount) { return backend.foldMatrixPlaneOR(src, planeCount, rowCount, columnCount); }
+    int[] foldMatrixPlaneXOR(int[] src, int planeCount, int rowCount, int columnCount) { return backend.foldMatrixPlaneXOR(src, planeCount, rowCount, columnCount); }
+    int[] foldMatrixPlaneCOUNT(int[] src, int planeCount, int rowCount, int columnCount) { return backend.foldMatrixPlaneCOUNT(src, planeCount, rowCount, columnCount); }
+
+    int[] applyUnaryUser(VectorMonad monad, int[] src) { return backend.applyUnaryUser(monad, src); }
+    void applyUnaryInPlaceUser(VectorMonad monad, int[] data, int offset, int length) { backend.applyUnaryInPlaceUser(monad, data, offset, length); }
+    int[] applyUnaryComposite(Composite composite, int[] src) { return backend.applyUnaryComposite(composite, src); }
+    void applyUnaryInPlaceComposite(Composite composite, int[] data, int offset, int length) { backend.applyUnaryInPlaceComposite(composite, data, offset, length); }
+    int[] applyBinaryUser(VectorDyad dyad, int[] src1, int[] src2) { return backend.applyBinaryUser(dyad, src1, src2); }
+    void applyBinaryInPlaceUser(VectorDyad dyad, int[] data1, int offset1, int[] data2, int offset2, int length) { backend.applyBinaryInPlaceUser(dyad, data1, offset1, data2, offset2, length); }
+    int foldValueUser(VectorDyad dyad, int[] src) { return backend.foldValueUser(dyad, src); }
+    void foldVectorRowUser(VectorDyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { backend.foldVectorRowUser(dyad, dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorColumnUser(VectorDyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { backend.foldVectorColumnUser(dyad, dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    int[] foldMatrixPlaneUser(VectorDyad dyad, int[] src, int planeCount, int rowCount, int columnCount) { return backend.foldMatrixPlaneUser(dyad, src, planeCount, rowCount, columnCount); }
+
+    long[] packZOMO(int[] src) { return backend.packZOMO(src); }
+    int[] unpackZOMO(long[] words, int length) { return backend.unpackZOMO(words, length); }
+
+    void applyUnaryInPlace(Monads monads, int[] data, int offset, int length) { backend.applyUnaryInPlace(monads, data, offset, length); }
+
+    void applyBinaryInPlace(Dyads dyads, int[] data1, int offset1, int[] data2, int offset2, int length) { backend.applyBinaryInPlace(dyads, data1, offset1, data2, offset2, length); }
+
+    void applyUnary(Monads monads, MemorySegment src, MemorySegment dst) { backend.applyUnary(monads, src, dst); }
+
+    void applyBinary(Dyads dyads, MemorySegment src1, MemorySegment src2, MemorySegment dst) { backend.applyBinary(dyads, src1, src2, dst); }
+    int foldValue(Dyad dyad, MemorySegment src) { return backend.foldValue(dyad, src); }
+
+    void foldVectorRowAssoc(Dyads dyads, int[] dst, int dstOffset, Store src, int srcOffset, int rowCount, int columnCount) { backend.foldVectorRowAssoc(dyads, dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void scanVectorRowAssoc(Dyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount, int seed) { backend.scanVectorRowAssoc(dyad, dst, dstOffset, src, srcOffset, rowCount, columnCount, seed); }
+    void applyOuterLanewise(Dyad dyad, int[] dst, int dstOffset, int[] src1, int src1Offset, int rowCount, int[] src2) { backend.applyOuterLanewise(dyad, dst, dstOffset, src1, src1Offset, rowCount, src2); }
+    void transposeMatrix(int[] dst, int dstOffset, int dstStride, int[] src, int srcOffset, int srcStride, int rowCount, int columnCount) { backend.transposeMatrix(dst, dstOffset, dstStride, src, srcOffset, srcStride, rowCount, columnCount); }
+    void multiply(int[] dst, int dstOffset, int[] src1, int src1Offset, int rowCount, int[] src2, int innerCount, int columnCount) { backend.multiply(dst, dstOffset, src1, src1Offset, rowCount, src2, innerCount, columnCount); }
+    void applyInnerLanewise(Dyads fold, Dyads dyad, int[] dst, int dstOffset, int[] src1, int src1Offset, int rowCount, int[] src2, int innerCount, int columnCount) { backend.applyInnerLanewise(fold, dyad, dst, dstOffset, src1, src1Offset, rowCount, src2, innerCount, columnCount); }
+    void scanVectorColumnLanewise(Dyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount, int[] seed, int seedOffset) { backend.scanVectorColumnLanewise(dyad, dst, dstOffset, src, srcOffset, rowCount, columnCount, seed, seedOffset); }
   }
 
   private static final class ClassicBackend extends Backend {
@@ -628,6 +2908,30 @@ public final class Cell {
     int foldValueXOR(int[] src) { return foldValueGeneric(src, 0, (a, b) -> a ^ b); }
     int foldValueCOUNT(int[] src) { return foldValueGeneric(src, 0, (a, b) -> a + 1); }
 
+    void foldVectorColumnADD(int[] dst, int[] src, int rowCount, int columnCount) { foldVectorColumnGeneric(dst, 0, src, 0, rowCount, columnCount, 0, Integer::sum); }
+    void foldVectorColumnSUB(int[] dst, int[] src, int rowCount, int columnCount) { foldVectorColumnGeneric(dst, 0, src, 0, rowCount, columnCount, 0, (a, b) -> a - b); }
+    void foldVectorColumnMUL(int[] dst, int[] src, int rowCount, int columnCount) { foldVectorColumnGeneric(dst, 0, src, 0, rowCount, columnCount, 1, (a, b) -> a * b); }
+    void foldVectorColumnDIV(int[] dst, int[] src, int rowCount, int columnCount) { foldVectorColumnGeneric(dst, 0, src, 0, rowCount, columnCount, 1, (a, b) -> a / b); }
+    void foldVectorColumnMAX(int[] dst, int[] src, int rowCount, int columnCount) { foldVectorColumnGeneric(dst, 0, src, 0, rowCount, columnCount, Integer.MIN_VALUE, Math::max); }
+    void foldVectorColumnMIN(int[] dst, int[] src, int rowCount, int columnCount) { foldVectorColumnGeneric(dst, 0, src, 0, rowCount, columnCount, Integer.MAX_VALUE, Math::min); }
+    void foldVectorColumnAND(int[] dst, int[] src, int rowCount, int columnCount) { foldVectorColumnGeneric(dst, 0, src, 0, rowCount, columnCount, 0xFFFFFFFF, (a, b) -> a & b); }
+    void foldVectorColumnAND_NOT(int[] dst, int[] src, int rowCount, int columnCount) { foldVectorColumnGeneric(dst, 0, src, 0, rowCount, columnCount, 0xFFFFFFFF, (a, b) -> a & ~b); }
+    void foldVectorColumnOR(int[] dst, int[] src, int rowCount, int columnCount) { foldVectorColumnGeneric(dst, 0, src, 0, rowCount, columnCount, 0, (a, b) -> a | b); }
+    void foldVectorColumnXOR(int[] dst, int[] src, int rowCount, int columnCount) { foldVectorColumnGeneric(dst, 0, src, 0, rowCount, columnCount, 0, (a, b) -> a ^ b); }
+    void foldVectorColumnCOUNT(int[] dst, int[] src, int rowCount, int columnCount) { foldVectorColumnGeneric(dst, 0, src, 0, rowCount, columnCount, 0, (a, b) -> a + 1); }
+
+    void foldVectorColumnADD(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0, Integer::sum); }
+    void foldVectorColumnSUB(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0, (a, b) -> a - b); }
+    void foldVectorColumnMUL(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 1, (a, b) -> a * b); }
+    void foldVectorColumnDIV(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 1, (a, b) -> a / b); }
+    void foldVectorColumnMAX(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, Integer.MIN_VALUE, Math::max); }
+    void foldVectorColumnMIN(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, Integer.MAX_VALUE, Math::min); }
+    void foldVectorColumnAND(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0xFFFFFFFF, (a, b) -> a & b); }
+    void foldVectorColumnAND_NOT(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0xFFFFFFFF, (a, b) -> a & ~b); }
+    void foldVectorColumnOR(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0, (a, b) -> a | b); }
+    void foldVectorColumnXOR(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0, (a, b) -> a ^ b); }
+    void foldVectorColumnCOUNT(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0, (a, b) -> a + 1); }
+
     void foldVectorRowADD(int[] dst, int[] src, int rowCount, int columnCount) { foldVectorRowGeneric(dst, 0, src, 0, rowCount, columnCount, 0, Integer::sum); }
     void foldVectorRowSUB(int[] dst, int[] src, int rowCount, int columnCount) { foldVectorRowGeneric(dst, 0, src, 0, rowCount, columnCount, 0, (a, b) -> a - b); }
     void foldVectorRowMUL(int[] dst, int[] src, int rowCount, int columnCount) { foldVectorRowGeneric(dst, 0, src, 0, rowCount, columnCount, 1, (a, b) -> a * b); }
@@ -640,17 +2944,124 @@ public final class Cell {
     void foldVectorRowXOR(int[] dst, int[] src, int rowCount, int columnCount) { foldVectorRowGeneric(dst, 0, src, 0, rowCount, columnCount, 0, (a, b) -> a ^ b); }
     void foldVectorRowCOUNT(int[] dst, int[] src, int rowCount, int columnCount) { foldVectorRowGeneric(dst, 0, src, 0, rowCount, columnCount, 0, (a, b) -> a + 1); }
 
-    void foldVectorRowADD(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0, Integer::sum); }
-    void foldVectorRowSUB(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0, (a, b) -> a - b); }
-    void foldVectorRowMUL(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 1, (a, b) -> a * b); }
-    void foldVectorRowDIV(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 1, (a, b) -> a / b); }
-    void foldVectorRowMAX(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, Integer.MIN_VALUE, Math::max); }
-    void foldVectorRowMIN(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, Integer.MAX_VALUE, Math::min); }
-    void foldVectorRowAND(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0xFFFFFFFF, (a, b) -> a & b); }
-    void foldVectorRowAND_NOT(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0xFFFFFFFF, (a, b) -> a & ~b); }
-    void foldVectorRowOR(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0, (a, b) -> a | b); }
-    void foldVectorRowXOR(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0, (a, b) -> a ^ b); }
-    void foldVectorRowCOUNT(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0, (a, b) -> a + 1); }
+    void foldVectorRowADD(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0, Integer::sum); }
+    void foldVectorRowSUB(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0, (a, b) -> a - b); }
+    void foldVectorRowMUL(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 1, (a, b) -> a * b); }
+    void foldVectorRowDIV(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 1, (a, b) -> a / b); }
+    void foldVectorRowMAX(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, Integer.MIN_VALUE, Math::max); }
+    void foldVectorRowMIN(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, Integer.MAX_VALUE, Math::min); }
+    void foldVectorRowAND(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0xFFFFFFFF, (a, b) -> a & b); }
+    void foldVectorRowAND_NOT(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0xFFFFFFFF, (a, b) -> a & ~b); }
+    void foldVectorRowOR(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0, (a, b) -> a | b); }
+    void foldVectorRowXOR(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0, (a, b) -> a ^ b); }
+    void foldVectorRowCOUNT(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0, (a, b) -> a + 1); }
+
+    int[] applyUnaryUser(VectorMonad monad, int[] src) { return applyUnaryGeneric(src, monad); }
+    void applyUnaryInPlaceUser(VectorMonad monad, int[] data, int offset, int length) { applyUnaryInPlaceGeneric(data, offset, length, monad); }
+    int[] applyUnaryComposite(Composite composite, int[] src) { return applyUnaryGeneric(src, composite); }
+    void applyUnaryInPlaceComposite(Composite composite, int[] data, int offset, int length) { applyUnaryInPlaceGeneric(data, offset, length, composite); }
+    int[] applyBinaryUser(VectorDyad dyad, int[] src1, int[] src2) { return applyBinaryGeneric(src1, src2, dyad); }
+    void applyBinaryInPlaceUser(VectorDyad dyad, int[] data1, int offset1, int[] data2, int offset2, int length) { applyBinaryInPlaceGeneric(data1, offset1, data2, offset2, length, dyad); }
+    int foldValueUser(VectorDyad dyad, int[] src) { return foldValueGeneric(src, dyad.zero(), dyad); }
+    void foldVectorRowUser(VectorDyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, dyad.zero(), dyad); }
+    void foldVectorColumnUser(VectorDyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, dyad.zero(), dyad); }
+    int[] foldMatrixPlaneUser(VectorDyad dyad, int[] src, int planeCount, int rowCount, int columnCount) { return foldMatrixPlaneGeneric(src, planeCount, rowCount, columnCount, dyad.zero(), dyad); }
+    void scanVectorRowAssoc(Dyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount, int seed) { scanVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, seed, dyad); }
+    void applyOuterLanewise(Dyad dyad, int[] dst, int dstOffset, int[] src1, int src1Offset, int rowCount, int[] src2) { applyOuterGeneric(dst, dstOffset, src1, src1Offset, rowCount, src2, dyad); }
+    void sortRows(long[] data, int offset, int rowCount, int columnCount) {
+      for(var row = 0; row < rowCount; row++) {
+        Arrays.sort(data, offset + row * columnCount, offset + (row + 1) * columnCount);
+      }
+    }
+
+    // tiled so the lines of dst written by a tile are still in the cache for the next rows of the tile
+    private static final int TRANSPOSE_TILE = 64;
+
+    void transposeMatrix(int[] dst, int dstOffset, int dstStride, int[] src, int srcOffset, int srcStride, int rowCount, int columnCount) {
+      for(var ii = 0; ii < rowCount; ii += TRANSPOSE_TILE) {
+        var iEnd = Math.min(rowCount, ii + TRANSPOSE_TILE);
+        for(var jj = 0; jj < columnCount; jj += TRANSPOSE_TILE) {
+          var jEnd = Math.min(columnCount, jj + TRANSPOSE_TILE);
+          for(var i = ii; i < iEnd; i++) {
+            for(var j = jj; j < jEnd; j++) {
+              dst[dstOffset + j * dstStride + i] = src[srcOffset + i * srcStride + j];
+            }
+          }
+        }
+      }
+    }
+    void multiply(int[] dst, int dstOffset, int[] src1, int src1Offset, int rowCount, int[] src2, int innerCount, int columnCount) { applyInnerGeneric(dst, dstOffset, src1, src1Offset, rowCount, src2, innerCount, columnCount, Dyads.ADD, Dyads.MUL); }
+    void applyInnerLanewise(Dyads fold, Dyads dyad, int[] dst, int dstOffset, int[] src1, int src1Offset, int rowCount, int[] src2, int innerCount, int columnCount) { applyInnerGeneric(dst, dstOffset, src1, src1Offset, rowCount, src2, innerCount, columnCount, fold, dyad); }
+    void scanVectorColumnLanewise(Dyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount, int[] seed, int seedOffset) { scanVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, seed, seedOffset, dyad); }
+
+    long[] packZOMO(int[] src) {
+      var words = new long[(src.length + 63) >>> 6];
+      for(var i = 0; i < src.length; i++) {
+        if (src[i] != 0) {
+          words[i >>> 6] |= 1L << i;
+        }
+      }
+      return words;
+    }
+    int[] unpackZOMO(long[] words, int length) {
+      var dst = new int[length];
+      for(var i = 0; i < length; i++) {
+        dst[i] = (int) -((words[i >>> 6] >>> i) & 1);
+      }
+      return dst;
+    }
+    void applyUnaryInPlace(Monads monads, int[] data, int offset, int length) {
+      applyUnaryInPlaceGeneric(data, offset, length, monads);
+    }
+    void applyBinaryInPlace(Dyads dyads, int[] data1, int offset1, int[] data2, int offset2, int length) {
+      applyBinaryInPlaceGeneric(data1, offset1, data2, offset2, length, dyads);
+    }
+    void applyUnary(Monads monads, MemorySegment src, MemorySegment dst) {
+      applyUnaryGeneric(src, dst, monads);
+    }
+    void applyBinary(Dyads dyads, MemorySegment src1, MemorySegment src2, MemorySegment dst) {
+      applyBinaryGeneric(src1, src2, dst, dyads);
+    }
+    int foldValue(Dyad dyad, MemorySegment src) {
+      var length = (int) (src.byteSize() / Integer.BYTES);
+      var acc = dyad.zero();
+      for(var i = 0; i < length; i++) {
+        acc = dyad.applyAsInt(acc, src.getAtIndex(Store.Segment.LAYOUT, i));
+      }
+      return acc;
+    }
+    void foldVectorColumn(Dyad dyad, int[] dst, int dstOffset, MemorySegment src, int srcOffset, int rowCount, int columnCount) {
+      foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, dyad.zero(), dyad);
+    }
+    int[] foldMatrixPlane(Dyad dyad, MemorySegment src, int planeCount, int rowCount, int columnCount) {
+      // the planes are the rows of a planeCount x matrixSize matrix
+      var matrixSize = rowCount * columnCount;
+      var data = new int[matrixSize];
+      foldVectorColumnGeneric(data, 0, src, 0, planeCount, matrixSize, dyad.zero(), dyad);
+      return data;
+    }
+    void foldVectorRowAssoc(Dyads dyads, int[] dst, int dstOffset, Store src, int srcOffset, int rowCount, int columnCount) {
+      var index = srcOffset;
+      for(var j = 0; j < rowCount; j++) {
+        var acc = dyads.zero();
+        for(var i = 0; i < columnCount; i++) {
+          acc = dyads.applyAsInt(acc, src.get(index++));
+        }
+        dst[dstOffset + j] = acc;
+      }
+    }
+
+    int[] foldMatrixPlaneADD(int[] src, int planeCount, int rowCount, int columnCount) { return foldMatrixPlaneGeneric(src, planeCount, rowCount, columnCount, 0, Integer::sum); }
+    int[] foldMatrixPlaneSUB(int[] src, int planeCount, int rowCount, int columnCount) { return foldMatrixPlaneGeneric(src, planeCount, rowCount, columnCount, 0, (a, b) -> a - b); }
+    int[] foldMatrixPlaneMUL(int[] src, int planeCount, int rowCount, int columnCount) { return foldMatrixPlaneGeneric(src, planeCount, rowCount, columnCount, 1, (a, b) -> a * b); }
+    int[] foldMatrixPlaneDIV(int[] src, int planeCount, int rowCount, int columnCount) { return foldMatrixPlaneGeneric(src, planeCount, rowCount, columnCount, 1, (a, b) -> a / b); }
+    int[] foldMatrixPlaneMAX(int[] src, int planeCount, int rowCount, int columnCount) { return foldMatrixPlaneGeneric(src, planeCount, rowCount, columnCount, Integer.MIN_VALUE, Math::max); }
+    int[] foldMatrixPlaneMIN(int[] src, int planeCount, int rowCount, int columnCount) { return foldMatrixPlaneGeneric(src, planeCount, rowCount, columnCount, Integer.MAX_VALUE, Math::min); }
+    int[] foldMatrixPlaneAND(int[] src, int planeCount, int rowCount, int columnCount) { return foldMatrixPlaneGeneric(src, planeCount, rowCount, columnCount, 0xFFFFFFFF, (a, b) -> a & b); }
+    int[] foldMatrixPlaneAND_NOT(int[] src, int planeCount, int rowCount, int columnCount) { return foldMatrixPlaneGeneric(src, planeCount, rowCount, columnCount, 0xFFFFFFFF, (a, b) -> a & ~b); }
+    int[] foldMatrixPlaneOR(int[] src, int planeCount, int rowCount, int columnCount) { return foldMatrixPlaneGeneric(src, planeCount, rowCount, columnCount, 0, (a, b) -> a | b); }
+    int[] foldMatrixPlaneXOR(int[] src, int planeCount, int rowCount, int columnCount) { return foldMatrixPlaneGeneric(src, planeCount, rowCount, columnCount, 0, (a, b) -> a ^ b); }
+    int[] foldMatrixPlaneCOUNT(int[] src, int planeCount, int rowCount, int columnCount) { return foldMatrixPlaneGeneric(src, planeCount, rowCount, columnCount, 0, (a, b) -> a + 1); }
 
     private static int[] applyUnaryGeneric(int[] src, IntUnaryOperator op) {
       var data = new int[src.length];
@@ -659,6 +3070,34 @@ public final class Cell {
       }
       return data;
     }
+    private static void applyUnaryInPlaceGeneric(int[] data, int offset, int length, IntUnaryOperator op) {
+      for(var i = offset; i < offset + length; i++) {
+        data[i] = op.applyAsInt(data[i]);
+      }
+    }
+    private static void applyBinaryInPlaceGeneric(int[] data1, int offset1, int[] data2, int offset2, int length, IntBinaryOperator op) {
+      for(var i = 0; i < length; i++) {
+        data1[offset1 + i] = op.applyAsInt(data1[offset1 + i], data2[offset2 + i]);
+      }
+    }
+    private static void applyUnaryGeneric(MemorySegment src, MemorySegment dst, IntUnaryOperator op) {
+      var length = (int) (src.byteSize() / Integer.BYTES);
+      for(var i = 0; i < length; i++) {
+        dst.setAtIndex(Store.Segment.LAYOUT, i, op.applyAsInt(src.getAtIndex(Store.Segment.LAYOUT, i)));
+      }
+    }
+    private static void applyBinaryGeneric(MemorySegment src1, MemorySegment src2, MemorySegment dst, IntBinaryOperator op) {
+      var length = (int) (dst.byteSize() / Integer.BYTES);
+      for(var i = 0; i < length; i++) {
+        dst.setAtIndex(Store.Segment.LAYOUT, i, op.applyAsInt(src1.getAtIndex(Store.Segment.LAYOUT, i), src2.getAtIndex(Store.Segment.LAYOUT, i)));
+      }
+    }
+    private static void applyBinaryGeneric(Store src1, Store src2, MemorySegment dst, IntBinaryOperator op) {
+      var length = src1.length();
+      for(var i = 0; i < length; i++) {
+        dst.setAtIndex(Store.Segment.LAYOUT, i, op.applyAsInt(src1.get(i), src2.get(i)));
+      }
+    }
     private static int[] applyBinaryGeneric(int[] src1, int[] src2, IntBinaryOperator op) {
       var data = new int[src1.length];
       for(var i = 0; i < data.length; i++) {
@@ -674,12 +3113,23 @@ public final class Cell {
       return acc;
     }
     private static void foldVectorColumnGeneric(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount, int zero, IntBinaryOperator op) {
-      for(var j = 0; j < columnCount; j++) {
-        var acc = zero;
-        for(var i = 0; i < rowCount; i++) {
-          acc = op.applyAsInt(acc, src[srcOffset + i * columnCount + j]);
+      // sweep the rows, dst is the accumulator
+      Arrays.fill(dst, dstOffset, dstOffset + columnCount, zero);
+      var index = srcOffset;
+      for(var i = 0; i < rowCount; i++) {
+        for(var j = 0; j < columnCount; j++) {
+          dst[dstOffset + j] = op.applyAsInt(dst[dstOffset + j], src[index++]);
+        }
+      }
+    }
+    private static void foldVectorColumnGeneric(int[] dst, int dstOffset, MemorySegment src, int srcOffset, int rowCount, int columnCount, int zero, IntBinaryOperator op) {
+      // sweep the rows, dst is the accumulator
+      Arrays.fill(dst, dstOffset, dstOffset + columnCount, zero);
+      var index = srcOffset;
+      for(var i = 0; i < rowCount; i++) {
+        for(var j = 0; j < columnCount; j++) {
+          dst[dstOffset + j] = op.applyAsInt(dst[dstOffset + j], src.getAtIndex(Store.Segment.LAYOUT, index++));
         }
-        dst[dstOffset + j] = acc;
       }
     }
     private static void foldVectorRowGeneric(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount, int zero, IntBinaryOperator op) {
@@ -692,107 +3142,343 @@ public final class Cell {
         dst[dstOffset + j] = acc;
       }
     }
+    private static void applyInnerGeneric(int[] dst, int dstOffset, int[] src1, int src1Offset, int rowCount, int[] src2, int innerCount, int columnCount, Dyad fold, IntBinaryOperator dyad) {
+      // the row i of dst is the accumulator, src2 is read row by row
+      for(var i = 0; i < rowCount; i++) {
+        var row = dstOffset + i * columnCount;
+        Arrays.fill(dst, row, row + columnCount, fold.zero());
+        for(var k = 0; k < innerCount; k++) {
+          var value = src1[src1Offset + i * innerCount + k];
+          for(var j = 0; j < columnCount; j++) {
+            dst[row + j] = fold.applyAsInt(dst[row + j], dyad.applyAsInt(value, src2[k * columnCount + j]));
+          }
+        }
+      }
+    }
+    private static void applyOuterGeneric(int[] dst, int dstOffset, int[] src1, int src1Offset, int rowCount, int[] src2, IntBinaryOperator op) {
+      var index = dstOffset;
+      for(var k = 0; k < rowCount; k++) {
+        var value = src1[src1Offset + k];
+        for(var i = 0; i < src2.length; i++) {
+          dst[index++] = op.applyAsInt(value, src2[i]);
+        }
+      }
+    }
+    private static void scanVectorRowGeneric(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount, int seed, IntBinaryOperator op) {
+      var index = 0;
+      for(var j = 0; j < rowCount; j++) {
+        var acc = seed;
+        for(var i = 0; i < columnCount; i++) {
+          acc = op.applyAsInt(acc, src[srcOffset + index]);
+          dst[dstOffset + index++] = acc;
+        }
+      }
+    }
+    private static void scanVectorColumnGeneric(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount, int[] seed, int seedOffset, IntBinaryOperator op) {
+      // each row is combined with the previous row of dst
+      for(var i = 0; i < rowCount; i++) {
+        var previous = i == 0? seed: dst;
+        var previousOffset = i == 0? seedOffset: dstOffset + (i - 1) * columnCount;
+        for(var j = 0; j < columnCount; j++) {
+          dst[dstOffset + i * columnCount + j] = op.applyAsInt(previous[previousOffset + j], src[srcOffset + i * columnCount + j]);
+        }
+      }
+    }
     private static int[] foldMatrixPlaneGeneric(int[] src, int planeCount, int rowCount, int columnCount, int zero, IntBinaryOperator op) {
+      // the planes are the rows of a planeCount x matrixSize matrix
       var matrixSize = rowCount * columnCount;
       var data = new int[matrixSize];
-      for(var index = 0; index < data.length; index++) {
-        var acc = zero;
-        for(var k = 0; k < planeCount; k++) {
-          acc = op.applyAsInt(acc, src[index + k * matrixSize]);
-        }
-        data[index] = acc;
-      }
+      foldVectorColumnGeneric(data, 0, src, 0, planeCount, matrixSize, zero, op);
       return data;
     }
   }
 
   private static final class VectorizedBackend extends Backend {
     private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Short> SHORT_SPECIES = VectorSpecies.of(short.class, SPECIES.vectorShape());
+    private static final VectorSpecies<Byte> BYTE_SPECIES = VectorSpecies.of(byte.class, SPECIES.vectorShape());
+    private static final VectorSpecies<Long> LONG_SPECIES = VectorSpecies.of(long.class, SPECIES.vectorShape());
 
     @Override
     public String toString() {
       return "Vectorized - lanes: " + SPECIES.length() + "  shape: " + SPECIES.vectorShape();
     }
 
-    private static final class Specializer {
-      private final byte[] data;
+    private static Template specialize(Specializer specializer, IntUnaryOperator op, Unary unary) {
+      return specializer.specialize(Template.class, op, unary, null);
+    }
+    private static Template specialize(Specializer specializer, int zero, IntBinaryOperator op, Binary binary) {
+      return specializer.specialize(Template.class, zero, op, binary);
+    }
+    private static Template specialize(Specializer specializer, Tuner tuner, String name, IntUnaryOperator op, Unary unary) {
+      return tuner.tune(name, true, (tuning, strong) -> specializer.specialize(Template.class, op, unary, null, tuning, strong));
+    }
+    private static Template specialize(Specializer specializer, Tuner tuner, String name, int zero, IntBinaryOperator op, Associative assoc) {
+      return tuner.tune(name, false, (tuning, strong) -> specializer.specialize(Template.class, zero, op, assoc, tuning, strong));
+    }
+
+    // species, tail strategy (post loop or masked) and number of accumulators of the folds of a snippet
+    record Tuning(int bitSize, boolean maskedTail, int unroll) {
+      static final Tuning DEFAULT = new Tuning(IntVector.SPECIES_PREFERRED.vectorBitSize(), false, 4);
+
+      // a multiplication has a longer latency than the other operations, so more accumulators are needed
+      static Tuning defaultOf(String name) {
+        return name.startsWith("MUL")? new Tuning(DEFAULT.bitSize, false, 8): DEFAULT;
+      }
+
+      VectorSpecies<Integer> species() {
+        return VectorSpecies.of(int.class, VectorShape.forBitSize(bitSize));
+      }
 
-      Specializer(byte[] data) {
-        this.data = data;
+      @Override
+      public String toString() {
+        return bitSize + (maskedTail? ":masked": "") + (unroll != 1? ":x" + unroll: "");
       }
 
-      Template specialize(IntUnaryOperator op, Unary unary) {
-        return specializeHoles(op, unary, null);
+      // bitSize[:masked][:xunroll], e.g. 256:masked:x4
+      static Tuning parse(String text) {
+        var parts = text.split(":");
+        var masked = false;
+        var unroll = 1;
+        try {
+          var bitSize = Integer.parseInt(parts[0]);
+          for(var i = 1; i < parts.length; i++) {
+            var part = parts[i];
+            if (part.equals("masked")) {
+              masked = true;
+            } else if (part.startsWith("x")) {
+              unroll = Integer.parseInt(part.substring(1));
+            } else {
+              throw new IllegalArgumentException("invalid tuning " + text);
+            }
+          }
+          if (bitSize < 64 || bitSize > DEFAULT.bitSize || Integer.bitCount(bitSize) != 1 ||
+              (unroll != 1 && unroll != 2 && unroll != 4 && unroll != 8)) {
+            throw new IllegalArgumentException("invalid tuning " + text);
+          }
+          return new Tuning(bitSize, masked, unroll);
+        } catch(NumberFormatException e) {
+          throw new IllegalArgumentException("invalid tuning " + text, e);
+        }
       }
-      Template specialize(int zero, IntBinaryOperator op, Associative assoc) {
-        return specializeHoles(zero, op, assoc);
+
+      static List<Tuning> candidates(int unroll) {
+        var candidates = new ArrayList<Tuning>();
+        for(var bitSize = 128; bitSize <= DEFAULT.bitSize; bitSize <<= 1) {
+          candidates.add(new Tuning(bitSize, false, unroll));
+          candidates.add(new Tuning(bitSize, true, unroll));
+        }
+        return candidates;
       }
-      Template specialize(int zero, IntBinaryOperator op, Binary binary) {
-        return specializeHoles(zero, op, binary);
+
+      List<Tuning> unrolls() {
+        return List.of(new Tuning(bitSize, maskedTail, 1), new Tuning(bitSize, maskedTail, 2),
+            new Tuning(bitSize, maskedTail, 4), new Tuning(bitSize, maskedTail, 8));
       }
+    }
 
-      private Template specializeHoles(Object hole1, Object hole2, Object hole3) {
-        var classData = new ClassData(hole1, hole2, hole3);
+    // the suffix of the name of the tuning of a fold for the rows shorter than SHORT_ROW
+    private static final String SHORT_ROWS = ".short";
 
-        var lookup = MethodHandles.lookup();
-        Lookup hiddenClassLookup;
-        try {
-          hiddenClassLookup = lookup.defineHiddenClassWithClassData(data, classData, true, ClassOption.NESTMATE, ClassOption.STRONG);
-        } catch (IllegalAccessException e) {
-          throw new AssertionError(e);
+    // -Dfr.umlv.jruntime.tuning=path, the tunings are read from path,
+    // the table is keyed by operator, and for the folds by operator and size, e.g. ADD and ADD.short,
+    // the file is written by Calibrator which benchmarks each candidate, the calibration takes tens of seconds
+    // so it is never done when the backend is initialized, without the file the default tunings are used
+    private static final class Tuner {
+      private static volatile int sink;
+
+      // the candidates are not strong so their hidden classes are unloaded once measured,
+      // only the chosen tuning is strong
+      interface Specialization {
+        Template specialize(Tuning tuning, boolean strong);
+      }
+
+      private final Path path;
+      private final Properties table;
+      private final boolean calibrate;
+
+      private Tuner(Path path, Properties table, boolean calibrate) {
+        this.path = path;
+        this.table = table;
+        this.calibrate = calibrate;
+      }
+
+      static Tuner load() {
+        var property = System.getProperty("fr.umlv.jruntime.tuning");
+        var table = new Properties();
+        if (property == null) {
+          return new Tuner(null, table, false);
         }
+        // the backend is initialized by a static block, so a missing or unreadable file means the default tunings,
+        // an exception would make the class Cell unusable
+        var path = Path.of(property);
+        try(var reader = Files.newBufferedReader(path)) {
+          table.load(reader);
+        } catch(IOException | IllegalArgumentException e) {
+          table.clear();
+        }
+        return new Tuner(path, table, false);
+      }
 
-        MethodHandle constructor;
-        try {
-          constructor = hiddenClassLookup.findConstructor(hiddenClassLookup.lookupClass(), MethodType.methodType(void.class));
-        } catch (NoSuchMethodException | IllegalAccessException e) {
-          throw new AssertionError(e);
+      static Tuner calibrator(Path path) {
+        return new Tuner(path, new Properties(), true);
+      }
+
+      // an invalid tuning is replaced by the default one
+      private Tuning tuning(String name) {
+        var text = table.getProperty(name);
+        if (text == null) {
+          return Tuning.defaultOf(name);
         }
         try {
-          return (Template) constructor.invoke();
-        } catch(RuntimeException | Error e) {
-          throw e;
-        } catch (Throwable e) {
-          throw new AssertionError(e);
+          return Tuning.parse(text);
+        } catch(IllegalArgumentException e) {
+          return Tuning.defaultOf(name);
         }
       }
-    }
 
+      boolean isSameTuning(String name1, String name2) {
+        return !calibrate && tuning(name1).equals(tuning(name2));
+      }
+
+      Template tune(String name, boolean unary, Specialization specialization) {
+        if (!calibrate) {
+          return specialization.specialize(tuning(name), true);
+        }
+        // first the species and the tail strategy, then the number of accumulators if the snippet folds
+        var shortRows = name.endsWith(SHORT_ROWS);
+        var tuning = fastest(Tuning.candidates(unary? 1: Tuning.defaultOf(name).unroll()), unary, shortRows, specialization);
+        if (!unary) {
+          tuning = fastest(tuning.unrolls(), false, shortRows, specialization);
+        }
+        table.setProperty(name, tuning.toString());
+        return specialization.specialize(tuning, false);          // only used to calibrate
+      }
+
+      private static Tuning fastest(List<Tuning> candidates, boolean unary, boolean shortRows, Specialization specialization) {
+        Tuning best = null;
+        var bestTime = Long.MAX_VALUE;
+        for(var tuning: candidates) {
+          var time = measure(specialization.specialize(tuning, false), unary, shortRows);
+          if (time < bestTime) {
+            best = tuning;
+            bestTime = time;
+          }
+        }
+        return best;
+      }
+
+      void save() {
+        try(var writer = Files.newBufferedWriter(path)) {
+          table.store(writer, "fr.umlv.jruntime tunings, " + System.getProperty("os.arch"));
+        } catch(IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+
+      // either the short rows or the whole arrays and long rows, with sizes that are not a multiple of the lane count,
+      // best of several rounds
+      private static long measure(Template template, boolean unary, boolean shortRows) {
+        var src = range(0, 1_000).map(i -> i % 100 + 1).toArray();
+        var large = range(0, 10_000).map(i -> i % 100 + 1).toArray();
+        var dst = new int[1_000];
+        var best = Long.MAX_VALUE;
+        for(var round = 0; round < 30; round++) {
+          var start = System.nanoTime();
+          for(var i = 0; i < 200; i++) {
+            if (unary) {
+              sink = template.applyUnary(src)[i];
+            } else if (shortRows) {
+              template.foldVectorRowAssoc(dst, 0, src, 0, 1_000 / 61, 61);
+              template.foldVectorRowAssoc(dst, 0, src, 0, 1_000 / 37, 37);
+              template.foldVectorRowAssoc(dst, 0, src, 0, 1_000 / 13, 13);
+              sink = dst[0];
+            } else {
+              sink = template.applyBinary(src, src)[i];
+              sink = template.foldValueAssoc(src);
+              sink = template.foldValueAssoc(large);
+              template.foldVectorRowAssoc(dst, 0, large, 0, 10_000 / 999, 999);
+              sink = dst[0];
+            }
+          }
+          best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+      }
+    }
 
     private static final Template SNIPPET_ZOMO, SNIPPET_NEG, SNIPPET_ABS, SNIPPET_NOT,
         SNIPPET_MAX, SNIPPET_MIN, SNIPPET_AND, SNIPPET_AND_NOT, SNIPPET_OR, SNIPPET_XOR;
     private static final Template SNIPPET_ADD, SNIPPET_SUB, SNIPPET_MUL, SNIPPET_DIV;
+    private static final Template SNIPPET_ADD_SHORT, SNIPPET_MUL_SHORT, SNIPPET_MAX_SHORT, SNIPPET_MIN_SHORT,
+        SNIPPET_AND_SHORT, SNIPPET_OR_SHORT, SNIPPET_XOR_SHORT;
+    private static final Specializer SPECIALIZER;
     static {
-      Specializer specializer;
-      try {
-        byte[] data;
-        try(var input = Snippet.class.getResourceAsStream("/" + Snippet.class.getName().replace('.', '/') + ".class")) {
-          data = input.readAllBytes();
-        }
-        if (data == null) {
-          throw new AssertionError("Snippet class not found");
-        }
+      var specializer = new Specializer(MethodHandles.lookup(), Snippet.class);
+      SPECIALIZER = specializer;
+      var tuned = tunedSnippets(specializer, Tuner.load());
 
-        specializer = new Specializer(data);
-      } catch (IOException e) {
-        throw new AssertionError(e);
-      }
+      SNIPPET_ZOMO = tuned.get("ZOMO");
+      SNIPPET_NEG = tuned.get("NEG");
+      SNIPPET_ABS = tuned.get("ABS");
+      SNIPPET_NOT = tuned.get("NOT");
+
+      SNIPPET_ADD = tuned.get("ADD");
+      SNIPPET_SUB = specialize(specializer, 0, (a, b) -> a - b, VectorOperators.SUB);
+      SNIPPET_MUL = tuned.get("MUL");
+      SNIPPET_DIV = specialize(specializer, 1, (a, b) -> a / b, VectorOperators.DIV);
+      SNIPPET_MAX = tuned.get("MAX");
+      SNIPPET_MIN = tuned.get("MIN");
+      SNIPPET_AND = tuned.get("AND");
+      SNIPPET_AND_NOT = specialize(specializer, 0xFFFFFFFF, (a, b) -> a & ~b, VectorOperators.AND_NOT);
+      SNIPPET_OR = tuned.get("OR");
+      SNIPPET_XOR = tuned.get("XOR");
+
+      SNIPPET_ADD_SHORT = tuned.get("ADD" + SHORT_ROWS);
+      SNIPPET_MUL_SHORT = tuned.get("MUL" + SHORT_ROWS);
+      SNIPPET_MAX_SHORT = tuned.get("MAX" + SHORT_ROWS);
+      SNIPPET_MIN_SHORT = tuned.get("MIN" + SHORT_ROWS);
+      SNIPPET_AND_SHORT = tuned.get("AND" + SHORT_ROWS);
+      SNIPPET_OR_SHORT = tuned.get("OR" + SHORT_ROWS);
+      SNIPPET_XOR_SHORT = tuned.get("XOR" + SHORT_ROWS);
+    }
 
-      SNIPPET_ZOMO = specializer.specialize(x -> x == 0? 0: -1, VectorOperators.ZOMO);
-      SNIPPET_NEG = specializer.specialize(x -> -x, VectorOperators.NEG);
-      SNIPPET_ABS = specializer.specialize(Math::abs, VectorOperators.ABS);
-      SNIPPET_NOT = specializer.specialize(x -> ~x, VectorOperators.NOT);
+    // the rows shorter than SHORT_ROW values are folded by the snippet tuned for short rows
+    private static final int SHORT_ROW = 64;
 
-      SNIPPET_ADD = specializer.specialize(0, Integer::sum, VectorOperators.ADD);
-      SNIPPET_SUB = specializer.specialize(0, (a, b) -> a - b, VectorOperators.SUB);
-      SNIPPET_MUL = specializer.specialize(1, (a, b) -> a * b, VectorOperators.MUL);
-      SNIPPET_DIV = specializer.specialize(1, (a, b) -> a / b, VectorOperators.DIV);
-      SNIPPET_MAX = specializer.specialize(Integer.MIN_VALUE, Math::max, VectorOperators.MAX);
-      SNIPPET_MIN = specializer.specialize(Integer.MAX_VALUE, Math::min, VectorOperators.MIN);
-      SNIPPET_AND = specializer.specialize(0xFFFFFFFF, (a, b) -> a & b, VectorOperators.AND);
-      SNIPPET_AND_NOT = specializer.specialize(0xFFFFFFFF, (a, b) -> a & ~b, VectorOperators.AND_NOT);
-      SNIPPET_OR = specializer.specialize(0, (a, b) -> a | b, VectorOperators.OR);
-      SNIPPET_XOR = specializer.specialize(0, (a, b) -> a ^ b, VectorOperators.XOR);
+    private static Template row(Template snippet, Template shortSnippet, int columnCount) {
+      return columnCount < SHORT_ROW? shortSnippet: snippet;
+    }
+
+    private static HashMap<String, Template> tunedSnippets(Specializer specializer, Tuner tuner) {
+      var snippets = new HashMap<String, Template>();
+      snippets.put("ZOMO", specialize(specializer, tuner, "ZOMO", x -> x == 0? 0: -1, VectorOperators.ZOMO));
+      snippets.put("NEG", specialize(specializer, tuner, "NEG", x -> -x, VectorOperators.NEG));
+      snippets.put("ABS", specialize(specializer, tuner, "ABS", Math::abs, VectorOperators.ABS));
+      snippets.put("NOT", specialize(specializer, tuner, "NOT", x -> ~x, VectorOperators.NOT));
+
+      specializeFold(snippets, specializer, tuner, "ADD", 0, Integer::sum, VectorOperators.ADD);
+      specializeFold(snippets, specializer, tuner, "MUL", 1, (a, b) -> a * b, VectorOperators.MUL);
+      specializeFold(snippets, specializer, tuner, "MAX", Integer.MIN_VALUE, Math::max, VectorOperators.MAX);
+      specializeFold(snippets, specializer, tuner, "MIN", Integer.MAX_VALUE, Math::min, VectorOperators.MIN);
+      specializeFold(snippets, specializer, tuner, "AND", 0xFFFFFFFF, (a, b) -> a & b, VectorOperators.AND);
+      specializeFold(snippets, specializer, tuner, "OR", 0, (a, b) -> a | b, VectorOperators.OR);
+      specializeFold(snippets, specializer, tuner, "XOR", 0, (a, b) -> a ^ b, VectorOperators.XOR);
+      return snippets;
+    }
+
+    // a fold has two tunings, one for the short rows and one for the long rows and the whole arrays
+    private static void specializeFold(HashMap<String, Template> snippets, Specializer specializer, Tuner tuner, String name, int zero, IntBinaryOperator op, Associative assoc) {
+      var snippet = specialize(specializer, tuner, name, zero, op, assoc);
+      snippets.put(name, snippet);
+      var shortName = name + SHORT_ROWS;
+      snippets.put(shortName, tuner.isSameTuning(name, shortName)? snippet: specialize(specializer, tuner, shortName, zero, op, assoc));
+    }
+
+    static void calibrate(Path path) {
+      var tuner = Tuner.calibrator(path);
+      tunedSnippets(SPECIALIZER, tuner);
+      tuner.save();
     }
 
     int[] applyUnaryZOMO(int[] src) { return SNIPPET_ZOMO.applyUnary(src);  }
@@ -810,7 +3496,7 @@ public final class Cell {
     int[] applyBinaryAND_NOT(int[] src1, int[] src2) { return SNIPPET_AND_NOT.applyBinary(src1, src2); }
     int[] applyBinaryOR(int[] src1, int[] src2) { return SNIPPET_OR.applyBinary(src1, src2); }
     int[] applyBinaryXOR(int[] src1, int[] src2) { return SNIPPET_XOR.applyBinary(src1, src2); }
-    int[] applyBinaryCOUNT(int[] src1, int[] src2) { return ClassicBackend.applyBinaryGeneric(src1, src2, (a, b) -> a + 1); }
+    int[] applyBinaryCOUNT(int[] src1, int[] src2) { var dst = new int[src1.length]; increment(src1, 0, dst, 0, dst.length); return dst; }
 
     int foldValueADD(int[] src) { return SNIPPET_ADD.foldValueAssoc(src); }
     int foldValueSUB(int[] src) { return SNIPPET_SUB.foldValueBinary(src); }
@@ -818,38 +3504,639 @@ public final class Cell {
     int foldValueDIV(int[] src) { return SNIPPET_DIV.foldValueBinary(src); }
     int foldValueMAX(int[] src) { return SNIPPET_MAX.foldValueAssoc(src); }
     int foldValueMIN(int[] src) { return SNIPPET_MIN.foldValueAssoc(src); }
-    int foldValueAND(int[] src) { return SNIPPET_ADD.foldValueAssoc(src); }
+    int foldValueAND(int[] src) { return SNIPPET_AND.foldValueAssoc(src); }
     int foldValueAND_NOT(int[] src) { return SNIPPET_AND_NOT.foldValueBinary(src); }
     int foldValueOR(int[] src) { return SNIPPET_OR.foldValueAssoc(src); }
     int foldValueXOR(int[] src) { return SNIPPET_XOR.foldValueAssoc(src); }
-    int foldValueCOUNT(int[] src) { return ClassicBackend.foldValueGeneric(src, 0, (a, b) -> a + 1); }
+    int foldValueCOUNT(int[] src) { return src.length; }
+
+    void foldVectorColumnADD(int[] dst, int[] src, int rowCount, int columnCount) { SNIPPET_ADD.foldVectorColumn(dst, 0, src, 0, rowCount, columnCount); }
+    void foldVectorColumnSUB(int[] dst, int[] src, int rowCount, int columnCount) { SNIPPET_SUB.foldVectorColumn(dst, 0, src, 0, rowCount, columnCount); }
+    void foldVectorColumnMUL(int[] dst, int[] src, int rowCount, int columnCount) { SNIPPET_MUL.foldVectorColumn(dst, 0, src, 0, rowCount, columnCount); }
+    void foldVectorColumnDIV(int[] dst, int[] src, int rowCount, int columnCount) { SNIPPET_DIV.foldVectorColumn(dst, 0, src, 0, rowCount, columnCount); }
+    void foldVectorColumnMAX(int[] dst, int[] src, int rowCount, int columnCount) { SNIPPET_MAX.foldVectorColumn(dst, 0, src, 0, rowCount, columnCount); }
+    void foldVectorColumnMIN(int[] dst, int[] src, int rowCount, int columnCount) { SNIPPET_MIN.foldVectorColumn(dst, 0, src, 0, rowCount, columnCount); }
+    void foldVectorColumnAND(int[] dst, int[] src, int rowCount, int columnCount) { SNIPPET_AND.foldVectorColumn(dst, 0, src, 0, rowCount, columnCount); }
+    void foldVectorColumnAND_NOT(int[] dst, int[] src, int rowCount, int columnCount) { SNIPPET_AND_NOT.foldVectorColumn(dst, 0, src, 0, rowCount, columnCount); }
+    void foldVectorColumnOR(int[] dst, int[] src, int rowCount, int columnCount) { SNIPPET_OR.foldVectorColumn(dst, 0, src, 0, rowCount, columnCount); }
+    void foldVectorColumnXOR(int[] dst, int[] src, int rowCount, int columnCount) { SNIPPET_XOR.foldVectorColumn(dst, 0, src, 0, rowCount, columnCount); }
+    void foldVectorColumnCOUNT(int[] dst, int[] src, int rowCount, int columnCount) { Arrays.fill(dst, 0, columnCount, rowCount); }
 
-    void foldVectorRowADD(int[] dst, int[] src, int rowCount, int columnCount) { SNIPPET_ADD.foldVectorRowAssoc(dst, 0, src, 0, rowCount, columnCount); }
+    void foldVectorColumnADD(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { SNIPPET_ADD.foldVectorColumn(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorColumnSUB(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { SNIPPET_SUB.foldVectorColumn(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorColumnMUL(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { SNIPPET_MUL.foldVectorColumn(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorColumnDIV(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { SNIPPET_DIV.foldVectorColumn(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorColumnMAX(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { SNIPPET_MAX.foldVectorColumn(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorColumnMIN(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { SNIPPET_MIN.foldVectorColumn(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorColumnAND(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { SNIPPET_AND.foldVectorColumn(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorColumnAND_NOT(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { SNIPPET_AND_NOT.foldVectorColumn(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorColumnOR(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { SNIPPET_OR.foldVectorColumn(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorColumnXOR(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { SNIPPET_XOR.foldVectorColumn(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorColumnCOUNT(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { Arrays.fill(dst, dstOffset, dstOffset + columnCount, rowCount); }
+
+    void foldVectorRowADD(int[] dst, int[] src, int rowCount, int columnCount) { row(SNIPPET_ADD, SNIPPET_ADD_SHORT, columnCount).foldVectorRowAssoc(dst, 0, src, 0, rowCount, columnCount); }
     void foldVectorRowSUB(int[] dst, int[] src, int rowCount, int columnCount) { SNIPPET_SUB.foldVectorRowBinary(dst, 0, src, 0, rowCount, columnCount); }
-    void foldVectorRowMUL(int[] dst, int[] src, int rowCount, int columnCount) { SNIPPET_MUL.foldVectorRowAssoc(dst, 0, src, 0, rowCount, columnCount); }
+    void foldVectorRowMUL(int[] dst, int[] src, int rowCount, int columnCount) { row(SNIPPET_MUL, SNIPPET_MUL_SHORT, columnCount).foldVectorRowAssoc(dst, 0, src, 0, rowCount, columnCount); }
     void foldVectorRowDIV(int[] dst, int[] src, int rowCount, int columnCount) { SNIPPET_DIV.foldVectorRowBinary(dst, 0, src, 0, rowCount, columnCount); }
-    void foldVectorRowMAX(int[] dst, int[] src, int rowCount, int columnCount) { SNIPPET_MAX.foldVectorRowAssoc(dst, 0, src, 0, rowCount, columnCount); }
-    void foldVectorRowMIN(int[] dst, int[] src, int rowCount, int columnCount) { SNIPPET_MIN.foldVectorRowAssoc(dst, 0, src, 0, rowCount, columnCount); }
-    void foldVectorRowAND(int[] dst, int[] src, int rowCount, int columnCount) { SNIPPET_AND.foldVectorRowAssoc(dst, 0, src, 0, rowCount, columnCount); }
+    void foldVectorRowMAX(int[] dst, int[] src, int rowCount, int columnCount) { row(SNIPPET_MAX, SNIPPET_MAX_SHORT, columnCount).foldVectorRowAssoc(dst, 0, src, 0, rowCount, columnCount); }
+    void foldVectorRowMIN(int[] dst, int[] src, int rowCount, int columnCount) { row(SNIPPET_MIN, SNIPPET_MIN_SHORT, columnCount).foldVectorRowAssoc(dst, 0, src, 0, rowCount, columnCount); }
+    void foldVectorRowAND(int[] dst, int[] src, int rowCount, int columnCount) { row(SNIPPET_AND, SNIPPET_AND_SHORT, columnCount).foldVectorRowAssoc(dst, 0, src, 0, rowCount, columnCount); }
     void foldVectorRowAND_NOT(int[] dst, int[] src, int rowCount, int columnCount) { SNIPPET_AND_NOT.foldVectorRowBinary(dst, 0, src, 0, rowCount, columnCount); }
-    void foldVectorRowOR(int[] dst, int[] src, int rowCount, int columnCount) { SNIPPET_OR.foldVectorRowAssoc(dst, 0, src, 0, rowCount, columnCount); }
-    void foldVectorRowXOR(int[] dst, int[] src, int rowCount, int columnCount) { SNIPPET_XOR.foldVectorRowAssoc(dst, 0, src, 0, rowCount, columnCount); }
-    void foldVectorRowCOUNT(int[] dst, int[] src, int rowCount, int columnCount) { ClassicBackend.foldVectorRowGeneric(dst, 0, src, 0, rowCount, columnCount, 0, (a, b) -> a + 1); }
+    void foldVectorRowOR(int[] dst, int[] src, int rowCount, int columnCount) { row(SNIPPET_OR, SNIPPET_OR_SHORT, columnCount).foldVectorRowAssoc(dst, 0, src, 0, rowCount, columnCount); }
+    void foldVectorRowXOR(int[] dst, int[] src, int rowCount, int columnCount) { row(SNIPPET_XOR, SNIPPET_XOR_SHORT, columnCount).foldVectorRowAssoc(dst, 0, src, 0, rowCount, columnCount); }
+    void foldVectorRowCOUNT(int[] dst, int[] src, int rowCount, int columnCount) { Arrays.fill(dst, 0, rowCount, columnCount); }
 
-    void foldVectorRowADD(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { SNIPPET_ADD.foldVectorRowAssoc(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorRowADD(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { row(SNIPPET_ADD, SNIPPET_ADD_SHORT, columnCount).foldVectorRowAssoc(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
     void foldVectorRowSUB(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { SNIPPET_SUB.foldVectorRowBinary(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
-    void foldVectorRowMUL(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { SNIPPET_MUL.foldVectorRowAssoc(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorRowMUL(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { row(SNIPPET_MUL, SNIPPET_MUL_SHORT, columnCount).foldVectorRowAssoc(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
     void foldVectorRowDIV(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { SNIPPET_DIV.foldVectorRowBinary(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
-    void foldVectorRowMAX(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { SNIPPET_MAX.foldVectorRowAssoc(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
-    void foldVectorRowMIN(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { SNIPPET_MIN.foldVectorRowAssoc(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
-    void foldVectorRowAND(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { SNIPPET_AND.foldVectorRowAssoc(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorRowMAX(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { row(SNIPPET_MAX, SNIPPET_MAX_SHORT, columnCount).foldVectorRowAssoc(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorRowMIN(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { row(SNIPPET_MIN, SNIPPET_MIN_SHORT, columnCount).foldVectorRowAssoc(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorRowAND(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { row(SNIPPET_AND, SNIPPET_AND_SHORT, columnCount).foldVectorRowAssoc(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
     void foldVectorRowAND_NOT(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { SNIPPET_AND_NOT.foldVectorRowBinary(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
-    void foldVectorRowOR(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { SNIPPET_OR.foldVectorRowAssoc(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
-    void foldVectorRowXOR(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { SNIPPET_XOR.foldVectorRowAssoc(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
-    void foldVectorRowCOUNT(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { ClassicBackend.foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, 0, (a, b) -> a + 1); }
+    void foldVectorRowOR(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { row(SNIPPET_OR, SNIPPET_OR_SHORT, columnCount).foldVectorRowAssoc(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorRowXOR(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { row(SNIPPET_XOR, SNIPPET_XOR_SHORT, columnCount).foldVectorRowAssoc(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    void foldVectorRowCOUNT(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { Arrays.fill(dst, dstOffset, dstOffset + rowCount, columnCount); }
+
+    int[] foldMatrixPlaneADD(int[] src, int planeCount, int rowCount, int columnCount) { return SNIPPET_ADD.foldMatrixPlane(src, planeCount, rowCount, columnCount); }
+    int[] foldMatrixPlaneSUB(int[] src, int planeCount, int rowCount, int columnCount) { return SNIPPET_SUB.foldMatrixPlane(src, planeCount, rowCount, columnCount); }
+    int[] foldMatrixPlaneMUL(int[] src, int planeCount, int rowCount, int columnCount) { return SNIPPET_MUL.foldMatrixPlane(src, planeCount, rowCount, columnCount); }
+    int[] foldMatrixPlaneDIV(int[] src, int planeCount, int rowCount, int columnCount) { return SNIPPET_DIV.foldMatrixPlane(src, planeCount, rowCount, columnCount); }
+    int[] foldMatrixPlaneMAX(int[] src, int planeCount, int rowCount, int columnCount) { return SNIPPET_MAX.foldMatrixPlane(src, planeCount, rowCount, columnCount); }
+    int[] foldMatrixPlaneMIN(int[] src, int planeCount, int rowCount, int columnCount) { return SNIPPET_MIN.foldMatrixPlane(src, planeCount, rowCount, columnCount); }
+    int[] foldMatrixPlaneAND(int[] src, int planeCount, int rowCount, int columnCount) { return SNIPPET_AND.foldMatrixPlane(src, planeCount, rowCount, columnCount); }
+    int[] foldMatrixPlaneAND_NOT(int[] src, int planeCount, int rowCount, int columnCount) { return SNIPPET_AND_NOT.foldMatrixPlane(src, planeCount, rowCount, columnCount); }
+    int[] foldMatrixPlaneOR(int[] src, int planeCount, int rowCount, int columnCount) { return SNIPPET_OR.foldMatrixPlane(src, planeCount, rowCount, columnCount); }
+    int[] foldMatrixPlaneXOR(int[] src, int planeCount, int rowCount, int columnCount) { return SNIPPET_XOR.foldMatrixPlane(src, planeCount, rowCount, columnCount); }
+    int[] foldMatrixPlaneCOUNT(int[] src, int planeCount, int rowCount, int columnCount) { var dst = new int[rowCount * columnCount]; Arrays.fill(dst, planeCount); return dst; }
+
+    long[] packZOMO(int[] src) {
+      var words = new long[(src.length + 63) >>> 6];
+      var i = 0;
+      var limit = src.length - (src.length % SPECIES.length());
+      for (; i < limit; i += SPECIES.length()) {
+        var mask = IntVector.fromArray(SPECIES, src, i).compare(VectorOperators.NE, 0);
+        words[i >>> 6] |= mask.toLong() << i;   // the lanes never straddle two words
+      }
+      for (; i < src.length; i++) {             // post loop
+        if (src[i] != 0) {
+          words[i >>> 6] |= 1L << i;
+        }
+      }
+      return words;
+    }
+    int[] unpackZOMO(long[] words, int length) {
+      var dst = new int[length];
+      var zero = IntVector.zero(SPECIES);
+      var i = 0;
+      var limit = length - (length % SPECIES.length());
+      for (; i < limit; i += SPECIES.length()) {
+        var mask = VectorMask.fromLong(SPECIES, words[i >>> 6] >>> i);   // the lanes never straddle two words
+        zero.blend(-1, mask).intoArray(dst, i);
+      }
+      for (; i < length; i++) {                 // post loop
+        dst[i] = (int) -((words[i >>> 6] >>> i) & 1);
+      }
+      return dst;
+    }
+
+    private static Template snippet(Monads monads) {
+      return switch(monads) {
+        case ZOMO -> SNIPPET_ZOMO;
+        case NEG -> SNIPPET_NEG;
+        case ABS -> SNIPPET_ABS;
+        case NOT -> SNIPPET_NOT;
+      };
+    }
+    void applyUnaryInPlace(Monads monads, int[] data, int offset, int length) {
+      snippet(monads).applyUnaryInPlace(data, offset, length);
+    }
+    void applyBinaryInPlace(Dyads dyads, int[] data1, int offset1, int[] data2, int offset2, int length) {
+      var snippet = switch(dyads) {
+        case ADD -> SNIPPET_ADD;
+        case SUB -> SNIPPET_SUB;
+        case MUL -> SNIPPET_MUL;
+        case DIV -> SNIPPET_DIV;
+        case MAX -> SNIPPET_MAX;
+        case MIN -> SNIPPET_MIN;
+        case AND -> SNIPPET_AND;
+        case AND_NOT -> SNIPPET_AND_NOT;
+        case OR -> SNIPPET_OR;
+        case XOR -> SNIPPET_XOR;
+        case COUNT -> null;
+      };
+      if (snippet == null) {
+        increment(data1, offset1, data1, offset1, length);
+        return;
+      }
+      snippet.applyBinaryInPlace(data1, offset1, data2, offset2, length);
+    }
+
+    // COUNT applied on two values is the first value plus one
+    private static void increment(int[] src, int srcOffset, int[] dst, int dstOffset, int length) {
+      var i = 0;
+      var limit = length - (length % SPECIES.length());
+      for (; i < limit; i += SPECIES.length()) {
+        IntVector.fromArray(SPECIES, src, srcOffset + i).add(1).intoArray(dst, dstOffset + i);
+      }
+      for (; i < length; i++) {                                  // post loop
+        dst[dstOffset + i] = src[srcOffset + i] + 1;
+      }
+    }
+
+    // the snippets of the user defined monads and dyads, weakly keyed by the monad/dyad,
+    // a snippet is a non strong hidden class that is unloaded once evicted or once its monad/dyad is collected,
+    // the snippet must not reference its key (only op and unary/binary) otherwise the key is never collected,
+    // the least recently used snippet is evicted first
+    private static final int SNIPPET_CACHE_SIZE = 256;
+    private static final ReferenceQueue<Object> SNIPPET_QUEUE = new ReferenceQueue<>();
+    private static final LinkedHashMap<SnippetKey, Template> SNIPPET_CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<SnippetKey, Template> eldest) {
+        return size() > SNIPPET_CACHE_SIZE;
+      }
+    };
+
+    // equal keys (composites are records) share the same snippet, a collected key is only equal to itself
+    private static final class SnippetKey extends WeakReference<Object> {
+      private final int hashCode;
+
+      private SnippetKey(Object key, ReferenceQueue<Object> queue) {
+        super(key, queue);
+        this.hashCode = key.hashCode();
+      }
+
+      @Override
+      public boolean equals(Object o) {
+        if (this == o) {
+          return true;
+        }
+        if (!(o instanceof SnippetKey snippetKey)) {
+          return false;
+        }
+        var key = get();
+        return key != null && key.equals(snippetKey.get());
+      }
+
+      @Override
+      public int hashCode() {
+        return hashCode;
+      }
+    }
+
+    private static Template cachedSnippet(Object key, Supplier<Template> specializer) {
+      synchronized (SNIPPET_CACHE) {
+        var snippet = SNIPPET_CACHE.get(new SnippetKey(key, null));
+        if (snippet != null) {
+          return snippet;
+        }
+      }
+      var snippet = specializer.get();  // specialize outside the lock
+      synchronized (SNIPPET_CACHE) {
+        Reference<?> collected;
+        while((collected = SNIPPET_QUEUE.poll()) != null) {
+          SNIPPET_CACHE.remove(collected);
+        }
+        var existing = SNIPPET_CACHE.putIfAbsent(new SnippetKey(key, SNIPPET_QUEUE), snippet);
+        return existing != null? existing: snippet;
+      }
+    }
+
+    private static Template snippet(VectorMonad monad) {
+      if (monad.snippet != null) {
+        return monad.snippet;
+      }
+      var op = monad.op;
+      var unary = monad.unary;
+      return cachedSnippet(monad, () -> SPECIALIZER.specialize(Template.class, op, unary, null, false));
+    }
+    private static Template snippet(VectorDyad dyad) {
+      if (dyad.snippet != null) {
+        return dyad.snippet;
+      }
+      var zero = dyad.zero;
+      var op = dyad.op;
+      var binary = dyad.binary;
+      return cachedSnippet(dyad, () -> SPECIALIZER.specialize(Template.class, zero, op, binary, false));
+    }
+
+    // equal composites share the same snippet, the snippet references a copy so the key can be collected
+    private static Template snippet(Composite composite) {
+      if (composite instanceof Composite.Bound bound) {
+        return bound.snippet();
+      }
+      var copy = composite.copy();
+      return cachedSnippet(composite, () -> SPECIALIZER.specialize(Template.class, copy, null, null, false));
+    }
+
+    // the snippet is looked up in the cache once per operation instead of once per tile or per chunk
+    @Override
+    Monad bind(Monad monad) {
+      if (monad instanceof VectorMonad vectorMonad && vectorMonad.snippet == null) {
+        return new VectorMonad(vectorMonad.op, vectorMonad.unary, snippet(vectorMonad));
+      }
+      if (monad instanceof Composite composite && !(composite instanceof Composite.Bound)) {
+        return new Composite.Bound(composite, snippet(composite));
+      }
+      return monad;
+    }
+    @Override
+    Dyad bind(Dyad dyad) {
+      if (dyad instanceof VectorDyad vectorDyad && vectorDyad.snippet == null) {
+        return new VectorDyad(vectorDyad.zero, vectorDyad.op, vectorDyad.binary, snippet(vectorDyad));
+      }
+      return dyad;
+    }
+
+    int[] applyUnaryUser(VectorMonad monad, int[] src) { return snippet(monad).applyUnary(src); }
+    void applyUnaryInPlaceUser(VectorMonad monad, int[] data, int offset, int length) { snippet(monad).applyUnaryInPlace(data, offset, length); }
+    int[] applyUnaryComposite(Composite composite, int[] src) { return snippet(composite).applyComposite(src); }
+    void applyUnaryInPlaceComposite(Composite composite, int[] data, int offset, int length) { snippet(composite).applyCompositeInPlace(data, offset, length); }
+    int[] applyBinaryUser(VectorDyad dyad, int[] src1, int[] src2) { return snippet(dyad).applyBinary(src1, src2); }
+    void applyBinaryInPlaceUser(VectorDyad dyad, int[] data1, int offset1, int[] data2, int offset2, int length) { snippet(dyad).applyBinaryInPlace(data1, offset1, data2, offset2, length); }
+    // the lanes are folded out of order, so the operator has to be commutative too
+    private static boolean isReorderable(Binary binary) {
+      return binary instanceof Associative && binary != VectorOperators.FIRST_NONZERO;
+    }
+
+    int foldValueUser(VectorDyad dyad, int[] src) {
+      if (isReorderable(dyad.binary)) {
+        return snippet(dyad).foldValueAssoc(src);
+      }
+      return ClassicBackend.foldValueGeneric(src, dyad.zero, dyad.op);
+    }
+    void foldVectorRowUser(VectorDyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) {
+      if (isReorderable(dyad.binary)) {
+        snippet(dyad).foldVectorRowAssoc(dst, dstOffset, src, srcOffset, rowCount, columnCount);
+        return;
+      }
+      ClassicBackend.foldVectorRowGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, dyad.zero, dyad.op);
+    }
+    void foldVectorColumnUser(VectorDyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) { snippet(dyad).foldVectorColumn(dst, dstOffset, src, srcOffset, rowCount, columnCount); }
+    int[] foldMatrixPlaneUser(VectorDyad dyad, int[] src, int planeCount, int rowCount, int columnCount) { return snippet(dyad).foldMatrixPlane(src, planeCount, rowCount, columnCount); }
+
+    private static Template snippet(Dyad dyad) {
+      if (dyad instanceof VectorDyad vectorDyad) {
+        return snippet(vectorDyad);
+      }
+      return switch((Dyads) dyad) {
+        case ADD -> SNIPPET_ADD;
+        case SUB -> SNIPPET_SUB;
+        case MUL -> SNIPPET_MUL;
+        case DIV -> SNIPPET_DIV;
+        case MAX -> SNIPPET_MAX;
+        case MIN -> SNIPPET_MIN;
+        case AND -> SNIPPET_AND;
+        case AND_NOT -> SNIPPET_AND_NOT;
+        case OR -> SNIPPET_OR;
+        case XOR -> SNIPPET_XOR;
+        case COUNT -> throw new AssertionError();
+      };
+    }
+    void scanVectorRowAssoc(Dyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount, int seed) { snippet(dyad).scanVectorRowAssoc(dst, dstOffset, src, srcOffset, rowCount, columnCount, seed); }
+    void applyOuterLanewise(Dyad dyad, int[] dst, int dstOffset, int[] src1, int src1Offset, int rowCount, int[] src2) { snippet(dyad).applyOuter(dst, dstOffset, src1, src1Offset, rowCount, src2); }
+
+    private static Binary binary(Dyads dyads) {
+      return switch(dyads) {
+        case ADD -> VectorOperators.ADD;
+        case SUB -> VectorOperators.SUB;
+        case MUL -> VectorOperators.MUL;
+        case DIV -> VectorOperators.DIV;
+        case MAX -> VectorOperators.MAX;
+        case MIN -> VectorOperators.MIN;
+        case AND -> VectorOperators.AND;
+        case AND_NOT -> VectorOperators.AND_NOT;
+        case OR -> VectorOperators.OR;
+        case XOR -> VectorOperators.XOR;
+        case COUNT -> throw new AssertionError();
+      };
+    }
+
+    // one snippet per pair of dyads, specialized on first use
+    private static final Template[] INNER_SNIPPETS = new Template[Dyads.values().length * Dyads.values().length];
+
+    private static Template innerSnippet(Dyads fold, Dyads dyad) {
+      var index = fold.ordinal() * Dyads.values().length + dyad.ordinal();
+      synchronized (INNER_SNIPPETS) {
+        var snippet = INNER_SNIPPETS[index];
+        if (snippet == null) {
+          snippet = INNER_SNIPPETS[index] = SPECIALIZER.specialize(Template.class, fold.zero(), binary(fold), binary(dyad), true);
+        }
+        return snippet;
+      }
+    }
+    void applyInnerLanewise(Dyads fold, Dyads dyad, int[] dst, int dstOffset, int[] src1, int src1Offset, int rowCount, int[] src2, int innerCount, int columnCount) {
+      innerSnippet(fold, dyad).applyInner(dst, dstOffset, src1, src1Offset, rowCount, src2, innerCount, columnCount);
+    }
+
+    // the lanes of 8 vectors are sorted by a sorting network (Batcher, 19 compare-exchanges),
+    // then each lane is written as a sorted run of 8 values
+    private static void sortBlock(long[] data, int offset, long[] buffer) {
+      var lanes = LONG_SPECIES.length();
+      var v0 = LongVector.fromArray(LONG_SPECIES, data, offset + 0 * lanes);
+      var v1 = LongVector.fromArray(LONG_SPECIES, data, offset + 1 * lanes);
+      var v2 = LongVector.fromArray(LONG_SPECIES, data, offset + 2 * lanes);
+      var v3 = LongVector.fromArray(LONG_SPECIES, data, offset + 3 * lanes);
+      var v4 = LongVector.fromArray(LONG_SPECIES, data, offset + 4 * lanes);
+      var v5 = LongVector.fromArray(LONG_SPECIES, data, offset + 5 * lanes);
+      var v6 = LongVector.fromArray(LONG_SPECIES, data, offset + 6 * lanes);
+      var v7 = LongVector.fromArray(LONG_SPECIES, data, offset + 7 * lanes);
+      var min0 = v0.min(v1); v1 = v0.max(v1); v0 = min0;
+      var min1 = v2.min(v3); v3 = v2.max(v3); v2 = min1;
+      var min2 = v4.min(v5); v5 = v4.max(v5); v4 = min2;
+      var min3 = v6.min(v7); v7 = v6.max(v7); v6 = min3;
+      var min4 = v0.min(v2); v2 = v0.max(v2); v0 = min4;
+      var min5 = v1.min(v3); v3 = v1.max(v3); v1 = min5;
+      var min6 = v4.min(v6); v6 = v4.max(v6); v4 = min6;
+      var min7 = v5.min(v7); v7 = v5.max(v7); v5 = min7;
+      var min8 = v1.min(v2); v2 = v1.max(v2); v1 = min8;
+      var min9 = v5.min(v6); v6 = v5.max(v6); v5 = min9;
+      var min10 = v0.min(v4); v4 = v0.max(v4); v0 = min10;
+      var min11 = v1.min(v5); v5 = v1.max(v5); v1 = min11;
+      var min12 = v2.min(v6); v6 = v2.max(v6); v2 = min12;
+      var min13 = v3.min(v7); v7 = v3.max(v7); v3 = min13;
+      var min14 = v2.min(v4); v4 = v2.max(v4); v2 = min14;
+      var min15 = v3.min(v5); v5 = v3.max(v5); v3 = min15;
+      var min16 = v1.min(v2); v2 = v1.max(v2); v1 = min16;
+      var min17 = v3.min(v4); v4 = v3.max(v4); v3 = min17;
+      var min18 = v5.min(v6); v6 = v5.max(v6); v5 = min18;
+      v0.intoArray(buffer, 0 * lanes);
+      v1.intoArray(buffer, 1 * lanes);
+      v2.intoArray(buffer, 2 * lanes);
+      v3.intoArray(buffer, 3 * lanes);
+      v4.intoArray(buffer, 4 * lanes);
+      v5.intoArray(buffer, 5 * lanes);
+      v6.intoArray(buffer, 6 * lanes);
+      v7.intoArray(buffer, 7 * lanes);
+      for(var lane = 0; lane < lanes; lane++) {
+        for(var r = 0; r < 8; r++) {
+          data[offset + lane * 8 + r] = buffer[r * lanes + lane];
+        }
+      }
+    }
+
+    // a row is sorted by blocks of 8 x lanes values then the sorted runs of 8 values are merged
+    void sortRows(long[] data, int offset, int rowCount, int columnCount) {
+      var block = 8 * LONG_SPECIES.length();
+      var buffer = new long[Math.max(block, columnCount)];
+      for(var row = 0; row < rowCount; row++) {
+        var rowOffset = offset + row * columnCount;
+        var i = 0;
+        for(; i + block <= columnCount; i += block) {
+          sortBlock(data, rowOffset + i, buffer);
+        }
+        for(; i < columnCount; i += 8) {                          // runs of 8 after the last block
+          Arrays.sort(data, rowOffset + i, rowOffset + Math.min(columnCount, i + 8));
+        }
+        mergeRuns(data, rowOffset, columnCount, 8, buffer);
+      }
+    }
+
+    // a 4 x 4 block is transposed in registers by swapping its off diagonal 1 x 1 blocks then its off diagonal 2 x 2 blocks,
+    // 128 bits is supported by all the vector hardware, the blocks are visited by tiles like the classic backend
+    private static final VectorSpecies<Integer> BLOCK_SPECIES = IntVector.SPECIES_128;
+    private static final VectorShuffle<Integer> RIGHT_1 = VectorShuffle.fromValues(BLOCK_SPECIES, 0, 0, 2, 2);
+    private static final VectorShuffle<Integer> LEFT_1 = VectorShuffle.fromValues(BLOCK_SPECIES, 1, 1, 3, 3);
+    private static final VectorMask<Integer> ODD_1 = VectorMask.fromValues(BLOCK_SPECIES, false, true, false, true);
+    private static final VectorShuffle<Integer> RIGHT_2 = VectorShuffle.fromValues(BLOCK_SPECIES, 0, 1, 0, 1);
+    private static final VectorShuffle<Integer> LEFT_2 = VectorShuffle.fromValues(BLOCK_SPECIES, 2, 3, 2, 3);
+    private static final VectorMask<Integer> ODD_2 = VectorMask.fromValues(BLOCK_SPECIES, false, false, true, true);
+    private static final int TRANSPOSE_TILE = 64;
+
+    void transposeMatrix(int[] dst, int dstOffset, int dstStride, int[] src, int srcOffset, int srcStride, int rowCount, int columnCount) {
+      for(var ii = 0; ii < rowCount; ii += TRANSPOSE_TILE) {
+        var iEnd = Math.min(rowCount, ii + TRANSPOSE_TILE);
+        for(var jj = 0; jj < columnCount; jj += TRANSPOSE_TILE) {
+          var jEnd = Math.min(columnCount, jj + TRANSPOSE_TILE);
+          for(var i = ii; i < iEnd; i += 4) {
+            for(var j = jj; j < jEnd; j += 4) {
+              if (i + 4 > iEnd || j + 4 > jEnd) {                   // partial block
+                for(var i2 = i; i2 < Math.min(i + 4, iEnd); i2++) {
+                  for(var j2 = j; j2 < Math.min(j + 4, jEnd); j2++) {
+                    dst[dstOffset + j2 * dstStride + i2] = src[srcOffset + i2 * srcStride + j2];
+                  }
+                }
+                continue;
+              }
+              var index = srcOffset + i * srcStride + j;
+              var r0 = IntVector.fromArray(BLOCK_SPECIES, src, index);
+              var r1 = IntVector.fromArray(BLOCK_SPECIES, src, index + srcStride);
+              var r2 = IntVector.fromArray(BLOCK_SPECIES, src, index + 2 * srcStride);
+              var r3 = IntVector.fromArray(BLOCK_SPECIES, src, index + 3 * srcStride);
+              var s0 = r0.blend(r1.rearrange(RIGHT_1), ODD_1);
+              var s1 = r0.rearrange(LEFT_1).blend(r1, ODD_1);
+              var s2 = r2.blend(r3.rearrange(RIGHT_1), ODD_1);
+              var s3 = r2.rearrange(LEFT_1).blend(r3, ODD_1);
+              var out = dstOffset + j * dstStride + i;
+              s0.blend(s2.rearrange(RIGHT_2), ODD_2).intoArray(dst, out);
+              s1.blend(s3.rearrange(RIGHT_2), ODD_2).intoArray(dst, out + dstStride);
+              s0.rearrange(LEFT_2).blend(s2, ODD_2).intoArray(dst, out + 2 * dstStride);
+              s1.rearrange(LEFT_2).blend(s3, ODD_2).intoArray(dst, out + 3 * dstStride);
+            }
+          }
+        }
+      }
+    }
+
+    // a tile of src2 (INNER_TILE x COLUMN_TILE) stays in the cache while all the rows of src1 are multiplied with it,
+    // 4 rows x 2 vectors of dst are accumulated in registers
+    private static final int INNER_TILE = 128;
+    private static final int COLUMN_TILE = 512;
+
+    void multiply(int[] dst, int dstOffset, int[] src1, int src1Offset, int rowCount, int[] src2, int innerCount, int columnCount) {
+      var lanes = SPECIES.length();
+      Arrays.fill(dst, dstOffset, dstOffset + rowCount * columnCount, 0);
+      for(var jj = 0; jj < columnCount; jj += COLUMN_TILE) {
+        var jEnd = Math.min(columnCount, jj + COLUMN_TILE);
+        var jLimit = jj + (jEnd - jj) - ((jEnd - jj) % (2 * lanes));
+        for(var kk = 0; kk < innerCount; kk += INNER_TILE) {
+          var kEnd = Math.min(innerCount, kk + INNER_TILE);
+          var i = 0;
+          for(; i + 4 <= rowCount; i += 4) {
+            var a0 = src1Offset + i * innerCount;
+            var a1 = a0 + innerCount;
+            var a2 = a1 + innerCount;
+            var a3 = a2 + innerCount;
+            var d0 = dstOffset + i * columnCount;
+            var d1 = d0 + columnCount;
+            var d2 = d1 + columnCount;
+            var d3 = d2 + columnCount;
+            var j = jj;
+            for(; j < jLimit; j += 2 * lanes) {
+              var c00 = IntVector.fromArray(SPECIES, dst, d0 + j);
+              var c01 = IntVector.fromArray(SPECIES, dst, d0 + j + lanes);
+              var c10 = IntVector.fromArray(SPECIES, dst, d1 + j);
+              var c11 = IntVector.fromArray(SPECIES, dst, d1 + j + lanes);
+              var c20 = IntVector.fromArray(SPECIES, dst, d2 + j);
+              var c21 = IntVector.fromArray(SPECIES, dst, d2 + j + lanes);
+              var c30 = IntVector.fromArray(SPECIES, dst, d3 + j);
+              var c31 = IntVector.fromArray(SPECIES, dst, d3 + j + lanes);
+              for(var k = kk; k < kEnd; k++) {
+                var b0 = IntVector.fromArray(SPECIES, src2, k * columnCount + j);
+                var b1 = IntVector.fromArray(SPECIES, src2, k * columnCount + j + lanes);
+                var v0 = IntVector.broadcast(SPECIES, src1[a0 + k]);
+                var v1 = IntVector.broadcast(SPECIES, src1[a1 + k]);
+                var v2 = IntVector.broadcast(SPECIES, src1[a2 + k]);
+                var v3 = IntVector.broadcast(SPECIES, src1[a3 + k]);
+                c00 = c00.add(b0.mul(v0));
+                c01 = c01.add(b1.mul(v0));
+                c10 = c10.add(b0.mul(v1));
+                c11 = c11.add(b1.mul(v1));
+                c20 = c20.add(b0.mul(v2));
+                c21 = c21.add(b1.mul(v2));
+                c30 = c30.add(b0.mul(v3));
+                c31 = c31.add(b1.mul(v3));
+              }
+              c00.intoArray(dst, d0 + j);
+              c01.intoArray(dst, d0 + j + lanes);
+              c10.intoArray(dst, d1 + j);
+              c11.intoArray(dst, d1 + j + lanes);
+              c20.intoArray(dst, d2 + j);
+              c21.intoArray(dst, d2 + j + lanes);
+              c30.intoArray(dst, d3 + j);
+              c31.intoArray(dst, d3 + j + lanes);
+            }
+            for(; j < jEnd; j++) {                                  // post loop
+              var c0 = dst[d0 + j];
+              var c1 = dst[d1 + j];
+              var c2 = dst[d2 + j];
+              var c3 = dst[d3 + j];
+              for(var k = kk; k < kEnd; k++) {
+                var b = src2[k * columnCount + j];
+                c0 += src1[a0 + k] * b;
+                c1 += src1[a1 + k] * b;
+                c2 += src1[a2 + k] * b;
+                c3 += src1[a3 + k] * b;
+              }
+              dst[d0 + j] = c0;
+              dst[d1 + j] = c1;
+              dst[d2 + j] = c2;
+              dst[d3 + j] = c3;
+            }
+          }
+          for(; i < rowCount; i++) {                                // remaining rows, one at a time
+            var a = src1Offset + i * innerCount;
+            var d = dstOffset + i * columnCount;
+            var j = jj;
+            var limit = jj + (jEnd - jj) - ((jEnd - jj) % lanes);
+            for(; j < limit; j += lanes) {
+              var c = IntVector.fromArray(SPECIES, dst, d + j);
+              for(var k = kk; k < kEnd; k++) {
+                c = c.add(IntVector.fromArray(SPECIES, src2, k * columnCount + j).mul(IntVector.broadcast(SPECIES, src1[a + k])));
+              }
+              c.intoArray(dst, d + j);
+            }
+            for(; j < jEnd; j++) {                                  // post loop
+              var c = dst[d + j];
+              for(var k = kk; k < kEnd; k++) {
+                c += src1[a + k] * src2[k * columnCount + j];
+              }
+              dst[d + j] = c;
+            }
+          }
+        }
+      }
+    }
+    void scanVectorColumnLanewise(Dyad dyad, int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount, int[] seed, int seedOffset) { snippet(dyad).scanVectorColumn(dst, dstOffset, src, srcOffset, rowCount, columnCount, seed, seedOffset); }
+
+    void applyUnary(Monads monads, MemorySegment src, MemorySegment dst) {
+      var snippet = switch(monads) {
+        case ZOMO -> SNIPPET_ZOMO;
+        case NEG -> SNIPPET_NEG;
+        case ABS -> SNIPPET_ABS;
+        case NOT -> SNIPPET_NOT;
+      };
+      snippet.applyUnary(src, dst);
+    }
+    void applyBinary(Dyads dyads, MemorySegment src1, MemorySegment src2, MemorySegment dst) {
+      var snippet = switch(dyads) {
+        case ADD -> SNIPPET_ADD;
+        case SUB -> SNIPPET_SUB;
+        case MUL -> SNIPPET_MUL;
+        case DIV -> SNIPPET_DIV;
+        case MAX -> SNIPPET_MAX;
+        case MIN -> SNIPPET_MIN;
+        case AND -> SNIPPET_AND;
+        case AND_NOT -> SNIPPET_AND_NOT;
+        case OR -> SNIPPET_OR;
+        case XOR -> SNIPPET_XOR;
+        case COUNT -> null;
+      };
+      if (snippet == null) {
+        ClassicBackend.applyBinaryGeneric(src1, src2, dst, (a, b) -> a + 1);
+        return;
+      }
+      snippet.applyBinary(src1, src2, dst);
+    }
+
+    // null if the dyad has no snippet
+    private static Template segmentSnippet(Dyad dyad) {
+      if (dyad instanceof Dyads || dyad instanceof VectorDyad) {
+        return snippet(dyad);
+      }
+      return null;
+    }
+    int foldValue(Dyad dyad, MemorySegment src) {
+      var length = (int) (src.byteSize() / Integer.BYTES);
+      if (dyad instanceof VectorDyad vectorDyad && isReorderable(vectorDyad.binary)) {
+        var dst = new int[1];
+        snippet(vectorDyad).foldVectorRowAssoc(dst, 0, src, 0, 1, length);
+        return dst[0];
+      }
+      if (dyad instanceof Dyads) {
+        return snippet(dyad).foldValueBinary(src);
+      }
+      var acc = dyad.zero();
+      for(var i = 0; i < length; i++) {
+        acc = dyad.applyAsInt(acc, src.getAtIndex(Store.Segment.LAYOUT, i));
+      }
+      return acc;
+    }
+    void foldVectorColumn(Dyad dyad, int[] dst, int dstOffset, MemorySegment src, int srcOffset, int rowCount, int columnCount) {
+      var snippet = segmentSnippet(dyad);
+      if (snippet == null) {
+        ClassicBackend.foldVectorColumnGeneric(dst, dstOffset, src, srcOffset, rowCount, columnCount, dyad.zero(), dyad);
+        return;
+      }
+      snippet.foldVectorColumn(dst, dstOffset, src, srcOffset, rowCount, columnCount);
+    }
+    int[] foldMatrixPlane(Dyad dyad, MemorySegment src, int planeCount, int rowCount, int columnCount) {
+      var snippet = segmentSnippet(dyad);
+      if (snippet == null) {
+        var dst = new int[rowCount * columnCount];
+        ClassicBackend.foldVectorColumnGeneric(dst, 0, src, 0, planeCount, rowCount * columnCount, dyad.zero(), dyad);
+        return dst;
+      }
+      return snippet.foldMatrixPlane(src, planeCount, rowCount, columnCount);
+    }
 
+    void foldVectorRowAssoc(Dyads dyads, int[] dst, int dstOffset, Store src, int srcOffset, int rowCount, int columnCount) {
+      var snippet = switch(dyads) {
+        case ADD -> row(SNIPPET_ADD, SNIPPET_ADD_SHORT, columnCount);
+        case MUL -> row(SNIPPET_MUL, SNIPPET_MUL_SHORT, columnCount);
+        case MAX -> row(SNIPPET_MAX, SNIPPET_MAX_SHORT, columnCount);
+        case MIN -> row(SNIPPET_MIN, SNIPPET_MIN_SHORT, columnCount);
+        case AND -> row(SNIPPET_AND, SNIPPET_AND_SHORT, columnCount);
+        case OR -> row(SNIPPET_OR, SNIPPET_OR_SHORT, columnCount);
+        case XOR -> row(SNIPPET_XOR, SNIPPET_XOR_SHORT, columnCount);
+        case SUB, DIV, AND_NOT, COUNT -> throw new AssertionError();
+      };
+      if (src instanceof Store.ByteArray byteArray) {
+        snippet.foldVectorRowAssoc(dst, dstOffset, byteArray.array(), srcOffset, rowCount, columnCount);
+        return;
+      }
+      if (src instanceof Store.ShortArray shortArray) {
+        snippet.foldVectorRowAssoc(dst, dstOffset, shortArray.array(), srcOffset, rowCount, columnCount);
+        return;
+      }
+      if (src instanceof Store.Segment segment) {
+        snippet.foldVectorRowAssoc(dst, dstOffset, segment.segment(), srcOffset, rowCount, columnCount);
+        return;
+      }
+      snippet.foldVectorRowAssoc(dst, dstOffset, src.toArray(), srcOffset, rowCount, columnCount);
+    }
 
-    private record ClassData(Object hole1, Object hole2, Object hole3) {}
+    private static final int PLANE_BLOCK = 2048;  // ints
 
     private abstract static class Template {
       /*package private*/ Template() {
@@ -862,17 +4149,47 @@ public final class Cell {
       abstract int foldValueBinary(int[] src);
       abstract void foldVectorRowAssoc(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount);
       abstract void foldVectorRowBinary(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount);
+      abstract void foldVectorColumn(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount);
+      abstract int[] foldMatrixPlane(int[] src, int planeCount, int rowCount, int columnCount);
+      abstract void foldVectorRowAssoc(int[] dst, int dstOffset, short[] src, int srcOffset, int rowCount, int columnCount);
+      abstract void foldVectorRowAssoc(int[] dst, int dstOffset, byte[] src, int srcOffset, int rowCount, int columnCount);
+      abstract void applyUnaryInPlace(int[] data, int offset, int length);
+      abstract int[] applyComposite(int[] src);
+      abstract void applyCompositeInPlace(int[] data, int offset, int length);
+      abstract void applyBinaryInPlace(int[] data1, int offset1, int[] data2, int offset2, int length);
+      abstract void applyUnary(MemorySegment src, MemorySegment dst);
+      abstract void applyBinary(MemorySegment src1, MemorySegment src2, MemorySegment dst);
+      abstract void foldVectorRowAssoc(int[] dst, int dstOffset, MemorySegment src, int srcOffset, int rowCount, int columnCount);
+      abstract int foldValueBinary(MemorySegment src);
+      abstract void foldVectorColumn(int[] dst, int dstOffset, MemorySegment src, int srcOffset, int rowCount, int columnCount);
+      abstract int[] foldMatrixPlane(MemorySegment src, int planeCount, int rowCount, int columnCount);
+      abstract void scanVectorRowAssoc(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount, int seed);
+      abstract void applyOuter(int[] dst, int dstOffset, int[] src1, int src1Offset, int rowCount, int[] src2);
+      abstract void applyInner(int[] dst, int dstOffset, int[] src1, int src1Offset, int rowCount, int[] src2, int innerCount, int columnCount);
+      abstract void scanVectorColumn(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount, int[] seed, int seedOffset);
     }
 
     public static final class Snippet extends Template {
       private static final Object HOLE1, HOLE2, HOLE3;
+      // hide the species of VectorizedBackend
+      private static final VectorSpecies<Integer> SPECIES;
+      private static final VectorSpecies<Short> SHORT_SPECIES;
+      private static final VectorSpecies<Byte> BYTE_SPECIES;
+      private static final boolean MASKED_TAIL;
+      private static final int UNROLL;
       static {
         var lookup = MethodHandles.lookup();
         try {
-          var classData = MethodHandles.classData(lookup, "_", ClassData.class);
-          HOLE1 = classData.hole1;
-          HOLE2 = classData.hole2;
-          HOLE3 = classData.hole3;
+          var classData = MethodHandles.classData(lookup, "_", Specializer.ClassData.class);
+          HOLE1 = classData.hole1();
+          HOLE2 = classData.hole2();
+          HOLE3 = classData.hole3();
+          var tuning = classData.hole4() == null? Tuning.DEFAULT: (Tuning) classData.hole4();
+          SPECIES = tuning.species();
+          SHORT_SPECIES = VectorSpecies.of(short.class, SPECIES.vectorShape());
+          BYTE_SPECIES = VectorSpecies.of(byte.class, SPECIES.vectorShape());
+          MASKED_TAIL = tuning.maskedTail();
+          UNROLL = tuning.unroll();
         } catch (IllegalAccessException e) {
           throw new AssertionError(e);
         }
@@ -892,6 +4209,13 @@ public final class Cell {
           var vr = v.lanewise(unary);                              // apply lanewise
           vr.intoArray(data, i);
         }
+        if (MASKED_TAIL) {
+          if (i < src.length) {                                    // masked tail
+            var mask = SPECIES.indexInRange(i, src.length);
+            IntVector.fromArray(SPECIES, src, i, mask).lanewise(unary, mask).intoArray(data, i, mask);
+          }
+          return data;
+        }
         for (; i < src.length; i++) {                              // post loop
           data[i] = op.applyAsInt(src[i]);
         }
@@ -913,6 +4237,15 @@ public final class Cell {
           var vr = v1.lanewise(binary, v2);                       // apply lanewise
           vr.intoArray(data, i);
         }
+        if (MASKED_TAIL) {
+          if (i < src1.length) {                                  // masked tail
+            var mask = SPECIES.indexInRange(i, src1.length);
+            var v1 = IntVector.fromArray(SPECIES, src1, i, mask);
+            var v2 = IntVector.fromArray(SPECIES, src2, i, mask);
+            v1.lanewise(binary, v2, mask).intoArray(data, i, mask);
+          }
+          return data;
+        }
         for (; i < src1.length; i++) {                            // post loop
           data[i] = op.applyAsInt(src1[i], src2[i]);
         }
@@ -927,12 +4260,53 @@ public final class Cell {
 
         // main
         var acc = IntVector.broadcast(SPECIES, zero);
+        var acc2 = acc;
+        var acc3 = acc;
+        var acc4 = acc;
+        var acc5 = acc;
+        var acc6 = acc;
+        var acc7 = acc;
+        var acc8 = acc;
         var i = 0;
+        var step = UNROLL * SPECIES.length();
+        var unrolledLimit = src.length - (src.length % step);
+        for (; i < unrolledLimit; i += step) {                    // reduce lanewise, UNROLL independent chains
+          acc = acc.lanewise(assoc, IntVector.fromArray(SPECIES, src, i));
+          if (UNROLL >= 2) {
+            acc2 = acc2.lanewise(assoc, IntVector.fromArray(SPECIES, src, i + SPECIES.length()));
+          }
+          if (UNROLL >= 4) {
+            acc3 = acc3.lanewise(assoc, IntVector.fromArray(SPECIES, src, i + 2 * SPECIES.length()));
+            acc4 = acc4.lanewise(assoc, IntVector.fromArray(SPECIES, src, i + 3 * SPECIES.length()));
+          }
+          if (UNROLL >= 8) {
+            acc5 = acc5.lanewise(assoc, IntVector.fromArray(SPECIES, src, i + 4 * SPECIES.length()));
+            acc6 = acc6.lanewise(assoc, IntVector.fromArray(SPECIES, src, i + 5 * SPECIES.length()));
+            acc7 = acc7.lanewise(assoc, IntVector.fromArray(SPECIES, src, i + 6 * SPECIES.length()));
+            acc8 = acc8.lanewise(assoc, IntVector.fromArray(SPECIES, src, i + 7 * SPECIES.length()));
+          }
+        }
+        if (UNROLL >= 8) {                                        // combine the accumulators
+          acc = acc.lanewise(assoc, acc5).lanewise(assoc, acc6.lanewise(assoc, acc7).lanewise(assoc, acc8));
+        }
+        if (UNROLL >= 4) {
+          acc = acc.lanewise(assoc, acc3).lanewise(assoc, acc4);
+        }
+        if (UNROLL >= 2) {
+          acc = acc.lanewise(assoc, acc2);
+        }
         var limit = src.length - (src.length % SPECIES.length());
         for (; i < limit; i += SPECIES.length()) {                // reduce lanewise
           var vector = IntVector.fromArray(SPECIES, src, i);
           acc = acc.lanewise(assoc, vector) ;
         }
+        if (MASKED_TAIL) {
+          if (i < src.length) {                                   // masked tail
+            var mask = SPECIES.indexInRange(i, src.length);
+            acc = acc.lanewise(assoc, IntVector.fromArray(SPECIES, src, i, mask), mask);
+          }
+          return acc.reduceLanes(assoc);
+        }
         var result = acc.reduceLanes(assoc);                      // reduce the lane
         for (; i < src.length; i++) {                             // post loop
           result = op.applyAsInt(result, src[i]);
@@ -972,14 +4346,55 @@ public final class Cell {
 
         // main
         var index = srcOffset;
+        var step = UNROLL * SPECIES.length();
+        var unrolledLimit = columnCount - (columnCount % step);
         for(var j = 0; j < rowCount; j++) {
           var acc = IntVector.broadcast(SPECIES, zero);
           var i = 0;
+          if (UNROLL >= 2 && unrolledLimit != 0) {              // long rows, UNROLL independent chains
+            var acc2 = acc;
+            var acc3 = acc;
+            var acc4 = acc;
+            var acc5 = acc;
+            var acc6 = acc;
+            var acc7 = acc;
+            var acc8 = acc;
+            for(; i < unrolledLimit; i += step) {
+              acc = acc.lanewise(assoc, IntVector.fromArray(SPECIES, src, index + i));
+              acc2 = acc2.lanewise(assoc, IntVector.fromArray(SPECIES, src, index + i + SPECIES.length()));
+              if (UNROLL >= 4) {
+                acc3 = acc3.lanewise(assoc, IntVector.fromArray(SPECIES, src, index + i + 2 * SPECIES.length()));
+                acc4 = acc4.lanewise(assoc, IntVector.fromArray(SPECIES, src, index + i + 3 * SPECIES.length()));
+              }
+              if (UNROLL >= 8) {
+                acc5 = acc5.lanewise(assoc, IntVector.fromArray(SPECIES, src, index + i + 4 * SPECIES.length()));
+                acc6 = acc6.lanewise(assoc, IntVector.fromArray(SPECIES, src, index + i + 5 * SPECIES.length()));
+                acc7 = acc7.lanewise(assoc, IntVector.fromArray(SPECIES, src, index + i + 6 * SPECIES.length()));
+                acc8 = acc8.lanewise(assoc, IntVector.fromArray(SPECIES, src, index + i + 7 * SPECIES.length()));
+              }
+            }
+            if (UNROLL >= 8) {                                  // combine the accumulators
+              acc = acc.lanewise(assoc, acc5).lanewise(assoc, acc6.lanewise(assoc, acc7).lanewise(assoc, acc8));
+            }
+            if (UNROLL >= 4) {
+              acc = acc.lanewise(assoc, acc3).lanewise(assoc, acc4);
+            }
+            acc = acc.lanewise(assoc, acc2);
+          }
           var limit = columnCount - (columnCount % SPECIES.length());
           for(; i < limit; i += SPECIES.length()) {             // reduce lane wise
             var vector = IntVector.fromArray(SPECIES, src, index + i);
             acc = acc.lanewise(assoc, vector) ;
           }
+          if (MASKED_TAIL) {
+            if (i < columnCount) {                              // masked tail
+              var mask = SPECIES.indexInRange(i, columnCount);
+              acc = acc.lanewise(assoc, IntVector.fromArray(SPECIES, src, index + i, mask), mask);
+            }
+            dst[dstOffset + j] = acc.reduceLanes(assoc);
+            index += columnCount;
+            continue;
+          }
           var result = acc.reduceLanes(assoc);                  // reduce the lane
           for (; i < columnCount; i++) {                        // post loop
             result = op.applyAsInt(result, src[index + i]);
@@ -1016,6 +4431,434 @@ public final class Cell {
           index += columnCount;
         }
       }
+
+      void foldVectorColumn(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount) {
+        // prologue
+        var zero = (int) HOLE1;
+        var op = (IntBinaryOperator) HOLE2;
+        var binary = (Binary) HOLE3;
+
+        // main, sweep the rows with dst as accumulator, so each lane is folded in the same order as the scalar fold
+        Arrays.fill(dst, dstOffset, dstOffset + columnCount, zero);
+        var limit = columnCount - (columnCount % SPECIES.length());
+        var index = srcOffset;
+        for(var j = 0; j < rowCount; j++) {
+          var i = 0;
+          for(; i < limit; i += SPECIES.length()) {              // fold lane wise
+            var acc = IntVector.fromArray(SPECIES, dst, dstOffset + i);
+            var vector = IntVector.fromArray(SPECIES, src, index + i);
+            acc.lanewise(binary, vector).intoArray(dst, dstOffset + i);
+          }
+          for (; i < columnCount; i++) {                        // post loop
+            dst[dstOffset + i] = op.applyAsInt(dst[dstOffset + i], src[index + i]);
+          }
+          index += columnCount;
+        }
+      }
+
+      int[] foldMatrixPlane(int[] src, int planeCount, int rowCount, int columnCount) {
+        // prologue
+        var zero = (int) HOLE1;
+        var op = (IntBinaryOperator) HOLE2;
+        var binary = (Binary) HOLE3;
+
+        // main, fold all the planes block by block so the accumulators of a block stay in L1
+        var matrixSize = rowCount * columnCount;
+        var dst = new int[matrixSize];
+        for(var blockStart = 0; blockStart < matrixSize; blockStart += PLANE_BLOCK) {
+          var blockEnd = Math.min(blockStart + PLANE_BLOCK, matrixSize);
+          var limit = blockEnd - ((blockEnd - blockStart) % SPECIES.length());
+          Arrays.fill(dst, blockStart, blockEnd, zero);
+          for(var k = 0; k < planeCount; k++) {
+            var planeOffset = k * matrixSize;
+            var i = blockStart;
+            for(; i < limit; i += SPECIES.length()) {              // fold lane wise
+              var acc = IntVector.fromArray(SPECIES, dst, i);
+              var vector = IntVector.fromArray(SPECIES, src, planeOffset + i);
+              acc.lanewise(binary, vector).intoArray(dst, i);
+            }
+            for (; i < blockEnd; i++) {                            // post loop
+              dst[i] = op.applyAsInt(dst[i], src[planeOffset + i]);
+            }
+          }
+        }
+        return dst;
+      }
+
+      void foldVectorRowAssoc(int[] dst, int dstOffset, short[] src, int srcOffset, int rowCount, int columnCount) {
+        // prologue
+        var zero = (int) HOLE1;
+        var op = (IntBinaryOperator) HOLE2;
+        var assoc = (Associative) HOLE3;
+
+        // main
+        var parts = SHORT_SPECIES.length() / SPECIES.length();
+        var index = srcOffset;
+        for(var j = 0; j < rowCount; j++) {
+          var acc = IntVector.broadcast(SPECIES, zero);
+          var i = 0;
+          var limit = columnCount - (columnCount % SHORT_SPECIES.length());
+          for(; i < limit; i += SHORT_SPECIES.length()) {          // reduce lane wise
+            var vector = ShortVector.fromArray(SHORT_SPECIES, src, index + i);
+            for(var part = 0; part < parts; part++) {         // widen in register
+              var widened = (IntVector) vector.convertShape(VectorOperators.S2I, SPECIES, part);
+              acc = acc.lanewise(assoc, widened);
+            }
+          }
+          var result = acc.reduceLanes(assoc);                  // reduce the lane
+          for (; i < columnCount; i++) {                        // post loop
+            result = op.applyAsInt(result, src[index + i]);
+          }
+          dst[dstOffset + j] = result;
+          index += columnCount;
+        }
+      }
+
+      void foldVectorRowAssoc(int[] dst, int dstOffset, byte[] src, int srcOffset, int rowCount, int columnCount) {
+        // prologue
+        var zero = (int) HOLE1;
+        var op = (IntBinaryOperator) HOLE2;
+        var assoc = (Associative) HOLE3;
+
+        // main
+        var parts = BYTE_SPECIES.length() / SPECIES.length();
+        var index = srcOffset;
+        for(var j = 0; j < rowCount; j++) {
+          var acc = IntVector.broadcast(SPECIES, zero);
+          var i = 0;
+          var limit = columnCount - (columnCount % BYTE_SPECIES.length());
+          for(; i < limit; i += BYTE_SPECIES.length()) {          // reduce lane wise
+            var vector = ByteVector.fromArray(BYTE_SPECIES, src, index + i);
+            for(var part = 0; part < parts; part++) {         // widen in register
+              var widened = (IntVector) vector.convertShape(VectorOperators.B2I, SPECIES, part);
+              acc = acc.lanewise(assoc, widened);
+            }
+          }
+          var result = acc.reduceLanes(assoc);                  // reduce the lane
+          for (; i < columnCount; i++) {                        // post loop
+            result = op.applyAsInt(result, src[index + i]);
+          }
+          dst[dstOffset + j] = result;
+          index += columnCount;
+        }
+      }
+
+      void applyUnaryInPlace(int[] data, int offset, int length) {
+        // prologue
+        var op = (IntUnaryOperator) HOLE1;
+        var unary = (Unary) HOLE2;
+
+        // main
+        var i = 0;
+        var limit = length - (length % SPECIES.length());
+        for (; i < limit; i += SPECIES.length()) {
+          var v = IntVector.fromArray(SPECIES, data, offset + i);
+          var vr = v.lanewise(unary);                              // apply lanewise
+          vr.intoArray(data, offset + i);
+        }
+        for (; i < length; i++) {                                  // post loop
+          data[offset + i] = op.applyAsInt(data[offset + i]);
+        }
+      }
+
+      int[] applyComposite(int[] src) {
+        // prologue
+        var composite = (Composite) HOLE1;
+
+        // main
+        var dst = new int[src.length];
+        var i = 0;
+        var limit = src.length - (src.length % SPECIES.length());
+        for (; i < limit; i += SPECIES.length()) {
+          var v = IntVector.fromArray(SPECIES, src, i);
+          composite.vector(v).intoArray(dst, i);                  // the whole tree lane wise
+        }
+        for (; i < src.length; i++) {                              // post loop
+          dst[i] = composite.applyAsInt(src[i]);
+        }
+        return dst;
+      }
+
+      void applyCompositeInPlace(int[] data, int offset, int length) {
+        // prologue
+        var composite = (Composite) HOLE1;
+
+        // main
+        var i = 0;
+        var limit = length - (length % SPECIES.length());
+        for (; i < limit; i += SPECIES.length()) {
+          var v = IntVector.fromArray(SPECIES, data, offset + i);
+          composite.vector(v).intoArray(data, offset + i);        // the whole tree lane wise
+        }
+        for (; i < length; i++) {                                  // post loop
+          data[offset + i] = composite.applyAsInt(data[offset + i]);
+        }
+      }
+
+      void applyBinaryInPlace(int[] data1, int offset1, int[] data2, int offset2, int length) {
+        // prologue
+        var op = (IntBinaryOperator) HOLE2;
+        var binary = (Binary) HOLE3;
+
+        // main
+        var i = 0;
+        var limit = length - (length % SPECIES.length());
+        for (; i < limit; i += SPECIES.length()) {
+          var v1 = IntVector.fromArray(SPECIES, data1, offset1 + i);
+          var v2 = IntVector.fromArray(SPECIES, data2, offset2 + i);
+          var vr = v1.lanewise(binary, v2);                       // apply lanewise
+          vr.intoArray(data1, offset1 + i);
+        }
+        for (; i < length; i++) {                                 // post loop
+          data1[offset1 + i] = op.applyAsInt(data1[offset1 + i], data2[offset2 + i]);
+        }
+      }
+
+      void applyUnary(MemorySegment src, MemorySegment dst) {
+        // prologue
+        var op = (IntUnaryOperator) HOLE1;
+        var unary = (Unary) HOLE2;
+
+        // main
+        var length = (int) (src.byteSize() / Integer.BYTES);
+        var i = 0;
+        var limit = length - (length % SPECIES.length());
+        for (; i < limit; i += SPECIES.length()) {
+          var offset = (long) i * Integer.BYTES;
+          var v = IntVector.fromMemorySegment(SPECIES, src, offset, ByteOrder.LITTLE_ENDIAN);
+          var vr = v.lanewise(unary);                              // apply lanewise
+          vr.intoMemorySegment(dst, offset, ByteOrder.LITTLE_ENDIAN);
+        }
+        for (; i < length; i++) {                                  // post loop
+          dst.setAtIndex(Store.Segment.LAYOUT, i, op.applyAsInt(src.getAtIndex(Store.Segment.LAYOUT, i)));
+        }
+      }
+
+      void applyBinary(MemorySegment src1, MemorySegment src2, MemorySegment dst) {
+        // prologue
+        var op = (IntBinaryOperator) HOLE2;
+        var binary = (Binary) HOLE3;
+
+        // main
+        var length = (int) (src1.byteSize() / Integer.BYTES);
+        var i = 0;
+        var limit = length - (length % SPECIES.length());
+        for (; i < limit; i += SPECIES.length()) {
+          var offset = (long) i * Integer.BYTES;
+          var v1 = IntVector.fromMemorySegment(SPECIES, src1, offset, ByteOrder.LITTLE_ENDIAN);
+          var v2 = IntVector.fromMemorySegment(SPECIES, src2, offset, ByteOrder.LITTLE_ENDIAN);
+          var vr = v1.lanewise(binary, v2);                       // apply lanewise
+          vr.intoMemorySegment(dst, offset, ByteOrder.LITTLE_ENDIAN);
+        }
+        for (; i < length; i++) {                                 // post loop
+          dst.setAtIndex(Store.Segment.LAYOUT, i, op.applyAsInt(src1.getAtIndex(Store.Segment.LAYOUT, i), src2.getAtIndex(Store.Segment.LAYOUT, i)));
+        }
+      }
+
+      void foldVectorRowAssoc(int[] dst, int dstOffset, MemorySegment src, int srcOffset, int rowCount, int columnCount) {
+        // prologue
+        var zero = (int) HOLE1;
+        var op = (IntBinaryOperator) HOLE2;
+        var assoc = (Associative) HOLE3;
+
+        // main
+        var index = srcOffset;
+        for(var j = 0; j < rowCount; j++) {
+          var acc = IntVector.broadcast(SPECIES, zero);
+          var i = 0;
+          var limit = columnCount - (columnCount % SPECIES.length());
+          for(; i < limit; i += SPECIES.length()) {             // reduce lane wise
+            var vector = IntVector.fromMemorySegment(SPECIES, src, (long) (index + i) * Integer.BYTES, ByteOrder.LITTLE_ENDIAN);
+            acc = acc.lanewise(assoc, vector) ;
+          }
+          var result = acc.reduceLanes(assoc);                  // reduce the lane
+          for (; i < columnCount; i++) {                        // post loop
+            result = op.applyAsInt(result, src.getAtIndex(Store.Segment.LAYOUT, index + i));
+          }
+          dst[dstOffset + j] = result;
+          index += columnCount;
+        }
+      }
+
+      int foldValueBinary(MemorySegment src) {
+        // prologue
+        var zero = (int) HOLE1;
+        var op = (IntBinaryOperator) HOLE2;
+        var binary = (Binary) HOLE3;
+
+        // main
+        var length = (int) (src.byteSize() / Integer.BYTES);
+        var acc = IntVector.broadcast(SPECIES, zero);
+        var i = 0;
+        var limit = length - (length % SPECIES.length());
+        for (; i < limit; i += SPECIES.length()) {                // reduce lanewise
+          var vector = IntVector.fromMemorySegment(SPECIES, src, (long) i * Integer.BYTES, ByteOrder.LITTLE_ENDIAN);
+          acc = acc.lanewise(binary, vector) ;
+        }
+        var result = zero;
+        for (; i < length; i++) {                                 // post loop
+          result = op.applyAsInt(result, src.getAtIndex(Store.Segment.LAYOUT, i));
+        }
+        for(var laneIndex = 0; laneIndex < SPECIES.length(); laneIndex++) {  // reduce the vector
+          result = op.applyAsInt(result, acc.lane(laneIndex));
+        }
+        return result;
+      }
+
+      void foldVectorColumn(int[] dst, int dstOffset, MemorySegment src, int srcOffset, int rowCount, int columnCount) {
+        // prologue
+        var zero = (int) HOLE1;
+        var op = (IntBinaryOperator) HOLE2;
+        var binary = (Binary) HOLE3;
+
+        // main, sweep the rows with dst as accumulator, so each lane is folded in the same order as the scalar fold
+        Arrays.fill(dst, dstOffset, dstOffset + columnCount, zero);
+        var limit = columnCount - (columnCount % SPECIES.length());
+        var index = srcOffset;
+        for(var j = 0; j < rowCount; j++) {
+          var i = 0;
+          for(; i < limit; i += SPECIES.length()) {              // fold lane wise
+            var acc = IntVector.fromArray(SPECIES, dst, dstOffset + i);
+            var vector = IntVector.fromMemorySegment(SPECIES, src, (long) (index + i) * Integer.BYTES, ByteOrder.LITTLE_ENDIAN);
+            acc.lanewise(binary, vector).intoArray(dst, dstOffset + i);
+          }
+          for (; i < columnCount; i++) {                        // post loop
+            dst[dstOffset + i] = op.applyAsInt(dst[dstOffset + i], src.getAtIndex(Store.Segment.LAYOUT, index + i));
+          }
+          index += columnCount;
+        }
+      }
+
+      int[] foldMatrixPlane(MemorySegment src, int planeCount, int rowCount, int columnCount) {
+        // prologue
+        var zero = (int) HOLE1;
+        var op = (IntBinaryOperator) HOLE2;
+        var binary = (Binary) HOLE3;
+
+        // main, fold all the planes block by block so the accumulators of a block stay in L1
+        var matrixSize = rowCount * columnCount;
+        var dst = new int[matrixSize];
+        for(var blockStart = 0; blockStart < matrixSize; blockStart += PLANE_BLOCK) {
+          var blockEnd = Math.min(blockStart + PLANE_BLOCK, matrixSize);
+          var limit = blockEnd - ((blockEnd - blockStart) % SPECIES.length());
+          Arrays.fill(dst, blockStart, blockEnd, zero);
+          for(var k = 0; k < planeCount; k++) {
+            var planeOffset = k * matrixSize;
+            var i = blockStart;
+            for(; i < limit; i += SPECIES.length()) {              // fold lane wise
+              var acc = IntVector.fromArray(SPECIES, dst, i);
+              var vector = IntVector.fromMemorySegment(SPECIES, src, (long) (planeOffset + i) * Integer.BYTES, ByteOrder.LITTLE_ENDIAN);
+              acc.lanewise(binary, vector).intoArray(dst, i);
+            }
+            for (; i < blockEnd; i++) {                            // post loop
+              dst[i] = op.applyAsInt(dst[i], src.getAtIndex(Store.Segment.LAYOUT, planeOffset + i));
+            }
+          }
+        }
+        return dst;
+      }
+
+      void applyInner(int[] dst, int dstOffset, int[] src1, int src1Offset, int rowCount, int[] src2, int innerCount, int columnCount) {
+        // prologue, the holes are the zero and the operator of the fold then the operator of the dyad
+        var zero = (int) HOLE1;
+        var fold = (Binary) HOLE2;
+        var binary = (Binary) HOLE3;
+
+        // main, the lanes after columnCount are masked so DIV does not see them
+        var identity = IntVector.broadcast(SPECIES, zero);
+        for(var i = 0; i < rowCount; i++) {
+          var row = dstOffset + i * columnCount;
+          for(var j = 0; j < columnCount; j += SPECIES.length()) {
+            var mask = SPECIES.indexInRange(j, columnCount);
+            var acc = identity;
+            for(var k = 0; k < innerCount; k++) {
+              var value = IntVector.broadcast(SPECIES, src1[src1Offset + i * innerCount + k]);
+              var v = value.lanewise(binary, IntVector.fromArray(SPECIES, src2, k * columnCount + j, mask), mask);
+              acc = acc.lanewise(fold, v, mask);
+            }
+            acc.intoArray(dst, row + j, mask);
+          }
+        }
+      }
+
+      void applyOuter(int[] dst, int dstOffset, int[] src1, int src1Offset, int rowCount, int[] src2) {
+        // prologue
+        var op = (IntBinaryOperator) HOLE2;
+        var binary = (Binary) HOLE3;
+
+        // main
+        var index = dstOffset;
+        var limit = src2.length - (src2.length % SPECIES.length());
+        for(var k = 0; k < rowCount; k++) {
+          var value = src1[src1Offset + k];
+          var v1 = IntVector.broadcast(SPECIES, value);         // one value against the whole of src2
+          var i = 0;
+          for(; i < limit; i += SPECIES.length()) {
+            var v2 = IntVector.fromArray(SPECIES, src2, i);
+            v1.lanewise(binary, v2).intoArray(dst, index + i);
+          }
+          for(; i < src2.length; i++) {                         // post loop
+            dst[index + i] = op.applyAsInt(value, src2[i]);
+          }
+          index += src2.length;
+        }
+      }
+
+      void scanVectorRowAssoc(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount, int seed) {
+        // prologue
+        var zero = (int) HOLE1;
+        var op = (IntBinaryOperator) HOLE2;
+        var assoc = (Binary) HOLE3;
+
+        // main
+        var identity = IntVector.broadcast(SPECIES, zero);
+        var index = 0;
+        for(var j = 0; j < rowCount; j++) {
+          var acc = seed;
+          var i = 0;
+          var limit = columnCount - (columnCount % SPECIES.length());
+          for(; i < limit; i += SPECIES.length()) {
+            var vector = IntVector.fromArray(SPECIES, src, srcOffset + index + i);
+            for(var shift = 1; shift < SPECIES.length(); shift <<= 1) {   // log-step prefix in register
+              vector = identity.slice(SPECIES.length() - shift, vector).lanewise(assoc, vector);
+            }
+            var result = IntVector.broadcast(SPECIES, acc).lanewise(assoc, vector);  // carry of the previous lanes
+            result.intoArray(dst, dstOffset + index + i);
+            acc = result.lane(SPECIES.length() - 1);
+          }
+          for(; i < columnCount; i++) {                         // post loop
+            acc = op.applyAsInt(acc, src[srcOffset + index + i]);
+            dst[dstOffset + index + i] = acc;
+          }
+          index += columnCount;
+        }
+      }
+
+      void scanVectorColumn(int[] dst, int dstOffset, int[] src, int srcOffset, int rowCount, int columnCount, int[] seed, int seedOffset) {
+        // prologue
+        var op = (IntBinaryOperator) HOLE2;
+        var binary = (Binary) HOLE3;
+
+        // main
+        var i = 0;
+        var limit = columnCount - (columnCount % SPECIES.length());
+        for(; i < limit; i += SPECIES.length()) {               // the accumulator goes down the rows
+          var acc = IntVector.fromArray(SPECIES, seed, seedOffset + i);
+          for(var j = 0; j < rowCount; j++) {
+            var index = j * columnCount + i;
+            acc = acc.lanewise(binary, IntVector.fromArray(SPECIES, src, srcOffset + index));
+            acc.intoArray(dst, dstOffset + index);
+          }
+        }
+        for(; i < columnCount; i++) {                           // post loop
+          var acc = seed[seedOffset + i];
+          for(var j = 0; j < rowCount; j++) {
+            var index = j * columnCount + i;
+            acc = op.applyAsInt(acc, src[srcOffset + index]);
+            dst[dstOffset + index] = acc;
+          }
+        }
+      }
     }
   }
 }
@@ -0,0 +1,133 @@
+package fr.umlv.jruntime;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.joining;
+
+import fr.umlv.jruntime.Cell.Dyad;
+import fr.umlv.jruntime.Cell.Dyads;
+import fr.umlv.jruntime.Cell.Fold;
+import fr.umlv.jruntime.Cell.Monad;
+import java.util.Arrays;
+import java.util.List;
+
+// cells stacked along their first axis, so the whole cell can have more than 2^31 values
+public final class ChunkedCell {
+  private final List<Cell> chunks;
+
+  private ChunkedCell(List<Cell> chunks) {
+    this.chunks = chunks;
+  }
+
+  public static ChunkedCell of(Cell... chunks) {
+    return of(List.of(chunks));
+  }
+
+  public static ChunkedCell of(List<Cell> chunks) {
+    var newChunks = List.copyOf(chunks);
+    if (newChunks.isEmpty()) {
+      throw new IllegalArgumentException("no chunk");
+    }
+    var dims = newChunks.get(0).dims();
+    for(var chunk: newChunks) {
+      var chunkDims = chunk.dims();
+      if (chunkDims.length != dims.length || !Arrays.equals(chunkDims, 1, chunkDims.length, dims, 1, dims.length)) {
+        throw new IllegalArgumentException("not the same depths " + Arrays.toString(dims) + " " + Arrays.toString(chunkDims));
+      }
+    }
+    return new ChunkedCell(newChunks);
+  }
+
+  public int chunkCount() {
+    return chunks.size();
+  }
+
+  public Cell chunk(int index) {
+    return chunks.get(index);
+  }
+
+  public long elements() {
+    var elements = 0L;
+    for(var chunk: chunks) {
+      elements += Cell.product(chunk.dims(), 0, chunk.dims().length);
+    }
+    return elements;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof ChunkedCell cell && chunks.equals(cell.chunks);
+  }
+
+  @Override
+  public int hashCode() {
+    return chunks.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return chunks.stream().map(Cell::toString).collect(joining("\n"));
+  }
+
+  public ChunkedCell apply(Monad monad) {
+    requireNonNull(monad);
+    return new ChunkedCell(chunks.stream().map(chunk -> chunk.apply(monad)).toList());
+  }
+
+  public ChunkedCell apply(Dyad dyad, ChunkedCell cell) {
+    requireNonNull(dyad);
+    if (chunks.size() != cell.chunks.size()) {  // implicit nullcheck
+      throw new IllegalArgumentException("not the same chunks " + chunks.size() + " " + cell.chunks.size());
+    }
+    var newChunks = new Cell[chunks.size()];
+    for(var i = 0; i < newChunks.length; i++) {
+      newChunks[i] = chunks.get(i).apply(dyad, cell.chunks.get(i));
+    }
+    return new ChunkedCell(List.of(newChunks));
+  }
+
+  public ChunkedCell apply(Fold fold) {
+    if (fold.left() != null && fold.right() != null) { // implicit nullcheck
+      return apply(fold.left()).apply(fold.dyad(), apply(fold.right()));
+    }
+    var dimCount = chunks.get(0).dims().length;
+    if (dimCount != 1 && fold.rank() != -1 && fold.rank() != dimCount) {
+      // the folded axis is inside the chunks
+      return new ChunkedCell(chunks.stream().map(chunk -> chunk.apply(fold)).toList());
+    }
+    if (fold.dyad() == Dyads.COUNT) {
+      return new ChunkedCell(List.of(count()));
+    }
+    // fold each chunk with the kernels then combine the partial results
+    var combiner = combiner(fold.dyad());
+    Cell result = null;
+    for(var chunk: chunks) {
+      var partial = chunk.apply(fold.dyad().fold());
+      result = result == null? partial: result.apply(combiner, partial);
+    }
+    return new ChunkedCell(List.of(result));
+  }
+
+  // the count along the first axis only depends on the dims, summed as a long so it can not overflow silently
+  private Cell count() {
+    var rows = 0L;
+    for(var chunk: chunks) {
+      rows += chunk.dims()[0];
+    }
+    if (rows > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("the count " + rows + " does not fit in an int");
+    }
+    var dims = chunks.get(0).dims();
+    return Cell.of(Cell.foldDims(dims, 0)).reshape(Cell.of((int) rows));
+  }
+
+  private static Dyad combiner(Dyad dyad) {
+    if (dyad instanceof Dyads dyads) {
+      return switch(dyads) {
+        case ADD, MUL, MAX, MIN, AND, OR, XOR -> dyads;
+        case COUNT -> throw new AssertionError();
+        case SUB, DIV, AND_NOT -> throw new IllegalArgumentException("can not combine the partial folds of " + dyads);
+      };
+    }
+    throw new IllegalArgumentException("can not combine the partial folds of " + dyad);
+  }
+}
@@ -0,0 +1,269 @@
+package fr.umlv.jruntime;
+
+import fr.umlv.jruntime.Cell.Dyads;
+import fr.umlv.jruntime.Cell.Monads;
+import fr.umlv.jruntime.PrimitiveCell.ScalarKernels;
+import fr.umlv.jruntime.PrimitiveCell.Template;
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators.Associative;
+import jdk.incubator.vector.VectorOperators.Binary;
+import jdk.incubator.vector.VectorOperators.Unary;
+import jdk.incubator.vector.VectorSpecies;
+
+public final class DoubleCell extends PrimitiveCell<double[], DoubleCell> {
+  DoubleCell(int[] dims, double[] data) {
+    super(dims, data);
+  }
+
+  public static DoubleCell of(double... data) {
+    var newData = Arrays.copyOf(data, data.length);
+    return new DoubleCell(new int[] { newData.length }, newData);
+  }
+
+  @Override
+  public String toString() {
+    return Cell.format(dims, index -> String.valueOf(data[index]));
+  }
+
+  DoubleCell newCell(int[] dims, double[] data) {
+    return new DoubleCell(dims, data);
+  }
+
+  double[] newArray(int length) {
+    return new double[length];
+  }
+
+  void fill(double[] data, int count) {
+    Arrays.fill(data, count);
+  }
+
+  String typeName() {
+    return "double";
+  }
+
+
+  // --- kernels ---
+  Template<double[]> template(Monads monads) {
+    return Cell.isVectorized()? VectorizedKernels.UNARIES[monads.ordinal()]: ClassicKernels.UNARIES[monads.ordinal()];
+  }
+
+  Template<double[]> template(Dyads dyads) {
+    return Cell.isVectorized()? VectorizedKernels.BINARIES[dyads.ordinal()]: ClassicKernels.BINARIES[dyads.ordinal()];
+  }
+
+  private static DoubleUnaryOperator unaryOp(Monads monads) {
+    return switch(monads) {
+      case NEG -> x -> -x;
+      case ABS -> Math::abs;
+      case ZOMO, NOT -> null;
+    };
+  }
+
+  private static double zero(Dyads dyads) {
+    return switch(dyads) {
+      case ADD, SUB, COUNT, AND, AND_NOT, OR, XOR -> 0;
+      case MUL, DIV -> 1;
+      case MAX -> Double.NEGATIVE_INFINITY;
+      case MIN -> Double.POSITIVE_INFINITY;
+    };
+  }
+
+  private static DoubleBinaryOperator binaryOp(Dyads dyads) {
+    return switch(dyads) {
+      case ADD -> Double::sum;
+      case SUB -> (a, b) -> a - b;
+      case MUL -> (a, b) -> a * b;
+      case DIV -> (a, b) -> a / b;
+      case MAX -> Math::max;
+      case MIN -> Math::min;
+      case COUNT -> (a, b) -> a + 1;
+      case AND, AND_NOT, OR, XOR -> null;
+    };
+  }
+
+  private abstract static class Kernels extends Template<double[]> {
+    /*package private*/ Kernels() {
+      // empty constructor
+    }
+  }
+
+  private static final class ClassicKernels extends ScalarKernels<double[]> {
+    private static final ClassicKernels[] UNARIES = Arrays.stream(Monads.values())
+        .map(monads -> unaryOp(monads) == null? null: new ClassicKernels(unaryOp(monads), 0, null))
+        .toArray(ClassicKernels[]::new);
+    private static final ClassicKernels[] BINARIES = Arrays.stream(Dyads.values())
+        .map(dyads -> binaryOp(dyads) == null? null: new ClassicKernels(null, zero(dyads), binaryOp(dyads)))
+        .toArray(ClassicKernels[]::new);
+
+    private final DoubleUnaryOperator unaryOp;
+    private final double zero;
+    private final DoubleBinaryOperator binaryOp;
+
+    private ClassicKernels(DoubleUnaryOperator unaryOp, double zero, DoubleBinaryOperator binaryOp) {
+      this.unaryOp = unaryOp;
+      this.zero = zero;
+      this.binaryOp = binaryOp;
+    }
+
+    double[] newArray(int length) {
+      return new double[length];
+    }
+    void unary(double[] dst, int dstIndex, double[] src, int srcIndex) {
+      dst[dstIndex] = unaryOp.applyAsDouble(src[srcIndex]);
+    }
+    void binary(double[] dst, int dstIndex, double[] src1, int index1, double[] src2, int index2) {
+      dst[dstIndex] = binaryOp.applyAsDouble(src1[index1], src2[index2]);
+    }
+    void fillZero(double[] dst, int from, int to) {
+      Arrays.fill(dst, from, to, zero);
+    }
+  }
+
+  private static final class VectorizedKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private static final Kernels[] UNARIES, BINARIES;
+    static {
+      var specializer = new Specializer(MethodHandles.lookup(), Snippet.class);
+      UNARIES = Arrays.stream(Monads.values())
+          .map(monads -> unaryOp(monads) == null? null: specializer.specialize(Kernels.class, unaryOp(monads), unaryVectorOp(monads), null))
+          .toArray(Kernels[]::new);
+      BINARIES = Arrays.stream(Dyads.values())
+          .map(dyads -> binaryOp(dyads) == null? null: specializer.specialize(Kernels.class, zero(dyads), binaryOp(dyads), binaryVectorOp(dyads)))
+          .toArray(Kernels[]::new);
+    }
+
+    public static final class Snippet extends Kernels {
+      private static final Object HOLE1, HOLE2, HOLE3;
+      static {
+        var lookup = MethodHandles.lookup();
+        try {
+          var classData = MethodHandles.classData(lookup, "_", Specializer.ClassData.class);
+          HOLE1 = classData.hole1();
+          HOLE2 = classData.hole2();
+          HOLE3 = classData.hole3();
+        } catch (IllegalAccessException e) {
+          throw new AssertionError(e);
+        }
+      }
+
+      boolean isAssociative() {
+        return HOLE3 instanceof Associative;
+      }
+
+      double[] applyUnary(double[] src) {
+        // prologue
+        var op = (DoubleUnaryOperator) HOLE1;
+        var unary = (Unary) HOLE2;
+
+        // main
+        var data = new double[src.length];
+        var i = 0;
+        var limit = src.length - (src.length % SPECIES.length());
+        for (; i < limit; i += SPECIES.length()) {
+          var v = DoubleVector.fromArray(SPECIES, src, i);
+          var vr = v.lanewise(unary);                               // apply lanewise
+          vr.intoArray(data, i);
+        }
+        for (; i < src.length; i++) {                               // post loop
+          data[i] = op.applyAsDouble(src[i]);
+        }
+        return data;
+      }
+
+      double[] applyBinary(double[] src1, double[] src2) {
+        // prologue
+        var op = (DoubleBinaryOperator) HOLE2;
+        var binary = (Binary) HOLE3;                                // null for COUNT
+
+        // main
+        var one = DoubleVector.broadcast(SPECIES, 1);
+        var data = new double[src1.length];
+        var i = 0;
+        var limit = src1.length - (src1.length % SPECIES.length());
+        for (; i < limit; i += SPECIES.length()) {
+          var v1 = DoubleVector.fromArray(SPECIES, src1, i);
+          var v2 = DoubleVector.fromArray(SPECIES, src2, i);
+          var vr = binary == null? v1.add(one): v1.lanewise(binary, v2);   // apply lanewise, COUNT is the first value plus one
+          vr.intoArray(data, i);
+        }
+        for (; i < src1.length; i++) {                              // post loop
+          data[i] = op.applyAsDouble(src1[i], src2[i]);
+        }
+        return data;
+      }
+
+      void foldRowAssoc(double[] dst, double[] src, int rowCount, int columnCount) {
+        // prologue
+        var zero = (double) HOLE1;
+        var op = (DoubleBinaryOperator) HOLE2;
+        var assoc = (Associative) HOLE3;
+
+        // main
+        var index = 0;
+        for(var j = 0; j < rowCount; j++) {
+          var acc = DoubleVector.broadcast(SPECIES, zero);
+          var i = 0;
+          var limit = columnCount - (columnCount % SPECIES.length());
+          for(; i < limit; i += SPECIES.length()) {               // reduce lane wise
+            var vector = DoubleVector.fromArray(SPECIES, src, index + i);
+            acc = acc.lanewise(assoc, vector);
+          }
+          var result = acc.reduceLanes(assoc);                    // reduce the lane
+          for (; i < columnCount; i++) {                          // post loop
+            result = op.applyAsDouble(result, src[index + i]);
+          }
+          dst[j] = result;
+          index += columnCount;
+        }
+      }
+
+      void foldRowBinary(double[] dst, double[] src, int rowCount, int columnCount) {
+        // prologue
+        var zero = (double) HOLE1;
+        var op = (DoubleBinaryOperator) HOLE2;
+
+        // main, not associative so the lanes can not be reduced independently
+        var index = 0;
+        for(var j = 0; j < rowCount; j++) {
+          var result = zero;
+          for(var i = 0; i < columnCount; i++) {
+            result = op.applyAsDouble(result, src[index++]);
+          }
+          dst[j] = result;
+        }
+      }
+
+      void foldColumn(double[] dst, double[] src, int outerCount, int rowCount, int columnCount) {
+        // prologue
+        var zero = (double) HOLE1;
+        var op = (DoubleBinaryOperator) HOLE2;
+        var binary = (Binary) HOLE3;
+
+        // main, each lane folds its own column so the order of the operations is preserved
+        var limit = columnCount - (columnCount % SPECIES.length());
+        for(var k = 0; k < outerCount; k++) {
+          var dstOffset = k * columnCount;
+          var srcOffset = k * rowCount * columnCount;
+          Arrays.fill(dst, dstOffset, dstOffset + columnCount, zero);
+          for(var j = 0; j < rowCount; j++) {
+            var rowOffset = srcOffset + j * columnCount;
+            var i = 0;
+            for(; i < limit; i += SPECIES.length()) {             // accumulate lane wise
+              var acc = DoubleVector.fromArray(SPECIES, dst, dstOffset + i);
+              var vector = DoubleVector.fromArray(SPECIES, src, rowOffset + i);
+              acc.lanewise(binary, vector).intoArray(dst, dstOffset + i);
+            }
+            for(; i < columnCount; i++) {                         // post loop
+              dst[dstOffset + i] = op.applyAsDouble(dst[dstOffset + i], src[rowOffset + i]);
+            }
+          }
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,277 @@
+package fr.umlv.jruntime;
+
+import fr.umlv.jruntime.Cell.Dyads;
+import fr.umlv.jruntime.Cell.Monads;
+import fr.umlv.jruntime.PrimitiveCell.ScalarKernels;
+import fr.umlv.jruntime.PrimitiveCell.Template;
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators.Associative;
+import jdk.incubator.vector.VectorOperators.Binary;
+import jdk.incubator.vector.VectorOperators.Unary;
+import jdk.incubator.vector.VectorSpecies;
+
+public final class FloatCell extends PrimitiveCell<float[], FloatCell> {
+  FloatCell(int[] dims, float[] data) {
+    super(dims, data);
+  }
+
+  public static FloatCell of(float... data) {
+    var newData = Arrays.copyOf(data, data.length);
+    return new FloatCell(new int[] { newData.length }, newData);
+  }
+
+  @Override
+  public String toString() {
+    return Cell.format(dims, index -> String.valueOf(data[index]));
+  }
+
+  FloatCell newCell(int[] dims, float[] data) {
+    return new FloatCell(dims, data);
+  }
+
+  float[] newArray(int length) {
+    return new float[length];
+  }
+
+  void fill(float[] data, int count) {
+    Arrays.fill(data, count);
+  }
+
+  String typeName() {
+    return "float";
+  }
+
+
+  // --- kernels ---
+  @FunctionalInterface
+  private interface FloatUnaryOperator {
+    float applyAsFloat(float operand);
+  }
+
+  @FunctionalInterface
+  private interface FloatBinaryOperator {
+    float applyAsFloat(float left, float right);
+  }
+
+  Template<float[]> template(Monads monads) {
+    return Cell.isVectorized()? VectorizedKernels.UNARIES[monads.ordinal()]: ClassicKernels.UNARIES[monads.ordinal()];
+  }
+
+  Template<float[]> template(Dyads dyads) {
+    return Cell.isVectorized()? VectorizedKernels.BINARIES[dyads.ordinal()]: ClassicKernels.BINARIES[dyads.ordinal()];
+  }
+
+  private static FloatUnaryOperator unaryOp(Monads monads) {
+    return switch(monads) {
+      case NEG -> x -> -x;
+      case ABS -> Math::abs;
+      case ZOMO, NOT -> null;
+    };
+  }
+
+  private static float zero(Dyads dyads) {
+    return switch(dyads) {
+      case ADD, SUB, COUNT, AND, AND_NOT, OR, XOR -> 0;
+      case MUL, DIV -> 1;
+      case MAX -> Float.NEGATIVE_INFINITY;
+      case MIN -> Float.POSITIVE_INFINITY;
+    };
+  }
+
+  private static FloatBinaryOperator binaryOp(Dyads dyads) {
+    return switch(dyads) {
+      case ADD -> Float::sum;
+      case SUB -> (a, b) -> a - b;
+      case MUL -> (a, b) -> a * b;
+      case DIV -> (a, b) -> a / b;
+      case MAX -> Math::max;
+      case MIN -> Math::min;
+      case COUNT -> (a, b) -> a + 1;
+      case AND, AND_NOT, OR, XOR -> null;
+    };
+  }
+
+  private abstract static class Kernels extends Template<float[]> {
+    /*package private*/ Kernels() {
+      // empty constructor
+    }
+  }
+
+  private static final class ClassicKernels extends ScalarKernels<float[]> {
+    private static final ClassicKernels[] UNARIES = Arrays.stream(Monads.values())
+        .map(monads -> unaryOp(monads) == null? null: new ClassicKernels(unaryOp(monads), 0, null))
+        .toArray(ClassicKernels[]::new);
+    private static final ClassicKernels[] BINARIES = Arrays.stream(Dyads.values())
+        .map(dyads -> binaryOp(dyads) == null? null: new ClassicKernels(null, zero(dyads), binaryOp(dyads)))
+        .toArray(ClassicKernels[]::new);
+
+    private final FloatUnaryOperator unaryOp;
+    private final float zero;
+    private final FloatBinaryOperator binaryOp;
+
+    private ClassicKernels(FloatUnaryOperator unaryOp, float zero, FloatBinaryOperator binaryOp) {
+      this.unaryOp = unaryOp;
+      this.zero = zero;
+      this.binaryOp = binaryOp;
+    }
+
+    float[] newArray(int length) {
+      return new float[length];
+    }
+    void unary(float[] dst, int dstIndex, float[] src, int srcIndex) {
+      dst[dstIndex] = unaryOp.applyAsFloat(src[srcIndex]);
+    }
+    void binary(float[] dst, int dstIndex, float[] src1, int index1, float[] src2, int index2) {
+      dst[dstIndex] = binaryOp.applyAsFloat(src1[index1], src2[index2]);
+    }
+    void fillZero(float[] dst, int from, int to) {
+      Arrays.fill(dst, from, to, zero);
+    }
+  }
+
+  private static final class VectorizedKernels {
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    private static final Kernels[] UNARIES, BINARIES;
+    static {
+      var specializer = new Specializer(MethodHandles.lookup(), Snippet.class);
+      UNARIES = Arrays.stream(Monads.values())
+          .map(monads -> unaryOp(monads) == null? null: specializer.specialize(Kernels.class, unaryOp(monads), unaryVectorOp(monads), null))
+          .toArray(Kernels[]::new);
+      BINARIES = Arrays.stream(Dyads.values())
+          .map(dyads -> binaryOp(dyads) == null? null: specializer.specialize(Kernels.class, zero(dyads), binaryOp(dyads), binaryVectorOp(dyads)))
+          .toArray(Kernels[]::new);
+    }
+
+    public static final class Snippet extends Kernels {
+      private static final Object HOLE1, HOLE2, HOLE3;
+      static {
+        var lookup = MethodHandles.lookup();
+        try {
+          var classData = MethodHandles.classData(lookup, "_", Specializer.ClassData.class);
+          HOLE1 = classData.hole1();
+          HOLE2 = classData.hole2();
+          HOLE3 = classData.hole3();
+        } catch (IllegalAccessException e) {
+          throw new AssertionError(e);
+        }
+      }
+
+      boolean isAssociative() {
+        return HOLE3 instanceof Associative;
+      }
+
+      float[] applyUnary(float[] src) {
+        // prologue
+        var op = (FloatUnaryOperator) HOLE1;
+        var unary = (Unary) HOLE2;
+
+        // main
+        var data = new float[src.length];
+        var i = 0;
+        var limit = src.length - (src.length % SPECIES.length());
+        for (; i < limit; i += SPECIES.length()) {
+          var v = FloatVector.fromArray(SPECIES, src, i);
+          var vr = v.lanewise(unary);                               // apply lanewise
+          vr.intoArray(data, i);
+        }
+        for (; i < src.length; i++) {                               // post loop
+          data[i] = op.applyAsFloat(src[i]);
+        }
+        return data;
+      }
+
+      float[] applyBinary(float[] src1, float[] src2) {
+        // prologue
+        var op = (FloatBinaryOperator) HOLE2;
+        var binary = (Binary) HOLE3;                                // null for COUNT
+
+        // main
+        var one = FloatVector.broadcast(SPECIES, 1);
+        var data = new float[src1.length];
+        var i = 0;
+        var limit = src1.length - (src1.length % SPECIES.length());
+        for (; i < limit; i += SPECIES.length()) {
+          var v1 = FloatVector.fromArray(SPECIES, src1, i);
+          var v2 = FloatVector.fromArray(SPECIES, src2, i);
+          var vr = binary == null? v1.add(one): v1.lanewise(binary, v2);   // apply lanewise, COUNT is the first value plus one
+          vr.intoArray(data, i);
+        }
+        for (; i < src1.length; i++) {                              // post loop
+          data[i] = op.applyAsFloat(src1[i], src2[i]);
+        }
+        return data;
+      }
+
+      void foldRowAssoc(float[] dst, float[] src, int rowCount, int columnCount) {
+        // prologue
+        var zero = (float) HOLE1;
+        var op = (FloatBinaryOperator) HOLE2;
+        var assoc = (Associative) HOLE3;
+
+        // main
+        var index = 0;
+        for(var j = 0; j < rowCount; j++) {
+          var acc = FloatVector.broadcast(SPECIES, zero);
+          var i = 0;
+          var limit = columnCount - (columnCount % SPECIES.length());
+          for(; i < limit; i += SPECIES.length()) {               // reduce lane wise
+            var vector = FloatVector.fromArray(SPECIES, src, index + i);
+            acc = acc.lanewise(assoc, vector);
+          }
+          var result = acc.reduceLanes(assoc);                    // reduce the lane
+          for (; i < columnCount; i++) {                          // post loop
+            result = op.applyAsFloat(result, src[index + i]);
+          }
+          dst[j] = result;
+          index += columnCount;
+        }
+      }
+
+      void foldRowBinary(float[] dst, float[] src, int rowCount, int columnCount) {
+        // prologue
+        var zero = (float) HOLE1;
+        var op = (FloatBinaryOperator) HOLE2;
+
+        // main, not associative so the lanes can not be reduced independently
+        var index = 0;
+        for(var j = 0; j < rowCount; j++) {
+          var result = zero;
+          for(var i = 0; i < columnCount; i++) {
+            result = op.applyAsFloat(result, src[index++]);
+          }
+          dst[j] = result;
+        }
+      }
+
+      void foldColumn(float[] dst, float[] src, int outerCount, int rowCount, int columnCount) {
+        // prologue
+        var zero = (float) HOLE1;
+        var op = (FloatBinaryOperator) HOLE2;
+        var binary = (Binary) HOLE3;
+
+        // main, each lane folds its own column so the order of the operations is preserved
+        var limit = columnCount - (columnCount % SPECIES.length());
+        for(var k = 0; k < outerCount; k++) {
+          var dstOffset = k * columnCount;
+          var srcOffset = k * rowCount * columnCount;
+          Arrays.fill(dst, dstOffset, dstOffset + columnCount, zero);
+          for(var j = 0; j < rowCount; j++) {
+            var rowOffset = srcOffset + j * columnCount;
+            var i = 0;
+            for(; i < limit; i += SPECIES.length()) {             // accumulate lane wise
+              var acc = FloatVector.fromArray(SPECIES, dst, dstOffset + i);
+              var vector = FloatVector.fromArray(SPECIES, src, rowOffset + i);
+              acc.lanewise(binary, vector).intoArray(dst, dstOffset + i);
+            }
+            for(; i < columnCount; i++) {                         // post loop
+              dst[dstOffset + i] = op.applyAsFloat(dst[dstOffset + i], src[rowOffset + i]);
+            }
+          }
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,274 @@
+package fr.umlv.jruntime;
+
+import fr.umlv.jruntime.Cell.Dyads;
+import fr.umlv.jruntime.Cell.Monads;
+import fr.umlv.jruntime.PrimitiveCell.ScalarKernels;
+import fr.umlv.jruntime.PrimitiveCell.Template;
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators.Associative;
+import jdk.incubator.vector.VectorOperators.Binary;
+import jdk.incubator.vector.VectorOperators.Unary;
+import jdk.incubator.vector.VectorSpecies;
+
+public final class LongCell extends PrimitiveCell<long[], LongCell> {
+  LongCell(int[] dims, long[] data) {
+    super(dims, data);
+  }
+
+  public static LongCell of(long... data) {
+    var newData = Arrays.copyOf(data, data.length);
+    return new LongCell(new int[] { newData.length }, newData);
+  }
+
+  @Override
+  public String toString() {
+    return Cell.format(dims, index -> String.format("%2d", data[index]));
+  }
+
+  LongCell newCell(int[] dims, long[] data) {
+    return new LongCell(dims, data);
+  }
+
+  long[] newArray(int length) {
+    return new long[length];
+  }
+
+  void fill(long[] data, int count) {
+    Arrays.fill(data, count);
+  }
+
+  String typeName() {
+    return "long";
+  }
+
+
+  // --- kernels ---
+  Template<long[]> template(Monads monads) {
+    return Cell.isVectorized()? VectorizedKernels.UNARIES[monads.ordinal()]: ClassicKernels.UNARIES[monads.ordinal()];
+  }
+
+  Template<long[]> template(Dyads dyads) {
+    return Cell.isVectorized()? VectorizedKernels.BINARIES[dyads.ordinal()]: ClassicKernels.BINARIES[dyads.ordinal()];
+  }
+
+  private static LongUnaryOperator unaryOp(Monads monads) {
+    return switch(monads) {
+      case ZOMO -> x -> x == 0? 0: -1;
+      case NEG -> x -> -x;
+      case ABS -> Math::abs;
+      case NOT -> x -> ~x;
+    };
+  }
+
+  private static long zero(Dyads dyads) {
+    return switch(dyads) {
+      case ADD, SUB, OR, XOR, COUNT -> 0;
+      case MUL, DIV -> 1;
+      case MAX -> Long.MIN_VALUE;
+      case MIN -> Long.MAX_VALUE;
+      case AND, AND_NOT -> 0xFFFFFFFF_FFFFFFFFL;
+    };
+  }
+
+  private static LongBinaryOperator binaryOp(Dyads dyads) {
+    return switch(dyads) {
+      case ADD -> Long::sum;
+      case SUB -> (a, b) -> a - b;
+      case MUL -> (a, b) -> a * b;
+      case DIV -> (a, b) -> a / b;
+      case MAX -> Math::max;
+      case MIN -> Math::min;
+      case AND -> (a, b) -> a & b;
+      case AND_NOT -> (a, b) -> a & ~b;
+      case OR -> (a, b) -> a | b;
+      case XOR -> (a, b) -> a ^ b;
+      case COUNT -> (a, b) -> a + 1;
+    };
+  }
+
+  private abstract static class Kernels extends Template<long[]> {
+    /*package private*/ Kernels() {
+      // empty constructor
+    }
+  }
+
+  private static final class ClassicKernels extends ScalarKernels<long[]> {
+    private static final ClassicKernels[] UNARIES = Arrays.stream(Monads.values())
+        .map(monads -> new ClassicKernels(unaryOp(monads), 0, null))
+        .toArray(ClassicKernels[]::new);
+    private static final ClassicKernels[] BINARIES = Arrays.stream(Dyads.values())
+        .map(dyads -> new ClassicKernels(null, zero(dyads), binaryOp(dyads)))
+        .toArray(ClassicKernels[]::new);
+
+    private final LongUnaryOperator unaryOp;
+    private final long zero;
+    private final LongBinaryOperator binaryOp;
+
+    private ClassicKernels(LongUnaryOperator unaryOp, long zero, LongBinaryOperator binaryOp) {
+      this.unaryOp = unaryOp;
+      this.zero = zero;
+      this.binaryOp = binaryOp;
+    }
+
+    long[] newArray(int length) {
+      return new long[length];
+    }
+    void unary(long[] dst, int dstIndex, long[] src, int srcIndex) {
+      dst[dstIndex] = unaryOp.applyAsLong(src[srcIndex]);
+    }
+    void binary(long[] dst, int dstIndex, long[] src1, int index1, long[] src2, int index2) {
+      dst[dstIndex] = binaryOp.applyAsLong(src1[index1], src2[index2]);
+    }
+    void fillZero(long[] dst, int from, int to) {
+      Arrays.fill(dst, from, to, zero);
+    }
+  }
+
+  private static final class VectorizedKernels {
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    private static final Kernels[] UNARIES, BINARIES;
+    static {
+      var specializer = new Specializer(MethodHandles.lookup(), Snippet.class);
+      UNARIES = Arrays.stream(Monads.values())
+          .map(monads -> specializer.specialize(Kernels.class, unaryOp(monads), unaryVectorOp(monads), null))
+          .toArray(Kernels[]::new);
+      BINARIES = Arrays.stream(Dyads.values())
+          .map(dyads -> specializer.specialize(Kernels.class, zero(dyads), binaryOp(dyads), binaryVectorOp(dyads)))
+          .toArray(Kernels[]::new);
+    }
+
+    public static final class Snippet extends Kernels {
+      private static final Object HOLE1, HOLE2, HOLE3;
+      static {
+        var lookup = MethodHandles.lookup();
+        try {
+          var classData = MethodHandles.classData(lookup, "_", Specializer.ClassData.class);
+          HOLE1 = classData.hole1();
+          HOLE2 = classData.hole2();
+          HOLE3 = classData.hole3();
+        } catch (IllegalAccessException e) {
+          throw new AssertionError(e);
+        }
+      }
+
+      boolean isAssociative() {
+        return HOLE3 instanceof Associative;
+      }
+
+      long[] applyUnary(long[] src) {
+        // prologue
+        var op = (LongUnaryOperator) HOLE1;
+        var unary = (Unary) HOLE2;
+
+        // main
+        var data = new long[src.length];
+        var i = 0;
+        var limit = src.length - (src.length % SPECIES.length());
+        for (; i < limit; i += SPECIES.length()) {
+          var v = LongVector.fromArray(SPECIES, src, i);
+          var vr = v.lanewise(unary);                               // apply lanewise
+          vr.intoArray(data, i);
+        }
+        for (; i < src.length; i++) {                               // post loop
+          data[i] = op.applyAsLong(src[i]);
+        }
+        return data;
+      }
+
+      long[] applyBinary(long[] src1, long[] src2) {
+        // prologue
+        var op = (LongBinaryOperator) HOLE2;
+        var binary = (Binary) HOLE3;                                // null for COUNT
+
+        // main
+        var one = LongVector.broadcast(SPECIES, 1);
+        var data = new long[src1.length];
+        var i = 0;
+        var limit = src1.length - (src1.length % SPECIES.length());
+        for (; i < limit; i += SPECIES.length()) {
+          var v1 = LongVector.fromArray(SPECIES, src1, i);
+          var v2 = LongVector.fromArray(SPECIES, src2, i);
+          var vr = binary == null? v1.add(one): v1.lanewise(binary, v2);   // apply lanewise, COUNT is the first value plus one
+          vr.intoArray(data, i);
+        }
+        for (; i < src1.length; i++) {                              // post loop
+          data[i] = op.applyAsLong(src1[i], src2[i]);
+        }
+        return data;
+      }
+
+      void foldRowAssoc(long[] dst, long[] src, int rowCount, int columnCount) {
+        // prologue
+        var zero = (long) HOLE1;
+        var op = (LongBinaryOperator) HOLE2;
+        var assoc = (Associative) HOLE3;
+
+        // main
+        var index = 0;
+        for(var j = 0; j < rowCount; j++) {
+          var acc = LongVector.broadcast(SPECIES, zero);
+          var i = 0;
+          var limit = columnCount - (columnCount % SPECIES.length());
+          for(; i < limit; i += SPECIES.length()) {               // reduce lane wise
+            var vector = LongVector.fromArray(SPECIES, src, index + i);
+            acc = acc.lanewise(assoc, vector);
+          }
+          var result = acc.reduceLanes(assoc);                    // reduce the lane
+          for (; i < columnCount; i++) {                          // post loop
+            result = op.applyAsLong(result, src[index + i]);
+          }
+          dst[j] = result;
+          index += columnCount;
+        }
+      }
+
+      void foldRowBinary(long[] dst, long[] src, int rowCount, int columnCount) {
+        // prologue
+        var zero = (long) HOLE1;
+        var op = (LongBinaryOperator) HOLE2;
+
+        // main, not associative so the lanes can not be reduced independently
+        var index = 0;
+        for(var j = 0; j < rowCount; j++) {
+          var result = zero;
+          for(var i = 0; i < columnCount; i++) {
+            result = op.applyAsLong(result, src[index++]);
+          }
+          dst[j] = result;
+        }
+      }
+
+      void foldColumn(long[] dst, long[] src, int outerCount, int rowCount, int columnCount) {
+        // prologue
+        var zero = (long) HOLE1;
+        var op = (LongBinaryOperator) HOLE2;
+        var binary = (Binary) HOLE3;
+
+        // main, each lane folds its own column so the order of the operations is preserved
+        var limit = columnCount - (columnCount % SPECIES.length());
+        for(var k = 0; k < outerCount; k++) {
+          var dstOffset = k * columnCount;
+          var srcOffset = k * rowCount * columnCount;
+          Arrays.fill(dst, dstOffset, dstOffset + columnCount, zero);
+          for(var j = 0; j < rowCount; j++) {
+            var rowOffset = srcOffset + j * columnCount;
+            var i = 0;
+            for(; i < limit; i += SPECIES.length()) {             // accumulate lane wise
+              var acc = LongVector.fromArray(SPECIES, dst, dstOffset + i);
+              var vector = LongVector.fromArray(SPECIES, src, rowOffset + i);
+              acc.lanewise(binary, vector).intoArray(dst, dstOffset + i);
+            }
+            for(; i < columnCount; i++) {                         // post loop
+              dst[dstOffset + i] = op.applyAsLong(dst[dstOffset + i], src[rowOffset + i]);
+            }
+          }
+        }
+      }
+    }
+  }
+}
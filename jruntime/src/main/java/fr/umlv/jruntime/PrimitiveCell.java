@@ -0,0 +1,221 @@
+package fr.umlv.jruntime;
+
+import static java.util.Objects.requireNonNull;
+
+import fr.umlv.jruntime.Cell.Dyad;
+import fr.umlv.jruntime.Cell.Dyads;
+import fr.umlv.jruntime.Cell.Fold;
+import fr.umlv.jruntime.Cell.Monad;
+import fr.umlv.jruntime.Cell.Monads;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Objects;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorOperators.Binary;
+import jdk.incubator.vector.VectorOperators.Unary;
+
+// the part of LongCell, FloatCell and DoubleCell that does not depend on the type of the values,
+// A is the type of the array of values
+abstract class PrimitiveCell<A, C extends PrimitiveCell<A, C>> {
+  final int[] dims;
+  final A data;
+
+  PrimitiveCell(int[] dims, A data) {
+    this.dims = dims;
+    this.data = data;
+  }
+
+  abstract C newCell(int[] dims, A data);
+  abstract A newArray(int length);
+  abstract void fill(A data, int count);
+  // null if the monad/dyad is not supported on this type
+  abstract Template<A> template(Monads monads);
+  abstract Template<A> template(Dyads dyads);
+  abstract String typeName();
+
+  // the values are repeated to fill the new dims
+  C reshape(int[] dims, int elements) {
+    var length = Array.getLength(data);
+    if (length == 0 && elements != 0) {
+      throw new IllegalArgumentException("can not reshape an empty cell to " + Arrays.toString(dims));
+    }
+    var newData = newArray(elements);
+    for(var i = 0; i < elements; i += length) {
+      System.arraycopy(data, 0, newData, i, Math.min(length, elements - i));
+    }
+    return newCell(dims, newData);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof PrimitiveCell<?, ?> cell && getClass() == cell.getClass()
+        && Arrays.equals(dims, cell.dims) && Objects.deepEquals(data, cell.data);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(dims) ^ Arrays.deepHashCode(new Object[] { data });
+  }
+
+  public C apply(Monad monad) {
+    requireNonNull(monad);
+    return newCell(dims, template(monad).applyUnary(data));
+  }
+
+  public C apply(Dyad dyad, C cell) {
+    requireNonNull(dyad);
+    if (!Arrays.equals(dims, cell.dims)) {  // implicit nullcheck
+      throw new IllegalArgumentException("not the same depths " + Arrays.toString(dims) + " " + Arrays.toString(cell.dims));
+    }
+    return newCell(dims, template(dyad).applyBinary(data, cell.data));
+  }
+
+  public C apply(Fold fold) {
+    if (fold.left() != null && fold.right() != null) { // implicit nullcheck
+      return apply(fold.left()).apply(fold.dyad(), apply(fold.right()));
+    }
+    var axis = Cell.foldAxis(dims, fold.rank());
+    var outerCount = Cell.product(dims, 0, axis);
+    var length = dims[axis];
+    var innerCount = Cell.product(dims, axis + 1, dims.length);
+    var newData = newArray(outerCount * innerCount);
+    var template = template(fold.dyad());
+    if (fold.dyad() == Dyads.COUNT) {
+      fill(newData, length);
+    } else if (innerCount != 1) {
+      template.foldColumn(newData, data, outerCount, length, innerCount);
+    } else if (template.isAssociative()) {
+      template.foldRowAssoc(newData, data, outerCount, length);
+    } else {
+      template.foldRowBinary(newData, data, outerCount, length);
+    }
+    return newCell(Cell.foldDims(dims, axis), newData);
+  }
+
+  /* for testing */ int[] dims() {
+    return dims.clone();
+  }
+
+
+  // --- kernels ---
+  private Template<A> template(Monad monad) {
+    if (!(monad instanceof Monads monads)) {
+      throw new IllegalArgumentException("only built-in monads are supported on " + typeName() + " cells, got " + monad);
+    }
+    var template = template(monads);
+    if (template == null) {
+      throw new IllegalArgumentException(monads + " is not supported on " + typeName() + " cells");
+    }
+    return template;
+  }
+
+  private Template<A> template(Dyad dyad) {
+    if (!(dyad instanceof Dyads dyads)) {
+      throw new IllegalArgumentException("only built-in dyads are supported on " + typeName() + " cells, got " + dyad);
+    }
+    var template = template(dyads);
+    if (template == null) {
+      throw new IllegalArgumentException(dyads + " is not supported on " + typeName() + " cells");
+    }
+    return template;
+  }
+
+  static Unary unaryVectorOp(Monads monads) {
+    return switch(monads) {
+      case ZOMO -> VectorOperators.ZOMO;
+      case NEG -> VectorOperators.NEG;
+      case ABS -> VectorOperators.ABS;
+      case NOT -> VectorOperators.NOT;
+    };
+  }
+
+  // COUNT has no lanewise operator, the snippets add one to the first value instead
+  static Binary binaryVectorOp(Dyads dyads) {
+    return switch(dyads) {
+      case ADD -> VectorOperators.ADD;
+      case SUB -> VectorOperators.SUB;
+      case MUL -> VectorOperators.MUL;
+      case DIV -> VectorOperators.DIV;
+      case MAX -> VectorOperators.MAX;
+      case MIN -> VectorOperators.MIN;
+      case AND -> VectorOperators.AND;
+      case AND_NOT -> VectorOperators.AND_NOT;
+      case OR -> VectorOperators.OR;
+      case XOR -> VectorOperators.XOR;
+      case COUNT -> null;
+    };
+  }
+
+  abstract static class Template<A> {
+    /*package private*/ Template() {
+      // empty constructor
+    }
+
+    abstract boolean isAssociative();
+    abstract A applyUnary(A src);
+    abstract A applyBinary(A src1, A src2);
+    abstract void foldRowAssoc(A dst, A src, int rowCount, int columnCount);
+    abstract void foldRowBinary(A dst, A src, int rowCount, int columnCount);
+    abstract void foldColumn(A dst, A src, int outerCount, int rowCount, int columnCount);
+  }
+
+  // the scalar kernels, the loops are shared by all the types, only the operation on one value is typed
+  abstract static class ScalarKernels<A> extends Template<A> {
+    /*package private*/ ScalarKernels() {
+      // empty constructor
+    }
+
+    abstract A newArray(int length);
+    // dst[dstIndex] = unaryOp(src[srcIndex])
+    abstract void unary(A dst, int dstIndex, A src, int srcIndex);
+    // dst[dstIndex] = binaryOp(src1[index1], src2[index2])
+    abstract void binary(A dst, int dstIndex, A src1, int index1, A src2, int index2);
+    // dst[from .. to] = zero
+    abstract void fillZero(A dst, int from, int to);
+
+    final boolean isAssociative() {
+      return false;
+    }
+
+    final A applyUnary(A src) {
+      var length = Array.getLength(src);
+      var data = newArray(length);
+      for(var i = 0; i < length; i++) {
+        unary(data, i, src, i);
+      }
+      return data;
+    }
+    final A applyBinary(A src1, A src2) {
+      var length = Array.getLength(src1);
+      var data = newArray(length);
+      for(var i = 0; i < length; i++) {
+        binary(data, i, src1, i, src2, i);
+      }
+      return data;
+    }
+    final void foldRowAssoc(A dst, A src, int rowCount, int columnCount) {
+      foldRowBinary(dst, src, rowCount, columnCount);
+    }
+    final void foldRowBinary(A dst, A src, int rowCount, int columnCount) {
+      fillZero(dst, 0, rowCount);
+      var index = 0;
+      for(var j = 0; j < rowCount; j++) {
+        for(var i = 0; i < columnCount; i++) {
+          binary(dst, j, dst, j, src, index++);
+        }
+      }
+    }
+    final void foldColumn(A dst, A src, int outerCount, int rowCount, int columnCount) {
+      for(var k = 0; k < outerCount; k++) {
+        var dstOffset = k * columnCount;
+        var srcOffset = k * rowCount * columnCount;
+        fillZero(dst, dstOffset, dstOffset + columnCount);
+        for(var j = 0; j < columnCount; j++) {
+          for(var i = 0; i < rowCount; i++) {
+            binary(dst, dstOffset + j, dst, dstOffset + j, src, srcOffset + i * columnCount + j);
+          }
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package fr.umlv.jruntime;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodHandles.Lookup.ClassOption;
+import java.lang.invoke.MethodType;
+
+final class Specializer {
+  record ClassData(Object hole1, Object hole2, Object hole3, Object hole4) {}
+
+  private final Lookup lookup;
+  private final byte[] data;
+
+  Specializer(Lookup lookup, Class<?> snippetClass) {
+    this.lookup = lookup;
+    try(var input = snippetClass.getResourceAsStream("/" + snippetClass.getName().replace('.', '/') + ".class")) {
+      if (input == null) {
+        throw new AssertionError("Snippet class " + snippetClass.getName() + " not found");
+      }
+      data = input.readAllBytes();
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  <T> T specialize(Class<T> templateClass, Object hole1, Object hole2, Object hole3) {
+    return specialize(templateClass, hole1, hole2, hole3, true);
+  }
+
+  // if not strong, the hidden class can be unloaded once the returned instance is unreachable
+  <T> T specialize(Class<T> templateClass, Object hole1, Object hole2, Object hole3, boolean strong) {
+    return specialize(templateClass, hole1, hole2, hole3, null, strong);
+  }
+
+  <T> T specialize(Class<T> templateClass, Object hole1, Object hole2, Object hole3, Object hole4, boolean strong) {
+    var classData = new ClassData(hole1, hole2, hole3, hole4);
+    var options = strong? new ClassOption[] { ClassOption.NESTMATE, ClassOption.STRONG }: new ClassOption[] { ClassOption.NESTMATE };
+
+    Lookup hiddenClassLookup;
+    try {
+      hiddenClassLookup = lookup.defineHiddenClassWithClassData(data, classData, true, options);
+    } catch (IllegalAccessException e) {
+      throw new AssertionError(e);
+    }
+
+    MethodHandle constructor;
+    try {
+      constructor = hiddenClassLookup.findConstructor(hiddenClassLookup.lookupClass(), MethodType.methodType(void.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new AssertionError(e);
+    }
+    try {
+      return templateClass.cast(constructor.invoke());
+    } catch(RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new AssertionError(e);
+    }
+  }
+}
@@ -9,6 +9,7 @@ import static fr.umlv.jruntime.Cell.Dyads.MIN;
 import static fr.umlv.jruntime.Cell.Dyads.MUL;
 import static fr.umlv.jruntime.Cell.Dyads.OR;
 import static fr.umlv.jruntime.Cell.Dyads.SUB;
+import static fr.umlv.jruntime.Cell.Dyads.XOR;
 import static fr.umlv.jruntime.Cell.Monads.NEG;
 import static fr.umlv.jruntime.Cell.Monads.ZOMO;
 import static java.util.stream.IntStream.range;
@@ -22,10 +23,15 @@ import fr.umlv.jruntime.Cell.Dyads;
 import fr.umlv.jruntime.Cell.Fold;
 import fr.umlv.jruntime.Cell.Monad;
 import fr.umlv.jruntime.Cell.Monads;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.nio.file.Files;
 import java.util.Arrays;
+import java.util.List;
 import java.util.function.Supplier;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import jdk.incubator.vector.VectorOperators;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -55,6 +61,28 @@ public class CellTest {
     assertEquals(Cell.of(4, 3, 2), r);
   }
   @Test
+  public void applyVectorUserDefinedVectorMonad() {
+    var monad = Monad.of(Integer::bitCount, VectorOperators.BIT_COUNT);
+    var a = Cell.of(1_000).iota();
+    var r = a.apply(monad);
+    assertEquals(Cell.of(range(0, 1_000).map(Integer::bitCount).toArray()), r);
+    assertEquals(r, a.lazy().apply(monad).evaluate());
+  }
+  @Test
+  public void applyCompositeMonad() {
+    // abs(x) * 3 + 1
+    var monad = Monad.identity().then(Monads.ABS).then(MUL, Monad.constant(3)).then(ADD, Monad.constant(1));
+    var a = Cell.of(range(-500, 500).toArray());
+    var expected = Cell.of(range(-500, 500).map(x -> Math.abs(x) * 3 + 1).toArray());
+    assertEquals(expected, a.apply(monad));
+    assertEquals(expected, a.lazy().apply(monad).evaluate());
+    assertEquals(expected, a.apply(Monad.identity().then(Monads.ABS).then(MUL, Monad.constant(3)).then(ADD, Monad.constant(1))));
+    var mixed = Monad.identity().then(ADD, Monad.of(x -> 2 * x));  // not compiled
+    assertEquals(Cell.of(range(-500, 500).map(x -> 3 * x).toArray()), a.apply(mixed));
+    var count = Monad.identity().then(COUNT, Monad.constant(0)).then(Monads.NEG);
+    assertEquals(Cell.of(range(-500, 500).map(x -> -(x + 1)).toArray()), a.apply(count));
+  }
+  @Test
   public void applyVectorMonadBig() {
     var a = Cell.of(1_000).iota();
     var r = a.apply(ZOMO);
@@ -80,6 +108,35 @@ public class CellTest {
     assertEquals(Cell.of(5, 12, 21), r);
   }
   @Test
+  public void applyVectorUserDefinedVectorDyad() {
+    var firstNonZero = Dyad.of(0, (a, b) -> a != 0? a: b, VectorOperators.FIRST_NONZERO);  // associative
+    var shift = Dyad.of(1, (a, b) -> a << b, VectorOperators.LSHL);
+    var max = Dyad.of(Integer.MIN_VALUE, Math::max, VectorOperators.MAX);
+    var a = Cell.of(10, 100).reshape(Cell.of(range(0, 1_000).map(x -> x % 7 == 0? 0: x % 5).toArray()));
+    for(var dyad: List.of(firstNonZero, shift, max)) {
+      var expected = Dyad.of(dyad.zero(), dyad);   // scalar only
+      assertEquals(a.apply(expected, a), a.apply(dyad, a));
+      assertEquals(a.apply(expected.fold()), a.apply(dyad.fold()));
+      for(var rank = 1; rank <= 2; rank++) {
+        assertEquals(a.apply(expected.fold(rank)), a.apply(dyad.fold(rank)));
+      }
+      var cube = Cell.of(10, 10, 10).reshape(a);
+      assertEquals(cube.apply(expected.fold(3)), cube.apply(dyad.fold(3)));
+    }
+  }
+  @Test
+  public void applyManyUserDefinedVectorDyads() {
+    // more dyads than the snippet cache can hold
+    var a = Cell.of(10, 100).iota();
+    for(var i = 0; i < 300; i++) {
+      var add = Dyad.of(0, Integer::sum, VectorOperators.ADD);
+      var max = Dyad.of(Integer.MIN_VALUE, Math::max, VectorOperators.MAX);
+      assertEquals(a.apply(ADD, a), a.apply(add, a));
+      assertEquals(a.apply(ADD.fold(1)), a.apply(add.fold(1)));
+      assertEquals(a.apply(MAX.fold(2)), a.apply(max.fold(2)));
+    }
+  }
+  @Test
   public void applyVectorDyadBig() {
     var a = Cell.of(1_000).iota();
     var r = a.apply(ADD, a);
@@ -204,6 +261,26 @@ public class CellTest {
     assertEquals(Cell.of(2), r);
   }
 
+  private static Stream<Cell> provideForkCells() {
+    var values = Cell.of(range(0, 2 * 3 * 1500).map(x -> x * 31 % 97 - 40).toArray());
+    return Stream.of(Cell.of(2 * 3 * 1500), Cell.of(6, 1500), Cell.of(2, 3, 1500), Cell.of(90, 100), Cell.of(3, 2, 30, 50))
+        .flatMap(dims -> Stream.of(dims.reshape(values), dims.reshape(values).lazy().apply(Monads.ABS)));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideForkCells")
+  public void applyFoldTermsSinglePass(Cell a) {
+    for(var rank = 1; rank <= a.dims().length; rank++) {
+      var mean = a.apply(ADD.fold(rank)).apply(DIV, a.apply(COUNT.fold(rank)));
+      assertEquals(mean, a.apply(ADD.fold(rank, DIV, COUNT)));
+      // (max - min) + (xor + mul), four folds
+      var fork = new Fold(rank, MAX.fold(rank, SUB, MIN), ADD, XOR.fold(rank, ADD, MUL));
+      var expected = a.apply(MAX.fold(rank)).apply(SUB, a.apply(MIN.fold(rank)))
+          .apply(ADD, a.apply(XOR.fold(rank)).apply(ADD, a.apply(MUL.fold(rank))));
+      assertEquals(expected, a.apply(fork));
+    }
+  }
+
 
   private static Stream<Monads> allMonads() { return Arrays.stream(Monads.values()); }
   private static Stream<Dyads> allDyads() { return Arrays.stream(Dyads.values()); }
@@ -260,6 +337,635 @@ public class CellTest {
   }
 
 
+  private static Stream<Arguments> provideNarrowCellsAndFolds() {
+    var random = new java.util.Random(0);
+    var bytes = Cell.of(random.ints(5 * 67, Byte.MIN_VALUE, Byte.MAX_VALUE + 1).toArray());
+    var shorts = Cell.of(random.ints(5 * 67, Short.MIN_VALUE, Short.MAX_VALUE + 1).toArray());
+    return Stream.of(bytes, shorts)
+        .flatMap(values -> Stream.of(Cell.of(5 * 67), Cell.of(5, 67), Cell.of(5, 1, 67)).map(dims -> dims.reshape(values).compress()))
+        .flatMap(cell -> Stream.of(ADD, MUL, MAX, MIN, AND, OR, Dyads.XOR, SUB, COUNT).map(dyads -> Arguments.of(cell, dyads.fold(1))));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideNarrowCellsAndFolds")
+  public void applyFoldNarrow(Cell a, Fold fold) {
+    var wide = a.apply(NEG).apply(NEG);  // same values stored as ints
+    assertEquals(wide, a);
+    assertEquals(wide.apply(fold), a.apply(fold));
+  }
+
+  private static Stream<Arguments> provideSegmentCellsAndMonads() {
+    var cell = Cell.of(range(-67, 67).toArray());
+    return allMonads().map(monads -> Arguments.of(cell, monads));
+  }
+  private static Stream<Arguments> provideSegmentCellsAndDyads() {
+    var left = Cell.of(range(-67, 67).toArray());
+    var right = Cell.of(range(0, 134).map(x -> x % 7 + 1).toArray());
+    return allDyads().map(dyads -> Arguments.of(left, dyads, right));
+  }
+  private static Stream<Arguments> provideSegmentCellsAndFolds() {
+    var values = Cell.of(range(-1000, 1000).map(x -> x * 1000).toArray());
+    var userDyads = List.of(Dyad.of(0, Integer::sum, VectorOperators.ADD), Dyad.of(0, (a, b) -> a - b, VectorOperators.SUB), Dyad.of(0, (a, b) -> a ^ b));
+    return Stream.of(Cell.of(2000), Cell.of(8, 250), Cell.of(4, 2, 250), Cell.of(2, 2, 2, 250)).map(dims -> dims.reshape(values))
+        .flatMap(cell -> Stream.concat(Stream.of(ADD, MUL, MAX, MIN, AND, OR, Dyads.XOR, SUB, Dyads.AND_NOT, COUNT), userDyads.stream())
+            .flatMap(dyad -> range(1, cell.dims().length + 1).mapToObj(rank -> Arguments.of(cell, dyad.fold(rank)))));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideSegmentCellsAndMonads")
+  public void applyMonadSegment(Cell a, Monads monads) {
+    try(var arena = Arena.ofConfined()) {
+      var segment = a.copyTo(arena);
+      assertEquals(a, segment);
+      assertEquals(a.apply(monads), segment.apply(monads));
+    }
+  }
+  @ParameterizedTest
+  @MethodSource("provideSegmentCellsAndDyads")
+  public void applyDyadSegment(Cell left, Dyads dyads, Cell right) {
+    try(var arena = Arena.ofConfined()) {
+      assertEquals(left.apply(dyads, right), left.copyTo(arena).apply(dyads, right.copyTo(arena)));
+      assertEquals(left.apply(dyads, right), left.copyTo(arena).apply(dyads, right));
+    }
+  }
+  @ParameterizedTest
+  @MethodSource("provideSegmentCellsAndFolds")
+  public void applyFoldSegment(Cell a, Fold fold) {
+    try(var arena = Arena.ofConfined()) {
+      assertEquals(a.apply(fold), a.copyTo(arena).apply(fold));
+    }
+  }
+
+  @Test
+  public void ofSegment() {
+    try(var arena = Arena.ofConfined()) {
+      var a = Cell.of(arena, 1, 2, 3);
+      assertEquals(Cell.of(1, 2, 3), a);
+      assertEquals(Cell.of(1, 2, 3).hashCode(), a.hashCode());
+      assertEquals("[ 1,  2,  3]", a.toString());
+    }
+  }
+
+  @Test
+  public void segmentAfterClose() {
+    Cell a;
+    try(var arena = Arena.ofConfined()) {
+      a = Cell.of(arena, 1, 2, 3);
+    }
+    assertThrows(IllegalStateException.class, () -> a.apply(ADD.fold()));
+  }
+
+  @Test
+  public void saveAndMap() throws IOException {
+    var path = Files.createTempFile("cell", ".bin");
+    try {
+      var a = Cell.of(3, 4, 67).iota();
+      a.save(path);
+      assertEquals((1 + 3 + 3 * 4 * 67) * Integer.BYTES, Files.size(path));
+      try(var arena = Arena.ofConfined()) {
+        var r = Cell.map(arena, path);
+        assertEquals(a, r);
+        assertEquals(a.apply(ADD.fold(1)), r.apply(ADD.fold(1)));
+        assertEquals(a.apply(MAX.fold(2)), r.apply(MAX.fold(2)));
+        assertEquals(a.apply(NEG), r.apply(NEG));
+
+        var path2 = Files.createTempFile("cell", ".bin");
+        try {
+          r.save(path2);
+          assertEquals(a, Cell.map(arena, path2));
+        } finally {
+          Files.delete(path2);
+        }
+      }
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void mapInvalidFile() throws IOException {
+    var path = Files.createTempFile("cell", ".bin");
+    try {
+      Files.write(path, new byte[] { 1, 0, 0, 0, 2, 0, 0, 0, 42, 0, 0, 0 });
+      try(var arena = Arena.ofConfined()) {
+        assertThrows(IllegalArgumentException.class, () -> Cell.map(arena, path));
+      }
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void sliceMatrix() {
+    var a = Cell.of(3, 4).iota();
+    assertEquals(Cell.of(4, 5, 6, 7), a.slice(1));
+    assertEquals(Cell.of(6), a.slice(1).slice(2));
+    assertThrows(IllegalArgumentException.class, () -> a.slice(3));
+  }
+
+  @Test
+  public void sliceCube() {
+    var a = Cell.of(2, 3, 4).iota();
+    var r = a.slice(1);
+    assertEquals(Cell.of(3, 4).reshape(Cell.of(range(12, 24).toArray())), r);
+    assertEquals(Cell.of(12 + 13 + 14 + 15, 16 + 17 + 18 + 19, 20 + 21 + 22 + 23), r.apply(ADD.fold(1)));
+    assertEquals(Cell.of(12 + 16 + 20, 13 + 17 + 21, 14 + 18 + 22, 15 + 19 + 23), r.apply(ADD.fold(2)));
+  }
+
+  @Test
+  public void transpose() {
+    var a = Cell.of(2, 3).iota();
+    var r = a.transpose();
+    assertEquals("""
+        [ 0,  3
+          1,  4
+          2,  5]\
+        """, r.toString());
+    assertEquals(a, r.transpose());
+    assertEquals(Cell.of(1, 4), r.slice(1));
+  }
+
+  private static Stream<Arguments> provideTransposedCellsAndFolds() {
+    var values = Cell.of(range(0, 5 * 6 * 67).map(x -> x * 31 % 1000).toArray());
+    return Stream.of(Cell.of(6, 67).reshape(values), Cell.of(5, 6, 67).reshape(values), Cell.of(5, 6, 67).reshape(values).slice(3))
+        .map(Cell::transpose)
+        .flatMap(cell -> Stream.of(ADD, MAX, MIN, Dyads.XOR, COUNT)
+            .flatMap(dyads -> range(1, cell.dims().length + 1).mapToObj(rank -> Arguments.of(cell, dyads.fold(rank)))));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideTransposedCellsAndFolds")
+  public void applyFoldTransposed(Cell a, Fold fold) {
+    var dense = a.apply(NEG).apply(NEG);
+    assertEquals(dense, a);
+    assertEquals(dense.apply(fold), a.apply(fold));
+  }
+
+  @Test
+  public void iotaRank4() {
+    var a = Cell.of(2, 2, 2, 3).iota();
+    assertEquals("""
+        [ 0,  1,  2
+          3,  4,  5
+
+          6,  7,  8
+          9, 10, 11
+
+
+         12, 13, 14
+         15, 16, 17
+
+         18, 19, 20
+         21, 22, 23]\
+        """, a.toString());
+  }
+
+  private static Stream<Arguments> provideTensorsAndDyads() {
+    var values = Cell.of(range(0, 2 * 3 * 4 * 5 * 6).map(x -> x * 17 % 201 - 100).toArray());
+    return Stream.of(Cell.of(2, 3, 4, 5), Cell.of(2, 3, 4, 5, 6))
+        .map(dims -> dims.reshape(values))
+        .flatMap(cell -> Stream.of(ADD, MAX, MIN, Dyads.XOR, SUB, COUNT).map(dyads -> Arguments.of(cell, dyads)));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideTensorsAndDyads")
+  public void applyFoldTensor(Cell a, Dyads dyads) {
+    var dims = a.dims();
+    for(var rank = 1; rank < dims.length; rank++) {
+      // folding an inner axis is folding the same axis of each slice
+      var r = a.apply(dyads.fold(rank));
+      for(var k = 0; k < dims[0]; k++) {
+        assertEquals(a.slice(k).apply(dyads.fold(rank)), r.slice(k));
+      }
+    }
+    // folding the outer axis is combining the slices
+    var expected = a.slice(0).apply(Monad.of(x -> dyads.zero()));
+    for(var k = 0; k < dims[0]; k++) {
+      expected = expected.apply(dyads, a.slice(k));
+    }
+    assertEquals(expected, a.apply(dyads.fold(dims.length)));
+    assertEquals(expected, a.apply(dyads.fold()));
+  }
+
+  private static Stream<Cell> allBooleanCells() {
+    var values = Cell.of(range(0, 3 * 5 * 67).map(x -> x * 7 % 3 == 0? 0: 1).toArray());
+    return Stream.of(Cell.of(3 * 5 * 67), Cell.of(15, 67), Cell.of(3, 5, 67), Cell.of(5, 201)).map(dims -> dims.reshape(values));
+  }
+  private static Stream<Arguments> provideBooleanCellsAndDyads() {
+    return allBooleanCells().flatMap(cell -> allDyads().filter(dyads -> dyads != Dyads.DIV).map(dyads -> Arguments.of(cell, dyads)));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideBooleanCellsAndDyads")
+  public void applyBooleans(Cell a, Dyads dyads) {
+    var booleans = a.apply(ZOMO).compress();
+    var ints = a.apply(Monad.of(x -> x == 0? 0: -1));   // same values stored as ints
+    assertEquals(ints, booleans);
+    assertEquals(ints.apply(Monads.NOT), booleans.apply(Monads.NOT));
+    var other = booleans.apply(Monads.NOT).transpose().transpose();
+    assertEquals(ints.apply(dyads, other), booleans.apply(dyads, booleans.apply(Monads.NOT)));
+    for(var rank = 1; rank <= a.dims().length; rank++) {
+      assertEquals(ints.apply(dyads.fold(rank)), booleans.apply(dyads.fold(rank)));
+    }
+  }
+
+  @Test
+  public void foldBooleansADD() {
+    var a = Cell.of(1000).iota().apply(ZOMO).compress();
+    assertEquals(Cell.of(-999), a.apply(ADD.fold()));
+    assertEquals(Cell.of(0), Cell.of(5).iota().apply(ZOMO).apply(Dyads.XOR.fold()));
+    assertEquals(Cell.of(-1), Cell.of(6).iota().apply(ZOMO).apply(Dyads.XOR.fold()));
+  }
+
+  private static Stream<Cell> allSparseCells() {
+    var values = Cell.of(range(0, 4 * 5 * 67).map(x -> x % 53 == 0? x - 500: 0).toArray());
+    return Stream.of(Cell.of(4 * 5 * 67), Cell.of(20, 67), Cell.of(4, 5, 67), Cell.of(2, 2, 5, 67)).map(dims -> dims.reshape(values).compress());
+  }
+  private static Stream<Arguments> provideSparseCellsAndDyads() {
+    return allSparseCells().flatMap(cell -> allDyads().filter(dyads -> dyads != DIV).map(dyads -> Arguments.of(cell, dyads)));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideSparseCellsAndDyads")
+  public void applySparse(Cell a, Dyads dyads) {
+    var dense = a.apply(Monad.of(x -> x));   // same values stored densely
+    assertEquals(dense, a);
+    assertEquals(dense.apply(NEG), a.apply(NEG));
+    var other = a.apply(Monads.ABS);
+    assertEquals(dense.apply(dyads, other), a.apply(dyads, other));
+    for(var rank = 1; rank <= a.dims().length; rank++) {
+      assertEquals(dense.apply(dyads.fold(rank)), a.apply(dyads.fold(rank)));
+      assertEquals(dense.transpose().apply(dyads.fold(rank)), a.transpose().apply(dyads.fold(rank)));
+    }
+  }
+
+  @Test
+  public void sparseToDense() {
+    var a = Cell.of(range(0, 1000).map(x -> x % 25 == 0? 1: 0).toArray()).compress();
+    var b = Cell.of(range(0, 1000).map(x -> x % 25 == 1? 2: 0).toArray()).compress();
+    var r = a.apply(ADD, b);
+    assertEquals(Cell.of(range(0, 1000).map(x -> x % 25 == 0? 1: x % 25 == 1? 2: 0).toArray()), r);
+    assertEquals(Cell.of(120), r.apply(ADD.fold()));
+  }
+
+  private static Stream<Cell> allCompressedCells() {
+    var runs = Cell.of(range(0, 4 * 5 * 67).map(x -> (x / 30) * 1000 - 5000).toArray());
+    var dictionary = Cell.of(range(0, 4 * 5 * 67).map(x -> (x * 7 % 5) * 100_000 - 170_000).toArray());
+    // 256 different values, the largest dictionary, with values that collide in the hash table
+    var fullDictionary = Cell.of(range(0, 4 * 5 * 67).map(x -> (x * 7 % 256 - 128) << 24).toArray());
+    return Stream.of(runs, dictionary, fullDictionary)
+        .flatMap(values -> Stream.of(Cell.of(4 * 5 * 67), Cell.of(20, 67), Cell.of(4, 5, 67), Cell.of(2, 2, 5, 67)).map(dims -> dims.reshape(values).compress()));
+  }
+  private static Stream<Arguments> provideCompressedCellsAndDyads() {
+    return allCompressedCells().flatMap(cell -> allDyads().filter(dyads -> dyads != DIV).map(dyads -> Arguments.of(cell, dyads)));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideCompressedCellsAndDyads")
+  public void applyCompressed(Cell a, Dyads dyads) {
+    var dense = a.apply(Monad.of(x -> x));   // same values stored densely
+    assertEquals(dense, a);
+    assertEquals(dense.apply(NEG), a.apply(NEG));
+    assertEquals(dense.apply(dyads, a), a.apply(dyads, a));
+    for(var rank = 1; rank <= a.dims().length; rank++) {
+      assertEquals(dense.apply(dyads.fold(rank)), a.apply(dyads.fold(rank)));
+      assertEquals(dense.apply(NEG).apply(dyads.fold(rank)), a.apply(NEG).apply(dyads.fold(rank)));
+    }
+  }
+
+  private static Stream<Arguments> provideLazyCellsAndDyads() {
+    // rows that are smaller and larger than a tile
+    var values = Cell.of(range(0, 2 * 3 * 1500).map(x -> x * 31 % 97 - 40).toArray());
+    return Stream.of(Cell.of(2 * 3 * 1500), Cell.of(6, 1500), Cell.of(2, 3, 1500), Cell.of(90, 100), Cell.of(3, 2, 30, 50))
+        .map(dims -> dims.reshape(values))
+        .flatMap(cell -> allDyads().filter(dyads -> dyads != DIV).map(dyads -> Arguments.of(cell, dyads)));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideLazyCellsAndDyads")
+  public void applyLazy(Cell a, Dyads dyads) {
+    var eager = a.apply(NEG).apply(dyads, a).apply(Monads.ABS);
+    var lazy = a.lazy().apply(NEG).apply(dyads, a).apply(Monads.ABS);
+    assertEquals(eager, lazy);
+    assertEquals(eager, lazy.evaluate());
+    for(var rank = 1; rank <= a.dims().length; rank++) {
+      assertEquals(eager.apply(dyads.fold(rank)), lazy.apply(dyads.fold(rank)));
+    }
+    assertEquals(eager.apply(dyads.fold()), lazy.apply(dyads.fold()));
+  }
+
+  @Test
+  public void applyLazySlice() {
+    var a = Cell.of(4, 700).iota().lazy().apply(ADD, Cell.of(4, 700).iota()).apply(NEG);
+    assertEquals(Cell.of(700).reshape(Cell.of(range(1400, 2100).map(x -> -2 * x).toArray())), a.slice(2));
+    assertEquals(Cell.of(range(1400, 2100).map(x -> -2 * x).sum()), a.slice(2).apply(ADD.fold()));
+  }
+
+  // large enough to be split by the parallel backend (-Dfr.umlv.jruntime.parallel=true)
+  @Test
+  public void applyLarge() {
+    var values = range(0, 400 * 1000).map(x -> x * 31 % 97 - 40).toArray();
+    var a = Cell.of(values);
+    assertEquals(Cell.of(Arrays.stream(values).sum()), a.apply(ADD.fold()));
+    assertEquals(Cell.of(Arrays.stream(values).map(x -> -x).max().orElseThrow()), a.apply(NEG).apply(MAX.fold()));
+    assertEquals(Cell.of(2 * Arrays.stream(values).sum()), a.apply(ADD, a).apply(ADD.fold()));
+
+    var matrix = Cell.of(400, 1000).reshape(a);
+    var rows = range(0, 400).map(i -> Arrays.stream(values, i * 1000, (i + 1) * 1000).sum()).toArray();
+    assertEquals(Cell.of(rows), matrix.apply(ADD.fold(1)));
+    assertEquals(Cell.of(rows), matrix.compress().apply(ADD.fold(1)));
+    var columns = range(0, 1000).map(j -> range(0, 400).map(i -> values[i * 1000 + j]).sum()).toArray();
+    assertEquals(Cell.of(columns), matrix.apply(ADD.fold(2)));
+
+    var cube = Cell.of(4, 100, 1000).reshape(a);
+    var planes = range(0, 100 * 1000).map(index -> range(0, 4).map(k -> values[k * 100 * 1000 + index]).sum()).toArray();
+    assertEquals(Cell.of(100, 1000).reshape(Cell.of(planes)), cube.apply(ADD.fold(3)));
+    for(var arena: List.of(Arena.ofConfined(), Arena.ofShared())) {
+      try(arena) {
+        assertEquals(Cell.of(columns), matrix.copyTo(arena).apply(ADD.fold(2)));
+        assertEquals(Cell.of(100, 1000).reshape(Cell.of(planes)), cube.copyTo(arena).apply(ADD.fold(3)));
+      }
+    }
+
+    var prefix = values.clone();
+    Arrays.parallelPrefix(prefix, Integer::sum);
+    assertEquals(Cell.of(prefix), a.apply(ADD.scan()));
+    var rowPrefix = values.clone();
+    for(var i = 0; i < 400; i++) {
+      Arrays.parallelPrefix(rowPrefix, i * 1000, (i + 1) * 1000, Math::max);
+    }
+    assertEquals(Cell.of(400, 1000).reshape(Cell.of(rowPrefix)), matrix.apply(MAX.scan(1)));
+    var columnPrefix = values.clone();
+    for(var index = 1000; index < columnPrefix.length; index++) {
+      columnPrefix[index] += columnPrefix[index - 1000];
+    }
+    assertEquals(Cell.of(400, 1000).reshape(Cell.of(columnPrefix)), matrix.apply(ADD.scan(2)));
+
+    var products = range(0, 400 * 1000).map(index -> values[index / 1000] * values[index % 1000]).toArray();
+    assertEquals(Cell.of(400, 1000).reshape(Cell.of(products)), Cell.of(Arrays.copyOf(values, 400)).outer(MUL, Cell.of(Arrays.copyOf(values, 1000))));
+
+    var left = Cell.of(200, 300).reshape(a);
+    var right = Cell.of(300, 400).reshape(a);
+    var product = range(0, 200 * 400).map(index -> range(0, 300).map(k -> values[index / 400 * 300 + k] * values[k * 400 + index % 400]).sum()).toArray();
+    assertEquals(Cell.of(200, 400).reshape(Cell.of(product)), left.inner(ADD, MUL, right));
+
+    var transposed = range(0, 400 * 1000).map(index -> values[index % 400 * 1000 + index / 400]).toArray();
+    assertEquals(Cell.of(1000, 400).reshape(Cell.of(transposed)), matrix.permute(1, 0));
+    assertEquals(Cell.of(1000, 400).reshape(Cell.of(transposed)), matrix.transpose());
+    var planesTransposed = range(0, 400 * 1000).map(index -> values[index / 1000 * 1000 + index % 1000 % 100 * 10 + index % 1000 / 100]).toArray();
+    assertEquals(Cell.of(400, 10, 100).reshape(Cell.of(planesTransposed)), Cell.of(400, 100, 10).reshape(a).transpose());
+
+    var sorted = values.clone();
+    Arrays.sort(sorted);
+    assertEquals(Cell.of(sorted), a.sortUp(1));
+    var grades = range(0, 400 * 1000).boxed()
+        .sorted((i, j) -> Integer.compare(values[j], values[i]))
+        .mapToInt(i -> i).toArray();
+    assertEquals(Cell.of(grades), a.gradeDown(1));
+    var sortedRows = values.clone();
+    for(var i = 0; i < 400; i++) {
+      Arrays.sort(sortedRows, i * 1000, (i + 1) * 1000);
+    }
+    assertEquals(Cell.of(400, 1000).reshape(Cell.of(sortedRows)), matrix.sortUp(1));
+  }
+
+  private static Stream<Arguments> provideMatrixDimsAndDyads() {
+    return Stream.of(new int[] { 7, 3 }, new int[] { 5, 33 }, new int[] { 40, 1000 })
+        .flatMap(dims -> allDyads().map(dyads -> Arguments.of(dims[0], dims[1], dyads)));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideMatrixDimsAndDyads")
+  public void applyFoldColumns(int rowCount, int columnCount, Dyads dyads) {
+    var data = range(0, rowCount * columnCount).map(x -> x * 31 % 97 + 1).toArray();
+    var expected = range(0, columnCount)
+        .map(j -> range(0, rowCount).map(i -> data[i * columnCount + j]).reduce(dyads.zero(), dyads))
+        .toArray();
+    var a = Cell.of(rowCount, columnCount).reshape(Cell.of(data));
+    assertEquals(Cell.of(expected), a.apply(dyads.fold(2)));
+    var cube = Cell.of(2, rowCount, columnCount).reshape(Cell.of(IntStream.concat(Arrays.stream(data), Arrays.stream(data)).toArray()));
+    assertEquals(Cell.of(2, columnCount).reshape(Cell.of(IntStream.concat(Arrays.stream(expected), Arrays.stream(expected)).toArray())),
+        cube.apply(dyads.fold(2)));
+  }
+
+  // rows long enough to use all the accumulators of an unrolled fold, and their leftovers
+  private static Stream<Arguments> provideLongRowDimsAndDyads() {
+    return Stream.of(new int[] { 3, 130 }, new int[] { 2, 1001 }, new int[] { 1, 4099 })
+        .flatMap(dims -> Stream.of(ADD, MUL, MAX, MIN, AND, OR, XOR).map(dyads -> Arguments.of(dims[0], dims[1], dyads)));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideLongRowDimsAndDyads")
+  public void applyFoldLongRows(int rowCount, int columnCount, Dyads dyads) {
+    var data = range(0, rowCount * columnCount).map(x -> x * 31 % 97 + 1).toArray();
+    var expected = range(0, rowCount)
+        .map(i -> Arrays.stream(data, i * columnCount, (i + 1) * columnCount).reduce(dyads.zero(), dyads))
+        .toArray();
+    var a = Cell.of(rowCount, columnCount).reshape(Cell.of(data));
+    assertEquals(Cell.of(expected), a.apply(dyads.fold(1)));
+    assertEquals(Cell.of(Arrays.stream(data).reduce(dyads.zero(), dyads)), Cell.of(data).apply(dyads.fold()));
+  }
+
+  private static Stream<Arguments> provideDimsAndDyads() {
+    return Stream.of(new int[] { 7 }, new int[] { 1001 }, new int[] { 5, 33 }, new int[] { 40, 100 }, new int[] { 3, 7, 19 }, new int[] { 2, 3, 4, 5 })
+        .flatMap(dims -> allDyads().map(dyads -> Arguments.of(dims, dyads)));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideDimsAndDyads")
+  public void applyScan(int[] dims, Dyads dyads) {
+    var length = Arrays.stream(dims).reduce(1, (a, b) -> a * b);
+    var data = range(0, length).map(x -> x * 31 % 97 + 1).toArray();
+    var a = Cell.of(dims).reshape(Cell.of(data));
+    for(var rank = 1; rank <= dims.length; rank++) {
+      var axis = dims.length - rank;
+      var stride = Arrays.stream(dims, axis + 1, dims.length).reduce(1, (x, y) -> x * y);
+      var expected = new int[length];
+      for(var i = 0; i < length; i++) {
+        var previous = (i / stride) % dims[axis] == 0? dyads.zero(): expected[i - stride];
+        expected[i] = dyads.applyAsInt(previous, data[i]);
+      }
+      assertEquals(Cell.of(dims).reshape(Cell.of(expected)), a.apply(dyads.scan(rank)));
+    }
+  }
+
+  @Test
+  public void applyScanTransposedAndLazy() {
+    var a = Cell.of(3, 4).iota();
+    assertEquals(a.transpose().apply(ADD.scan(1)).transpose(), a.apply(ADD.scan(2)));
+    assertEquals(a.apply(NEG).apply(MAX.scan(1)), a.lazy().apply(NEG).apply(MAX.scan(1)));
+    assertEquals(Cell.of(1, 3, 6, 10), Cell.of(1, 2, 3, 4).apply(ADD.scan()));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideMatrixDimsAndDyads")
+  public void applyOuter(int length1, int length2, Dyads dyads) {
+    var data1 = range(0, length1).map(x -> x * 31 % 97 + 1).toArray();
+    var data2 = range(0, length2).map(x -> x * 17 % 89 + 1).toArray();
+    var expected = range(0, length1 * length2).map(index -> dyads.applyAsInt(data1[index / length2], data2[index % length2])).toArray();
+    assertEquals(Cell.of(length1, length2).reshape(Cell.of(expected)), Cell.of(data1).outer(dyads, Cell.of(data2)));
+    var matrix = Cell.of(2, length1).reshape(Cell.of(IntStream.concat(Arrays.stream(data1), Arrays.stream(data1)).toArray()));
+    assertEquals(Cell.of(2, length1, length2).reshape(Cell.of(IntStream.concat(Arrays.stream(expected), Arrays.stream(expected)).toArray())),
+        matrix.outer(dyads, Cell.of(data2)));
+  }
+
+  private static Stream<Arguments> provideInnerDimsAndDyads() {
+    return Stream.of(new int[] { 3, 5, 7 }, new int[] { 17, 33, 19 }, new int[] { 66, 300, 70 }, new int[] { 9, 2, 600 })
+        .flatMap(dims -> Stream.of(new Dyads[] { ADD, MUL }, new Dyads[] { MAX, ADD }, new Dyads[] { MIN, ADD }, new Dyads[] { OR, AND },
+                new Dyads[] { SUB, MUL }, new Dyads[] { MUL, DIV }, new Dyads[] { ADD, COUNT }, new Dyads[] { COUNT, MUL })
+            .map(dyads -> Arguments.of(dims, dyads[0], dyads[1])));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideInnerDimsAndDyads")
+  public void applyInner(int[] dims, Dyads fold, Dyads dyad) {
+    int rowCount = dims[0], innerCount = dims[1], columnCount = dims[2];
+    var data1 = range(0, rowCount * innerCount).map(x -> x * 31 % 97 - 40).toArray();
+    var data2 = range(0, innerCount * columnCount).map(x -> x * 17 % 89 + 1).toArray();
+    var expected = range(0, rowCount * columnCount)
+        .map(index -> range(0, innerCount)
+            .map(k -> dyad.applyAsInt(data1[index / columnCount * innerCount + k], data2[k * columnCount + index % columnCount]))
+            .reduce(fold.zero(), fold))
+        .toArray();
+    var a = Cell.of(rowCount, innerCount).reshape(Cell.of(data1));
+    var b = Cell.of(innerCount, columnCount).reshape(Cell.of(data2));
+    assertEquals(Cell.of(rowCount, columnCount).reshape(Cell.of(expected)), a.inner(fold, dyad, b));
+  }
+
+  @Test
+  public void applyInnerInvalid() {
+    var a = Cell.of(2, 3).iota();
+    assertThrows(IllegalArgumentException.class, () -> a.inner(ADD, MUL, a));
+    assertThrows(IllegalArgumentException.class, () -> a.inner(ADD, MUL, Cell.of(3).iota()));
+    assertEquals(a.transpose().inner(ADD, MUL, a), a.transpose().evaluate().inner(ADD, MUL, a));
+  }
+
+  private static Stream<Arguments> provideDimsAndAxes() {
+    return Stream.of(new int[] { 7, 70 }, new int[] { 3, 9, 66 }, new int[] { 5, 2, 3, 13 })
+        .flatMap(dims -> permutations(dims.length).map(axes -> Arguments.of(dims, axes)));
+  }
+  private static Stream<int[]> permutations(int length) {
+    if (length == 0) {
+      return Stream.of(new int[0]);
+    }
+    return permutations(length - 1).flatMap(permutation -> range(0, length).mapToObj(position -> {
+      var axes = new int[length];
+      System.arraycopy(permutation, 0, axes, 0, position);
+      axes[position] = length - 1;
+      System.arraycopy(permutation, position, axes, position + 1, length - 1 - position);
+      return axes;
+    }));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideDimsAndAxes")
+  public void applyPermute(int[] dims, int[] axes) {
+    var length = Arrays.stream(dims).reduce(1, (a, b) -> a * b);
+    var a = Cell.of(dims).iota();
+    var newDims = Arrays.stream(axes).map(axis -> dims[axis]).toArray();
+    var expected = new int[length];
+    for(var index = 0; index < length; index++) {
+      // index in the result to index in the cell
+      var srcIndex = 0;
+      var rest = index;
+      for(var i = newDims.length - 1; i >= 0; i--) {
+        var stride = Arrays.stream(dims, axes[i] + 1, dims.length).reduce(1, (x, y) -> x * y);
+        srcIndex += (rest % newDims[i]) * stride;
+        rest /= newDims[i];
+      }
+      expected[index] = srcIndex;
+    }
+    assertEquals(Cell.of(newDims).reshape(Cell.of(expected)), a.permute(axes));
+  }
+
+  @Test
+  public void applyPermuteTranspose() {
+    var a = Cell.of(3, 50, 70).iota();
+    assertEquals(a.transpose(), a.permute(0, 2, 1));
+    assertEquals(a, a.permute(0, 1, 2));
+    assertThrows(IllegalArgumentException.class, () -> a.permute(0, 1));
+    assertThrows(IllegalArgumentException.class, () -> a.permute(0, 1, 1));
+    assertThrows(IllegalArgumentException.class, () -> a.permute(0, 1, 3));
+  }
+
+  private static Stream<int[]> provideSortDims() {
+    return Stream.of(new int[] { 1 }, new int[] { 100 }, new int[] { 1000 }, new int[] { 7, 3 }, new int[] { 3, 200 }, new int[] { 5, 7, 3 }, new int[] { 2, 3, 130 });
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideSortDims")
+  public void applySortAndGrade(int[] dims) {
+    var length = Arrays.stream(dims).reduce(1, (a, b) -> a * b);
+    var data = range(0, length).map(x -> x % 5 == 0? Integer.MIN_VALUE: x % 7 == 0? Integer.MAX_VALUE: x * 31 % 97 - 40).toArray();
+    var a = Cell.of(dims).reshape(Cell.of(data));
+    for(var rank = 1; rank <= dims.length; rank++) {
+      var axis = dims.length - rank;
+      var stride = Arrays.stream(dims, axis + 1, dims.length).reduce(1, (x, y) -> x * y);
+      var axisLength = dims[axis];
+      var sortedUp = new int[length];
+      var sortedDown = new int[length];
+      var gradedUp = new int[length];
+      var gradedDown = new int[length];
+      for(var index = 0; index < length; index++) {
+        if ((index / stride) % axisLength != 0) {
+          continue;
+        }
+        // index is the first value of a line along the axis
+        var first = index;
+        var up = range(0, axisLength).boxed()
+            .sorted((i, j) -> Integer.compare(data[first + i * stride], data[first + j * stride]))
+            .mapToInt(i -> i).toArray();
+        var down = range(0, axisLength).boxed()
+            .sorted((i, j) -> Integer.compare(data[first + j * stride], data[first + i * stride]))
+            .mapToInt(i -> i).toArray();
+        for(var i = 0; i < axisLength; i++) {
+          sortedUp[first + i * stride] = data[first + up[i] * stride];
+          sortedDown[first + i * stride] = data[first + down[i] * stride];
+          gradedUp[first + i * stride] = up[i];
+          gradedDown[first + i * stride] = down[i];
+        }
+      }
+      assertEquals(Cell.of(dims).reshape(Cell.of(sortedUp)), a.sortUp(rank));
+      assertEquals(Cell.of(dims).reshape(Cell.of(sortedDown)), a.sortDown(rank));
+      assertEquals(Cell.of(dims).reshape(Cell.of(gradedUp)), a.gradeUp(rank));
+      assertEquals(Cell.of(dims).reshape(Cell.of(gradedDown)), a.gradeDown(rank));
+    }
+  }
+
+  @Test
+  public void applySortAndGradeLazy() {
+    var a = Cell.of(3, 4).reshape(Cell.of(5, 1, 4, 1, 3, 9, 2, 6, 5, 3, 5, 8));
+    assertEquals(Cell.of(3, 4).reshape(Cell.of(1, 1, 4, 5, 2, 3, 6, 9, 3, 5, 5, 8)), a.sortUp(1));
+    assertEquals(Cell.of(3, 4).reshape(Cell.of(1, 3, 2, 0, 2, 0, 3, 1, 1, 0, 2, 3)), a.gradeUp(1));
+    assertEquals(Cell.of(3, 4).reshape(Cell.of(0, 2, 1, 3, 1, 3, 0, 2, 3, 0, 2, 1)), a.gradeDown(1));
+    assertEquals(a.transpose().sortDown(1).transpose(), a.sortDown(2));
+    assertEquals(a.apply(NEG).gradeUp(2), a.lazy().apply(NEG).gradeUp(2));
+  }
+
+  private static Stream<Arguments> provideCubeDimsAndDyads() {
+    return Stream.of(new int[] { 3, 7, 3 }, new int[] { 4, 50, 71 })
+        .flatMap(dims -> allDyads().map(dyads -> Arguments.of(dims[0], dims[1], dims[2], dyads)));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideCubeDimsAndDyads")
+  public void applyFoldPlanes(int planeCount, int rowCount, int columnCount, Dyads dyads) {
+    var matrixSize = rowCount * columnCount;
+    var data = range(0, planeCount * matrixSize).map(x -> x * 31 % 97 + 1).toArray();
+    var expected = range(0, matrixSize)
+        .map(index -> range(0, planeCount).map(k -> data[k * matrixSize + index]).reduce(dyads.zero(), dyads))
+        .toArray();
+    var a = Cell.of(planeCount, rowCount, columnCount).reshape(Cell.of(data));
+    assertEquals(Cell.of(rowCount, columnCount).reshape(Cell.of(expected)), a.apply(dyads.fold(3)));
+  }
+
+  @Test
+  public void testApplyVectorFoldAND() {
+    var a = Cell.of(100).iota().apply(Monads.NOT);
+    var r = a.apply(AND.fold());
+    assertEquals(Cell.of(~127), r);
+  }
+
   @Test
   public void iota() {
     var a = Cell.of(4, 3).iota();
@@ -0,0 +1,108 @@
+package fr.umlv.jruntime;
+
+import static fr.umlv.jruntime.Cell.Dyads.ADD;
+import static fr.umlv.jruntime.Cell.Dyads.COUNT;
+import static fr.umlv.jruntime.Cell.Dyads.DIV;
+import static fr.umlv.jruntime.Cell.Dyads.MAX;
+import static fr.umlv.jruntime.Cell.Dyads.MIN;
+import static fr.umlv.jruntime.Cell.Monads.NEG;
+import static java.util.stream.IntStream.range;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import fr.umlv.jruntime.Cell.Dyad;
+import fr.umlv.jruntime.Cell.Dyads;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.foreign.Arena;
+import java.nio.file.Files;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+public class ChunkedCellTest {
+  private static ChunkedCell chunks(Cell cell) {
+    // one chunk per index of the first axis
+    return ChunkedCell.of(range(0, cell.dims()[0]).mapToObj(cell::slice)
+        .map(slice -> Cell.of(IntStream.concat(IntStream.of(1), IntStream.of(slice.dims())).toArray()).reshape(slice))
+        .toList());
+  }
+
+  @Test
+  public void of() {
+    var a = ChunkedCell.of(Cell.of(1, 2), Cell.of(3));
+    var w = ChunkedCell.of(Cell.of(1, 2), Cell.of(3));
+    assertEquals(a, w);
+    assertEquals(a.hashCode(), w.hashCode());
+    assertEquals(3, a.elements());
+    assertEquals(2, a.chunkCount());
+    assertEquals(Cell.of(3), a.chunk(1));
+    assertThrows(IllegalArgumentException.class, () -> ChunkedCell.of(Cell.of(2, 2).iota(), Cell.of(2, 3).iota()));
+  }
+
+  @Test
+  public void applyVectorFold() {
+    var a = ChunkedCell.of(Cell.of(1, 2, 3), Cell.of(4, 5), Cell.of(6));
+    assertEquals(ChunkedCell.of(Cell.of(21)), a.apply(ADD.fold()));
+    assertEquals(ChunkedCell.of(Cell.of(6)), a.apply(MAX.fold()));
+    assertEquals(ChunkedCell.of(Cell.of(6)), a.apply(COUNT.fold()));
+    assertEquals(ChunkedCell.of(Cell.of(-21)), a.apply(NEG).apply(ADD.fold()));
+  }
+
+  @Test
+  public void applyFoldNotCombinable() {
+    var a = ChunkedCell.of(Cell.of(1, 2, 3), Cell.of(4, 5));
+    assertThrows(IllegalArgumentException.class, () -> a.apply(DIV.fold()));
+    assertThrows(IllegalArgumentException.class, () -> a.apply(Dyad.of(0, Integer::sum).fold()));
+  }
+
+  @Test
+  public void applyCountMoreThanIntRows() throws IOException {
+    // a sparse mapped file, so the 2^30 rows are never read
+    var path = Files.createTempFile("chunk", ".bin");
+    try {
+      Files.write(path, new byte[] { 1, 0, 0, 0, 0, 0, 0, 0x40 });
+      try(var file = new RandomAccessFile(path.toFile(), "rw")) {
+        file.setLength((2L + (1 << 30)) * Integer.BYTES);
+      }
+      try(var arena = Arena.ofConfined()) {
+        var chunk = Cell.map(arena, path);
+        assertEquals(ChunkedCell.of(Cell.of((1 << 30) + 2)), ChunkedCell.of(chunk, Cell.of(1, 2)).apply(COUNT.fold()));
+        var a = ChunkedCell.of(chunk, chunk, chunk);
+        assertEquals(3L << 30, a.elements());
+        assertThrows(IllegalArgumentException.class, () -> a.apply(COUNT.fold()));
+      }
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void applyDyad() {
+    var a = ChunkedCell.of(Cell.of(1, 2, 3), Cell.of(4, 5));
+    assertEquals(ChunkedCell.of(Cell.of(2, 4, 6), Cell.of(8, 10)), a.apply(ADD, a));
+    assertThrows(IllegalArgumentException.class, () -> a.apply(ADD, ChunkedCell.of(Cell.of(1, 2, 3, 4, 5))));
+  }
+
+  private static Stream<Dyads> combinableDyads() {
+    return Stream.of(ADD, Dyads.MUL, MAX, MIN, Dyads.AND, Dyads.OR, Dyads.XOR, COUNT);
+  }
+
+  @ParameterizedTest
+  @MethodSource("combinableDyads")
+  public void applyFoldSameAsCell(Dyads dyads) {
+    var cell = Cell.of(6, 5, 67).reshape(Cell.of(range(0, 6 * 5 * 67).map(x -> x * 31 % 97 - 40).toArray()));
+    var a = chunks(cell);
+    for(var rank = 1; rank <= 3; rank++) {
+      var expected = cell.apply(dyads.fold(rank));
+      var r = a.apply(dyads.fold(rank));
+      if (rank == 3) {
+        assertEquals(ChunkedCell.of(expected), r);
+      } else {
+        assertEquals(chunks(expected), r);
+      }
+    }
+  }
+}
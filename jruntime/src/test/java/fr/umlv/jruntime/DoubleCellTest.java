@@ -0,0 +1,103 @@
+package fr.umlv.jruntime;
+
+import static fr.umlv.jruntime.Cell.Dyads.ADD;
+import static fr.umlv.jruntime.Cell.Dyads.AND;
+import static fr.umlv.jruntime.Cell.Dyads.COUNT;
+import static fr.umlv.jruntime.Cell.Dyads.DIV;
+import static fr.umlv.jruntime.Cell.Dyads.MIN;
+import static fr.umlv.jruntime.Cell.Dyads.MUL;
+import static fr.umlv.jruntime.Cell.Monads.ABS;
+import static fr.umlv.jruntime.Cell.Monads.NOT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.stream.IntStream;
+import fr.umlv.jruntime.Cell.Dyads;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class DoubleCellTest {
+  @Test
+  public void of() {
+    var a = DoubleCell.of(1.5, 2, 3);
+    assertEquals(DoubleCell.of(1.5, 2, 3), a);
+    assertEquals("[1.5, 2.0, 3.0]", a.toString());
+  }
+
+  @Test
+  public void applyVectorMonad() {
+    var a = DoubleCell.of(-1.5, 2, -3);
+    assertEquals(DoubleCell.of(1.5, 2, 3), a.apply(ABS));
+  }
+  @Test
+  public void applyVectorMonadNotSupported() {
+    var a = DoubleCell.of(1, 2, 3);
+    assertThrows(IllegalArgumentException.class, () -> a.apply(NOT));
+  }
+
+  @Test
+  public void applyVectorDyadBig() {
+    var a = Cell.of(1_000).iota().asDouble();
+    var r = a.apply(DIV, a.apply(ADD, a));
+    var expected = IntStream.range(0, 1_000).mapToDouble(i -> i / (2.0 * i)).toArray();
+    assertEquals(DoubleCell.of(expected), r);
+  }
+  @Test
+  public void applyVectorDyadNotSupported() {
+    var a = DoubleCell.of(1, 2, 3);
+    assertThrows(IllegalArgumentException.class, () -> a.apply(AND, a));
+  }
+
+  @Test
+  public void applyVectorFold() {
+    var a = DoubleCell.of(0.5, 0.25, 0.25);
+    assertEquals(DoubleCell.of(1), a.apply(ADD.fold()));
+    assertEquals(DoubleCell.of(0.03125), a.apply(MUL.fold()));
+  }
+  @Test
+  public void applyMatrixFold() {
+    var a = Cell.of(3, 34).iota().asDouble();
+    var r = a.apply(MIN.fold(2));
+    var expected = IntStream.range(0, 34).asDoubleStream().toArray();
+    assertEquals(DoubleCell.of(expected), r);
+  }
+  @Test
+  public void applyCubeFoldTerms() {
+    var a = Cell.of(2, 3, 4).iota().asDouble();
+    var r = a.apply(ADD.fold(1, DIV, COUNT));
+    assertEquals(Cell.of(2, 3).reshape(DoubleCell.of(1.5, 5.5, 9.5, 13.5, 17.5, 21.5)), r);
+  }
+
+  private static double expected(Dyads dyads, double a, double b) {
+    return switch(dyads) {
+      case ADD -> a + b;
+      case SUB -> a - b;
+      case MUL -> a * b;
+      case DIV -> a / b;
+      case MAX -> Math.max(a, b);
+      case MIN -> Math.min(a, b);
+      case COUNT -> a + 1;
+      case AND, AND_NOT, OR, XOR -> throw new AssertionError();
+    };
+  }
+
+  @Test
+  public void applyAllDyads() {
+    // 57 values, so some values are computed by the post loop
+    var values1 = new double[57];
+    var values2 = new double[57];
+    for(var i = 0; i < 57; i++) {
+      values1[i] = i * 31 % 97 - 40.5;
+      values2[i] = i % 5 + 0.5;
+    }
+    var a = Cell.of(3, 19).reshape(DoubleCell.of(values1));
+    var w = Cell.of(3, 19).reshape(DoubleCell.of(values2));
+    for(var dyads: List.of(Dyads.ADD, Dyads.SUB, Dyads.MUL, Dyads.DIV, Dyads.MAX, Dyads.MIN, Dyads.COUNT)) {
+      var expected = new double[57];
+      for(var i = 0; i < 57; i++) {
+        expected[i] = expected(dyads, values1[i], values2[i]);
+      }
+      assertEquals(Cell.of(3, 19).reshape(DoubleCell.of(expected)), a.apply(dyads, w));
+    }
+  }
+}
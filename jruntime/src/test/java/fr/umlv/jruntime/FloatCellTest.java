@@ -0,0 +1,105 @@
+package fr.umlv.jruntime;
+
+import static fr.umlv.jruntime.Cell.Dyads.ADD;
+import static fr.umlv.jruntime.Cell.Dyads.COUNT;
+import static fr.umlv.jruntime.Cell.Dyads.DIV;
+import static fr.umlv.jruntime.Cell.Dyads.MAX;
+import static fr.umlv.jruntime.Cell.Dyads.MUL;
+import static fr.umlv.jruntime.Cell.Dyads.XOR;
+import static fr.umlv.jruntime.Cell.Monads.NEG;
+import static fr.umlv.jruntime.Cell.Monads.ZOMO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import fr.umlv.jruntime.Cell.Dyads;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class FloatCellTest {
+  @Test
+  public void of() {
+    var a = FloatCell.of(1.5f, 2, 3);
+    assertEquals(FloatCell.of(1.5f, 2, 3), a);
+    assertEquals("[1.5, 2.0, 3.0]", a.toString());
+  }
+
+  @Test
+  public void applyVectorMonadBig() {
+    var a = Cell.of(1_000).iota().asFloat();
+    var r = a.apply(NEG).apply(NEG);
+    assertEquals(a, r);
+  }
+  @Test
+  public void applyVectorMonadNotSupported() {
+    var a = FloatCell.of(1, 2, 3);
+    assertThrows(IllegalArgumentException.class, () -> a.apply(ZOMO));
+  }
+
+  @Test
+  public void applyVectorDyad() {
+    var a = FloatCell.of(1, 2, 3);
+    var w = FloatCell.of(0.5f, 0.25f, 0.75f);
+    assertEquals(FloatCell.of(1.5f, 2.25f, 3.75f), a.apply(ADD, w));
+  }
+  @Test
+  public void applyVectorDyadNotSupported() {
+    var a = FloatCell.of(1, 2, 3);
+    assertThrows(IllegalArgumentException.class, () -> a.apply(XOR, a));
+  }
+
+  @Test
+  public void applyVectorFold() {
+    var a = FloatCell.of(0.5f, 0.25f, 0.25f);
+    assertEquals(FloatCell.of(1), a.apply(ADD.fold()));
+    assertEquals(FloatCell.of(0.03125f), a.apply(MUL.fold()));
+  }
+  @Test
+  public void applyMatrixFoldBig() {
+    var a = Cell.of(34, 2).iota().asFloat();
+    var r = a.apply(MAX.fold(1));
+    var expected = new float[34];
+    for(var i = 0; i < expected.length; i++) {
+      expected[i] = 2 * i + 1;
+    }
+    assertEquals(FloatCell.of(expected), r);
+  }
+  @Test
+  public void applyCubeFoldTerms() {
+    var a = Cell.of(2, 3, 4).iota().asFloat();
+    var r = a.apply(ADD.fold(1, DIV, COUNT));
+    assertEquals(Cell.of(2, 3).reshape(FloatCell.of(1.5f, 5.5f, 9.5f, 13.5f, 17.5f, 21.5f)), r);
+  }
+
+  private static float expected(Dyads dyads, float a, float b) {
+    return switch(dyads) {
+      case ADD -> a + b;
+      case SUB -> a - b;
+      case MUL -> a * b;
+      case DIV -> a / b;
+      case MAX -> Math.max(a, b);
+      case MIN -> Math.min(a, b);
+      case COUNT -> a + 1;
+      case AND, AND_NOT, OR, XOR -> throw new AssertionError();
+    };
+  }
+
+  @Test
+  public void applyAllDyads() {
+    // 57 values, so some values are computed by the post loop
+    var values1 = new float[57];
+    var values2 = new float[57];
+    for(var i = 0; i < 57; i++) {
+      values1[i] = i * 31 % 97 - 40.5f;
+      values2[i] = i % 5 + 0.5f;
+    }
+    var a = Cell.of(3, 19).reshape(FloatCell.of(values1));
+    var w = Cell.of(3, 19).reshape(FloatCell.of(values2));
+    for(var dyads: List.of(Dyads.ADD, Dyads.SUB, Dyads.MUL, Dyads.DIV, Dyads.MAX, Dyads.MIN, Dyads.COUNT)) {
+      var expected = new float[57];
+      for(var i = 0; i < 57; i++) {
+        expected[i] = expected(dyads, values1[i], values2[i]);
+      }
+      assertEquals(Cell.of(3, 19).reshape(FloatCell.of(expected)), a.apply(dyads, w));
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package fr.umlv.jruntime;
+
+import static fr.umlv.jruntime.Cell.Dyads.ADD;
+import static fr.umlv.jruntime.Cell.Dyads.COUNT;
+import static fr.umlv.jruntime.Cell.Dyads.DIV;
+import static fr.umlv.jruntime.Cell.Dyads.MAX;
+import static fr.umlv.jruntime.Cell.Dyads.SUB;
+import static fr.umlv.jruntime.Cell.Monads.NEG;
+import static fr.umlv.jruntime.Cell.Monads.ZOMO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import fr.umlv.jruntime.Cell.Dyad;
+import fr.umlv.jruntime.Cell.Dyads;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+public class LongCellTest {
+  @Test
+  public void of() {
+    var a = LongCell.of(1, 2, 3);
+    var w = LongCell.of(1, 2, 3);
+    assertEquals(a, w);
+    assertEquals(a.hashCode(), w.hashCode());
+    assertEquals("[ 1,  2,  3]", a.toString());
+  }
+
+  @Test
+  public void applyVectorMonad() {
+    var a = LongCell.of(1, 2, 3);
+    var r = a.apply(NEG);
+    assertEquals(LongCell.of(-1, -2, -3), r);
+  }
+  @Test
+  public void applyVectorMonadBig() {
+    var a = Cell.of(1_000).iota().asLong();
+    var r = a.apply(ZOMO);
+    var longs = LongStream.generate(() -> -1).limit(1_000).toArray();
+    longs[0] = 0;
+    assertEquals(LongCell.of(longs), r);
+  }
+
+  @Test
+  public void applyVectorDyad() {
+    var a = LongCell.of(1, 2, 3);
+    var w = LongCell.of(4, 5, 6);
+    var r = a.apply(ADD, w);
+    assertEquals(LongCell.of(5, 7, 9), r);
+  }
+  @Test
+  public void applyVectorDyadNoOverflow() {
+    var a = LongCell.of(Integer.MAX_VALUE, Integer.MAX_VALUE);
+    var r = a.apply(ADD, a);
+    assertEquals(LongCell.of(2L * Integer.MAX_VALUE, 2L * Integer.MAX_VALUE), r);
+  }
+  @Test
+  public void applyVectorUserDefinedDyad() {
+    var dyad = Dyad.of(0, (a, b) -> a + a * b);
+    var a = LongCell.of(1, 2, 3);
+    assertThrows(IllegalArgumentException.class, () -> a.apply(dyad, a));
+  }
+  @Test
+  public void applyDyadNotSameDepths() {
+    var a = LongCell.of(1, 2, 3);
+    var w = Cell.of(3, 1).reshape(a);
+    assertThrows(IllegalArgumentException.class, () -> a.apply(ADD, w));
+  }
+
+  @Test
+  public void applyVectorFoldBig() {
+    var a = Cell.of(100_000).iota().asLong();
+    var r = a.apply(ADD.fold());
+    assertEquals(LongCell.of(4_999_950_000L), r);
+  }
+  @Test
+  public void applyMatrixFold() {
+    var a = Cell.of(4, 3).iota().asLong();
+    assertEquals(LongCell.of(18, 22, 26), a.apply(ADD.fold()));
+    assertEquals(LongCell.of(3, 12, 21, 30), a.apply(ADD.fold(1)));
+    assertEquals(LongCell.of(9, 10, 11), a.apply(MAX.fold(2)));
+    assertEquals(LongCell.of(4, 4, 4), a.apply(COUNT.fold()));
+  }
+  @Test
+  public void applyMatrixFoldNotAssociative() {
+    var a = Cell.of(2, 34).iota().asLong();
+    var expected = LongStream.range(0, 2).map(row -> -LongStream.range(row * 34, row * 34 + 34).sum()).toArray();
+    assertEquals(LongCell.of(expected), a.apply(SUB.fold(1)));
+  }
+  @Test
+  public void applyCubeFold() {
+    var a = Cell.of(2, 34, 4).iota().asLong();
+    var r = a.apply(ADD.fold(2));
+    assertEquals(Cell.of(2, 4).reshape(LongCell.of(2244, 2278, 2312, 2346, 6868, 6902, 6936, 6970)), r);
+  }
+  @Test
+  public void applyVectorFoldTerms() {
+    var a = LongCell.of(1, 2, 3);
+    var r = a.apply(ADD.fold(DIV, COUNT));
+    assertEquals(LongCell.of(2), r);
+  }
+
+  private static long expected(Dyads dyads, long a, long b) {
+    return switch(dyads) {
+      case ADD -> a + b;
+      case SUB -> a - b;
+      case MUL -> a * b;
+      case DIV -> a / b;
+      case MAX -> Math.max(a, b);
+      case MIN -> Math.min(a, b);
+      case AND -> a & b;
+      case AND_NOT -> a & ~b;
+      case OR -> a | b;
+      case XOR -> a ^ b;
+      case COUNT -> a + 1;
+    };
+  }
+
+  @Test
+  public void applyAllDyads() {
+    // 57 values, so some values are computed by the post loop
+    var values1 = LongStream.range(0, 57).map(i -> i * 31 % 97 - 40).toArray();
+    var values2 = LongStream.range(0, 57).map(i -> i % 5 + 1).toArray();
+    var a = Cell.of(3, 19).reshape(LongCell.of(values1));
+    var w = Cell.of(3, 19).reshape(LongCell.of(values2));
+    for(var dyads: Dyads.values()) {
+      var expected = IntStream.range(0, 57).mapToLong(i -> expected(dyads, values1[i], values2[i])).toArray();
+      assertEquals(Cell.of(3, 19).reshape(LongCell.of(expected)), a.apply(dyads, w));
+    }
+  }
+  @Test
+  public void applyCount() {
+    var a = LongCell.of(LongStream.generate(() -> 10).limit(19).toArray());
+    assertEquals(LongCell.of(LongStream.generate(() -> 11).limit(19).toArray()), a.apply(COUNT, a));
+  }
+}
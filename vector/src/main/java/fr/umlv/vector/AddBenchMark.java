@@ -93,7 +93,6 @@ public class AddBenchMark {
     return sum;
   }
 
-  /*
   @Benchmark
   public int add_vector_lanewise_unrolled2() {
     var acc1 = IntVector.zero(SPECIES);
@@ -111,7 +110,7 @@ public class AddBenchMark {
       sum += array[i];
     }
     return sum;
-  }*/
+  }
 
   /*
   @Benchmark
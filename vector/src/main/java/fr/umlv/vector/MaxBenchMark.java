@@ -75,7 +75,6 @@ public class MaxBenchMark {
     return max;
   }
 
-  /*
   @Benchmark
   public int max_vector_lanewise_unrolled2() {
     var acc1 = IntVector.broadcast(SPECIES, Integer.MIN_VALUE);
@@ -96,7 +95,6 @@ public class MaxBenchMark {
     }
     return max;
   }
-  */
 
 
   @Benchmark